@@ -0,0 +1,482 @@
+package dev.brachtendorf.jimagehash.datastructures;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import dev.brachtendorf.Require;
+import dev.brachtendorf.jimagehash.datastructures.tree.Result;
+import dev.brachtendorf.jimagehash.hash.Hash;
+
+/**
+ * A read only collection of hashes and associated ids backed by a memory mapped
+ * file. Opposed to the {@link dev.brachtendorf.jimagehash.datastructures.tree.binaryTree.BinaryTree}
+ * hashes are not loaded onto the heap, allowing corpora larger than the
+ * available memory to be searched. Since the data resides in the page cache of
+ * the operating system multiple jvms mapping the same file share a single copy.
+ *
+ * <p>
+ * Queries are answered by a linear scan over the packed hash values which are
+ * stored contiguously in fixed width records. Ids are only read for matching
+ * hashes.
+ *
+ * <pre>
+ * <code>
+ * File layout (little endian)
+ * 	header    32 bytes: magic "JIHS", int version, int algorithm id,
+ * 	                    int bit resolution, long hash count, 8 bytes reserved
+ * 	hashes    count * wordsPerHash longs
+ * 	ids       count longs
+ * </code>
+ * </pre>
+ *
+ * Stores are created using a {@link HashStore.Writer}. Instances of this class
+ * are immutable and thread safe.
+ *
+ * <p>
+ * Java does not offer an API to unmap a file. {@link #close()} releases the
+ * references to the mapped regions and rejects further queries, the mapping
+ * itself is released once the regions are garbage collected. Until then the
+ * file can not be deleted or replaced on some platforms, e.g. Windows.
+ *
+ * @author Kilian
+ * @since 1.1.0
+ */
+public class HashStore implements Closeable {
+
+	private static final byte[] MAGIC = { 'J', 'I', 'H', 'S' };
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 32;
+
+	private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+	/** The maximum number of bytes a single mapped segment may span */
+	private static final long MAX_SEGMENT_BYTES = Integer.MAX_VALUE & ~7L;
+
+	private final int algorithmId;
+
+	private final int bitResolution;
+
+	private final int wordsPerHash;
+
+	private final long count;
+
+	/** Number of hashes held in each hash segment */
+	private final long hashesPerSegment;
+
+	/** Number of ids held in each id segment */
+	private final long idsPerSegment;
+
+	/** The mapped regions or null once the store is closed */
+	private volatile Segments segments;
+
+	private HashStore(int algorithmId, int bitResolution, long count, long hashesPerSegment, long idsPerSegment,
+			LongBuffer[] hashSegments, LongBuffer[] idSegments) {
+		this.algorithmId = algorithmId;
+		this.bitResolution = bitResolution;
+		this.wordsPerHash = wordCount(bitResolution);
+		this.count = count;
+		this.hashesPerSegment = hashesPerSegment;
+		this.idsPerSegment = idsPerSegment;
+		this.segments = new Segments(hashSegments, idSegments);
+	}
+
+	/**
+	 * Map a hash store file into memory.
+	 *
+	 * @param file the file created by a {@link HashStore.Writer}
+	 * @return a read only hash store
+	 * @throws IOException if an I/O error occurs or the file is not a valid hash
+	 *                     store
+	 */
+	public static HashStore open(File file) throws IOException {
+		return open(file, MAX_SEGMENT_BYTES);
+	}
+
+	/**
+	 * Map a hash store file into memory.
+	 *
+	 * @param file            the file created by a {@link HashStore.Writer}
+	 * @param maxSegmentBytes the maximum size of each mapped region
+	 * @return a read only hash store
+	 * @throws IOException if an I/O error occurs or the file is not a valid hash
+	 *                     store
+	 */
+	static HashStore open(File file, long maxSegmentBytes) throws IOException {
+		// The mapping stays valid after the channel is closed
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ORDER);
+			while (header.hasRemaining()) {
+				if (channel.read(header) < 0) {
+					throw new StreamCorruptedException("Not a hash store file");
+				}
+			}
+			header.flip();
+			for (byte b : MAGIC) {
+				if (header.get() != b) {
+					throw new StreamCorruptedException("Not a hash store file");
+				}
+			}
+			int version = header.getInt();
+			if (version != VERSION) {
+				throw new StreamCorruptedException("Unsupported hash store version: " + version);
+			}
+			int algorithmId = header.getInt();
+			int bitResolution = header.getInt();
+			long count = header.getLong();
+
+			int wordsPerHash = wordCount(bitResolution);
+			long hashBytes = wordsPerHash * 8L;
+			if (count < 0 || channel.size() < HEADER_SIZE + count * (hashBytes + 8)) {
+				throw new StreamCorruptedException("Truncated hash store file");
+			}
+
+			long hashesPerSegment = Math.max(1, maxSegmentBytes / hashBytes);
+			long idsPerSegment = Math.max(1, maxSegmentBytes / 8);
+
+			LongBuffer[] hashSegments = map(channel, HEADER_SIZE, count, hashesPerSegment, hashBytes);
+			LongBuffer[] idSegments = map(channel, HEADER_SIZE + count * hashBytes, count, idsPerSegment, 8);
+
+			return new HashStore(algorithmId, bitResolution, count, hashesPerSegment, idsPerSegment, hashSegments,
+					idSegments);
+		}
+	}
+
+	private static LongBuffer[] map(FileChannel channel, long offset, long count, long perSegment,
+			long elementBytes) throws IOException {
+		int segmentCount = (int) ((count + perSegment - 1) / perSegment);
+		LongBuffer[] segments = new LongBuffer[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			long elements = Math.min(perSegment, count - i * perSegment);
+			segments[i] = channel.map(MapMode.READ_ONLY, offset + i * perSegment * elementBytes, elements * elementBytes)
+					.order(ORDER).asLongBuffer();
+		}
+		return segments;
+	}
+
+	/**
+	 * Return all ids whose hashes hamming distance is smaller or equal than the
+	 * supplied max distance. This method follows the same semantics as
+	 * {@link dev.brachtendorf.jimagehash.datastructures.tree.AbstractBinaryTree#getElementsWithinHammingDistance(Hash, int)}.
+	 *
+	 * @param hash        The hash to search for
+	 * @param maxDistance The maximal hamming distance deviation all found hashes
+	 *                    may possess. A distance of 0 will return all ids whose
+	 *                    hash is exactly the hash supplied as the first argument
+	 * @return Search results contain ids and distances matching the search
+	 *         criteria. The results returned are ordered to return the closest
+	 *         match first.
+	 * @throws IllegalStateException if the hash was created by a different
+	 *                               algorithm or the store is closed
+	 */
+	public PriorityQueue<Result<Long>> getElementsWithinHammingDistance(Hash hash, int maxDistance) {
+		long[] query = queryWords(hash);
+		Segments mapped = segments();
+		LongBuffer[] hashSegments = mapped.hashes;
+
+		PriorityQueue<Result<Long>> result = new PriorityQueue<>();
+
+		for (int s = 0; s < hashSegments.length; s++) {
+			LongBuffer segment = hashSegments[s];
+			int limit = segment.limit();
+			long base = s * hashesPerSegment;
+			for (int offset = 0, i = 0; offset < limit; offset += wordsPerHash, i++) {
+				int distance = 0;
+				// Stop early once the bound is exceeded
+				for (int w = 0; w < wordsPerHash && distance <= maxDistance; w++) {
+					distance += Long.bitCount(segment.get(offset + w) ^ query[w]);
+				}
+				if (distance <= maxDistance) {
+					result.add(new Result<Long>(getId(mapped, base + i), distance, distance / (double) bitResolution));
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Retrieve the ids whose hashes are the most similar to the queried hash. In
+	 * case of equidistant hashes, multiple ids may be returned.
+	 *
+	 * @param hash to search the neighbor for.
+	 * @return the ids of the closest hashes saved in this store.
+	 * @throws IllegalStateException if the hash was created by a different
+	 *                               algorithm or the store is closed
+	 */
+	public List<Result<Long>> getNearestNeighbour(Hash hash) {
+		long[] query = queryWords(hash);
+		Segments mapped = segments();
+		LongBuffer[] hashSegments = mapped.hashes;
+
+		List<Result<Long>> result = new ArrayList<>();
+		int bestDistance = Integer.MAX_VALUE;
+
+		for (int s = 0; s < hashSegments.length; s++) {
+			LongBuffer segment = hashSegments[s];
+			int limit = segment.limit();
+			long base = s * hashesPerSegment;
+			for (int offset = 0, i = 0; offset < limit; offset += wordsPerHash, i++) {
+				int distance = 0;
+				for (int w = 0; w < wordsPerHash && distance <= bestDistance; w++) {
+					distance += Long.bitCount(segment.get(offset + w) ^ query[w]);
+				}
+				if (distance < bestDistance) {
+					result.clear();
+					bestDistance = distance;
+				}
+				if (distance == bestDistance) {
+					result.add(new Result<Long>(getId(mapped, base + i), distance, distance / (double) bitResolution));
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Get the id stored at the given position
+	 *
+	 * @param index the position in the store [0 - size)
+	 * @return the id
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * @throws IllegalStateException     if the store is closed
+	 */
+	public long getId(long index) {
+		checkIndex(index);
+		return getId(segments(), index);
+	}
+
+	private long getId(Segments mapped, long index) {
+		return mapped.ids[(int) (index / idsPerSegment)].get((int) (index % idsPerSegment));
+	}
+
+	/**
+	 * Reconstruct the hash stored at the given position
+	 *
+	 * @param index the position in the store [0 - size)
+	 * @return the hash
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * @throws IllegalStateException     if the store is closed
+	 */
+	public Hash getHash(long index) {
+		checkIndex(index);
+		LongBuffer segment = segments().hashes[(int) (index / hashesPerSegment)];
+		int offset = (int) (index % hashesPerSegment) * wordsPerHash;
+		long[] words = new long[wordsPerHash];
+		for (int w = 0; w < wordsPerHash; w++) {
+			words[w] = segment.get(offset + w);
+		}
+		return new Hash(words, bitResolution, algorithmId);
+	}
+
+	/**
+	 * @return the number of hashes in this store
+	 */
+	public long size() {
+		return count;
+	}
+
+	/**
+	 * @return the algorithm id of the hashes in this store
+	 */
+	public int getAlgorithmId() {
+		return algorithmId;
+	}
+
+	/**
+	 * @return the bit resolution of the hashes in this store
+	 */
+	public int getBitResolution() {
+		return bitResolution;
+	}
+
+	/**
+	 * Release the references to the mapped regions. Subsequent queries throw an
+	 * IllegalStateException. The mapping is released once the regions are garbage
+	 * collected, see the class description. Closing an already closed store has
+	 * no effect.
+	 */
+	@Override
+	public void close() {
+		segments = null;
+	}
+
+	private Segments segments() {
+		Segments mapped = segments;
+		if (mapped == null) {
+			throw new IllegalStateException("The hash store is closed");
+		}
+		return mapped;
+	}
+
+	private void checkIndex(long index) {
+		if (index < 0 || index >= count) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + count);
+		}
+	}
+
+	private long[] queryWords(Hash hash) {
+		if (algorithmId != hash.getAlgorithmId()) {
+			throw new IllegalStateException("Tried to query the store with an incompatible hash");
+		}
+		long[] words = hash.toLongArray();
+		return words.length == wordsPerHash ? words : Arrays.copyOf(words, wordsPerHash);
+	}
+
+	private static int wordCount(int bits) {
+		return (bits + 63) >>> 6;
+	}
+
+	/**
+	 * The mapped hash and id regions
+	 */
+	private static class Segments {
+		private final LongBuffer[] hashes;
+		private final LongBuffer[] ids;
+
+		Segments(LongBuffer[] hashes, LongBuffer[] ids) {
+			this.hashes = hashes;
+			this.ids = ids;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "HashStore [algorithmId=" + algorithmId + ", bitResolution=" + bitResolution + ", size=" + count + "]";
+	}
+
+	/**
+	 * Writes hashes and their ids to a file which can be mapped by
+	 * {@link HashStore#open(File)}.
+	 *
+	 * <p>
+	 * Ids are buffered in a temporary file and appended once the writer is
+	 * closed. The store is only valid after {@link #close()} was called.
+	 *
+	 * @author Kilian
+	 * @since 1.1.0
+	 */
+	public static class Writer implements Closeable {
+
+		private final int algorithmId;
+		private final int bitResolution;
+		private final int wordsPerHash;
+
+		private final FileChannel channel;
+		private final File idFile;
+		private final FileChannel idChannel;
+
+		/** Holds at least a single hash */
+		private final ByteBuffer hashBuffer;
+		private final ByteBuffer idBuffer = ByteBuffer.allocateDirect(1 << 16).order(ORDER);
+
+		private long count;
+
+		/**
+		 * Create a writer. An existing file will be overwritten.
+		 *
+		 * @param target        the file to write the store to
+		 * @param bitResolution the bit resolution of the hashes added
+		 * @param algorithmId   the algorithm id of the hashes added
+		 * @throws IOException if an I/O error occurs
+		 */
+		public Writer(File target, int bitResolution, int algorithmId) throws IOException {
+			this.bitResolution = Require.positiveValue(bitResolution, "The bit resolution has to be positive");
+			this.algorithmId = algorithmId;
+			this.wordsPerHash = wordCount(bitResolution);
+			hashBuffer = ByteBuffer.allocateDirect(Math.max(1 << 16, wordsPerHash * 8)).order(ORDER);
+
+			channel = FileChannel.open(target.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+			channel.position(HEADER_SIZE);
+
+			idFile = Files.createTempFile("hashStoreIds", ".tmp").toFile();
+			idChannel = FileChannel.open(idFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.READ,
+					StandardOpenOption.DELETE_ON_CLOSE);
+		}
+
+		/**
+		 * Append a hash to the store
+		 *
+		 * @param hash the hash to add
+		 * @param id   the id associated with the hash
+		 * @throws IOException              if an I/O error occurs
+		 * @throws IllegalArgumentException if the hash was created by a different
+		 *                                  algorithm or is of different length
+		 */
+		public void add(Hash hash, long id) throws IOException {
+			if (hash.getAlgorithmId() != algorithmId || hash.getBitResolution() != bitResolution) {
+				throw new IllegalArgumentException("Can't add hashes with unequal length or algorithmIds");
+			}
+			long[] words = hash.toLongArray();
+
+			if (hashBuffer.remaining() < wordsPerHash * 8) {
+				flush(hashBuffer, channel);
+			}
+			for (int w = 0; w < wordsPerHash; w++) {
+				hashBuffer.putLong(w < words.length ? words[w] : 0);
+			}
+
+			if (!idBuffer.hasRemaining()) {
+				flush(idBuffer, idChannel);
+			}
+			idBuffer.putLong(id);
+			count++;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				flush(hashBuffer, channel);
+				flush(idBuffer, idChannel);
+
+				// Append ids
+				long size = idChannel.size();
+				long position = channel.position();
+				long transferred = 0;
+				while (transferred < size) {
+					transferred += idChannel.transferTo(transferred, size - transferred, channel);
+				}
+				channel.position(position + size);
+
+				ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ORDER);
+				header.put(MAGIC);
+				header.putInt(VERSION);
+				header.putInt(algorithmId);
+				header.putInt(bitResolution);
+				header.putLong(count);
+				header.position(HEADER_SIZE);
+				header.flip();
+				while (header.hasRemaining()) {
+					channel.write(header, header.position());
+				}
+			} finally {
+				idChannel.close();
+				channel.close();
+				idFile.delete();
+			}
+		}
+
+		private static void flush(ByteBuffer buffer, FileChannel target) throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				target.write(buffer);
+			}
+			buffer.clear();
+		}
+	}
+}
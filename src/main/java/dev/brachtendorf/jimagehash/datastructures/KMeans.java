@@ -135,7 +135,7 @@ public class KMeans {
 				int i = 0;
 				for (FuzzyHash fuzzy : clusterMeans) {
 					fuzzy.reset();
-					clones[i++] = new Hash(fuzzy.getHashValue(), fuzzy.getBitResolution(), fuzzy.getAlgorithmId());
+					clones[i++] = new Hash(fuzzy.toLongArray(), fuzzy.getBitResolution(), fuzzy.getAlgorithmId());
 				}
 
 				for (int dataIndex = 0; dataIndex < hashes.length; dataIndex++) {
@@ -1,6 +1,5 @@
 package dev.brachtendorf.jimagehash.datastructures.tree.binaryTree;
 
-import java.math.BigInteger;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
@@ -107,7 +106,6 @@ public class BinaryTree<T> extends AbstractBinaryTree<T> {
 
 		PriorityQueue<Result<T>> result = new PriorityQueue<Result<T>>();
 
-		BigInteger hashValue = hash.getHashValue();
 		int treeDepth = hash.getBitResolution();
 
 		ArrayDeque<NodeInfo<T>> queue = new ArrayDeque<>();
@@ -132,12 +130,12 @@ public class BinaryTree<T> extends AbstractBinaryTree<T> {
 			}
 			/*
 			 * else { System.out.printf("%-8s Depth: %d Distance: %d Next Bit: %s%n",
-			 * info.curPath, info.depth, info.distance, hashValue.testBit(info.depth - 1) ?
+			 * info.curPath, info.depth, info.distance, hash.getBitUnsafe(info.depth - 1) ?
 			 * "1" : "0"); }
 			 */
 
 			// Next bit
-			boolean bit = hashValue.testBit(info.depth - 1);
+			boolean bit = hash.getBitUnsafe(info.depth - 1);
 			// Are children of the current
 
 			Node correctChild = info.node.getChild(bit);
@@ -171,7 +169,6 @@ public class BinaryTree<T> extends AbstractBinaryTree<T> {
 			throw new IllegalStateException("Tried to add an incompatible hash to the binary tree");
 		}
 
-		BigInteger hashValue = hash.getHashValue();
 		int treeDepth = hash.getBitResolution();
 
 		ArrayDeque<NodeInfo<T>> queue = new ArrayDeque<>();
@@ -212,7 +209,7 @@ public class BinaryTree<T> extends AbstractBinaryTree<T> {
 			// TODO das ist keine tiefensuche!
 
 			// Next bit
-			boolean bit = hashValue.testBit(info.depth - 1);
+			boolean bit = hash.getBitUnsafe(info.depth - 1);
 			// Are children of the current
 
 			if (info.distance + 1 <= curBestDistance) {
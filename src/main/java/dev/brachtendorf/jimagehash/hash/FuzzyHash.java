@@ -1,12 +1,13 @@
 package dev.brachtendorf.jimagehash.hash;
 
 import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
 import java.math.BigInteger;
 import java.util.logging.Logger;
 
@@ -121,6 +122,24 @@ public class FuzzyHash extends Hash {
 		merge(hashs);
 	}
 
+	/**
+	 * Restore a fuzzy hash from it's bit counters.
+	 * 
+	 * @param algorithmId    the algorithm id of the merged hashes
+	 * @param hashLength     the bit resolution of the merged hashes
+	 * @param bits           the difference in 1 and 0 bits for each position
+	 * @param numHashesAdded the number of hashes merged into this hash
+	 */
+	FuzzyHash(int algorithmId, int hashLength, int[] bits, int numHashesAdded) {
+		super(BigInteger.ZERO, 0, Integer.MAX_VALUE);
+		initHash(algorithmId, hashLength);
+		this.bits = bits;
+		this.numHashesAdded = numHashesAdded;
+		dirtyBits = true;
+		dirtyWeights = true;
+		dirtyDistance = true;
+	}
+
 	/**
 	 * Initialize the hash fields with the first added hash. as soon as we know the
 	 * correct length
@@ -131,6 +150,8 @@ public class FuzzyHash extends Hash {
 	private void initHash(int algorithmId, int hashLength) {
 		this.algorithmId = algorithmId;
 		this.hashLength = hashLength;
+		this.words = new long[wordCount(hashLength)];
+		this.hashValue = null;
 		bits = new int[hashLength];
 		bitWeights = new double[hashLength];
 		bitDistance = new double[hashLength];
@@ -575,7 +596,9 @@ public class FuzzyHash extends Hash {
 	}
 
 	private void updateHash() {
-		hashValue = BigInteger.ZERO;
+		// A new array is created instead of altering the old one in place since
+		// words may be shared with other hash instances
+		long[] packed = new long[wordCount(hashLength)];
 		for (int i = hashLength - 1; i >= 0; i--) {
 			// XXX we only have a binary representation. A bit weight of 0 usually means
 			// that
@@ -583,11 +606,12 @@ public class FuzzyHash extends Hash {
 			// hamming distance
 			// and normalized hamming distance will be skewed for sparsely populated hashes
 			if (bits[i] > 0) {
-				hashValue = hashValue.shiftLeft(1).add(BigInteger.ONE);
-			} else {
-				hashValue = hashValue.shiftLeft(1);
+				packed[i >>> 6] |= 1L << i;
 			}
 		}
+		words = packed;
+		// Invalidate the big integer view
+		hashValue = null;
 		dirtyBits = false;
 	}
 
@@ -744,6 +768,12 @@ public class FuzzyHash extends Hash {
 		return super.getHashValue();
 	}
 
+	@Override
+	protected long[] packedWords() {
+		ensureUpToDateHash();
+		return super.packedWords();
+	}
+
 	@Override
 	public boolean getBitUnsafe(int position) {
 		return bits[position] > 0;
@@ -899,26 +929,49 @@ public class FuzzyHash extends Hash {
 		}
 	}
 
+	/**
+	 * Saves this hash to a file for persistent storage using the binary format of
+	 * the {@link HashWriter}. The hash can later be recovered by calling
+	 * {@link #fromFile(File)};
+	 * 
+	 * @param saveLocation the file to save the hash to
+	 * @throws IOException If an error occurs during file access
+	 * @since 3.0.0
+	 * @since 1.1.0 binary format instead of java serialization
+	 */
 	public void toFile(File saveLocation) throws IOException {
-		try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(saveLocation))) {
-			oos.writeObject(this);
+		try (HashWriter writer = new HashWriter(saveLocation)) {
+			writer.write(this);
 		}
 	}
 
 	/**
-	 * Reads a hash from a serialization file and returns it. Only hashes can be
-	 * read from file that got saved by the same class instance using
-	 * {@link #toFile(File)};
+	 * Reads a hash from a file and returns it. Only hashes can be read from file
+	 * that got saved by the same class instance using {@link #toFile(File)};
+	 * 
+	 * <p>
+	 * Files created by java serialization in earlier versions are still supported.
 	 * 
 	 * @param source The file this hash can be read from.
 	 * @return a hash object
-	 * @throws IOException            If an error occurs during file read
+	 * @throws IOException            If an error occurs during file read or the
+	 *                                file does not contain a fuzzy hash
 	 * @throws ClassNotFoundException if the class used to serialize this hash can
 	 *                                not be found
 	 * @since 3.0.0
 	 */
 	public static FuzzyHash fromFile(File source) throws IOException, ClassNotFoundException {
-		try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(source))) {
+		try (InputStream in = new BufferedInputStream(new FileInputStream(source))) {
+			if (!HashReader.isJavaSerialized(in)) {
+				try (HashReader reader = new HashReader(in)) {
+					Hash hash = reader.read();
+					if (!(hash instanceof FuzzyHash)) {
+						throw new StreamCorruptedException("The file does not contain a fuzzy hash");
+					}
+					return (FuzzyHash) hash;
+				}
+			}
+			ObjectInputStream ois = new ObjectInputStream(in);
 			FuzzyHash fuzzy = (FuzzyHash) ois.readObject();
 			fuzzy.dirtyBits = true;
 			fuzzy.dirtyDistance = true;
@@ -1,10 +1,12 @@
 package dev.brachtendorf.jimagehash.hash;
 
 import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
@@ -27,14 +29,29 @@ import javafx.scene.paint.Color;
  * hash usually represents a section of the image containing certain information
  * (hue, brightness, color, frequencies or gradients)
  * 
+ * <p>
+ * Internally the bits are packed into a <code>long[]</code> array allowing
+ * distance computations to be carried out without allocating intermediary
+ * objects. The {@link java.math.BigInteger} representation returned by
+ * {@link #getHashValue()} is only created on demand.
+ * 
  * @author Kilian
  * @since 1.0.0
  * @since 3.0.0 Serializable
+ * @since 1.1.0 packed long representation
  */
 public class Hash implements Serializable {
 
 	private static final long serialVersionUID = 3045682506632674223L;
 
+	/**
+	 * Returned by {@link #hammingDistanceBounded(Hash, int)} if the distance
+	 * exceeds the supplied bound.
+	 * 
+	 * @since 1.1.0
+	 */
+	public static final int DISTANCE_EXCEEDED = Integer.MAX_VALUE;
+
 	/**
 	 * Unique identifier of the algorithm and settings used to create the hash
 	 */
@@ -48,9 +65,22 @@ public class Hash implements Serializable {
 	 * truncated therefore it is the algorithms responsibility to add a 1 padding
 	 * bit at the beginning new BigInteger("011011) new BigInteger("000101) 1xxxxx
 	 * 
+	 * <p>
+	 * The big integer is a lazily created view of {@link #words} and may be
+	 * <code>null</code> until it is requested via {@link #getHashValue()}. It
+	 * is kept as serialized field to stay compatible with previously serialized
+	 * hashes.
 	 */
 	protected BigInteger hashValue;
 
+	/**
+	 * Packed hash value. Bit <code>n</code> of the hash is stored at bit
+	 * <code>n % 64</code> of the word at index <code>n / 64</code>. The array is
+	 * never mutated after it was assigned, therefore it may safely be shared
+	 * between hash instances.
+	 */
+	protected transient long[] words;
+
 	/**
 	 * How many bits does this hash represent. Necessary due to suffix 0 bits
 	 * beginning dropped.
@@ -70,11 +100,62 @@ public class Hash implements Serializable {
 	 *                    hash
 	 */
 	public Hash(BigInteger hashValue, int hashLength, int algorithmId) {
-		this.hashValue = hashValue;
+		this.words = pack(hashValue, hashLength);
+		this.algorithmId = algorithmId;
+		this.hashLength = hashLength;
+	}
+
+	/**
+	 * Creates a Hash object with the specified packed hash value and algorithmId.
+	 * To allow save comparison of different hashes they have to be generated by
+	 * the same algorithm.
+	 * 
+	 * @param words       The packed hash value describing the image. Bit
+	 *                    <code>n</code> of the hash is expected at bit
+	 *                    <code>n % 64</code> of the word at index
+	 *                    <code>n / 64</code>. The array is copied.
+	 * @param hashLength  the actual bit resolution of the hash.
+	 * @param algorithmId Unique identifier of the algorithm used to create this
+	 *                    hash
+	 * @since 1.1.0
+	 */
+	public Hash(long[] words, int hashLength, int algorithmId) {
+		this.words = words.clone();
 		this.algorithmId = algorithmId;
 		this.hashLength = hashLength;
 	}
 
+	/**
+	 * Create a hash taking ownership of the supplied packed words without copying
+	 * them. The caller must not modify the array afterwards.
+	 * 
+	 * @param words       the packed hash value
+	 * @param hashLength  the actual bit resolution of the hash.
+	 * @param algorithmId Unique identifier of the algorithm used to create this
+	 *                    hash
+	 * @return a hash backed by the supplied array
+	 */
+	static Hash wrap(long[] words, int hashLength, int algorithmId) {
+		Hash hash = new Hash(BigInteger.ZERO, 0, algorithmId);
+		hash.words = words;
+		hash.hashLength = hashLength;
+		return hash;
+	}
+
+	/**
+	 * Creates a Hash object sharing the value, length and algorithm id of the
+	 * supplied hash. Intended to be used by sub classes which wrap an existing
+	 * hash to alter it's behavior.
+	 * 
+	 * @param original the hash to copy the values from
+	 * @since 1.1.0
+	 */
+	protected Hash(Hash original) {
+		this.words = original.packedWords();
+		this.algorithmId = original.getAlgorithmId();
+		this.hashLength = original.getBitResolution();
+	}
+
 	/**
 	 * Calculate the hamming distance of 2 hash values. The distance of two hashes
 	 * is the difference of the individual bits found in the hash.
@@ -129,7 +210,53 @@ public class Hash implements Serializable {
 	 * @see #hammingDistance(Hash)
 	 */
 	public int hammingDistanceFast(Hash h) {
-		return this.hashValue.xor(h.getHashValue()).bitCount();
+		long[] a = packedWords();
+		long[] b = h.packedWords();
+		// Most hashes fit into a single word
+		if (a.length == 1 && b.length == 1) {
+			return Long.bitCount(a[0] ^ b[0]);
+		}
+		return hammingDistance(a, b);
+	}
+
+	/**
+	 * Calculate the hamming distance of 2 hash values as long as it does not
+	 * exceed the supplied bound. Bits are compared 64 at a time and the
+	 * computation stops as soon as the running distance is greater than
+	 * <code>maxDistance</code>. This is considerably cheaper than
+	 * {@link #hammingDistanceFast(Hash)} for long hashes if only a threshold check
+	 * is required.
+	 * <p>
+	 *
+	 * Please be aware that only hashes produced by the same algorithm with the same
+	 * settings will return meaningful result and should be compared. This method
+	 * will <b>NOT</b> check if the hashes are compatible.
+	 * 
+	 * @param h           The hash to calculate the distance to
+	 * @param maxDistance the maximum distance of interest (inclusive)
+	 * @return the hamming distance if it is smaller or equal to maxDistance,
+	 *         otherwise {@link #DISTANCE_EXCEEDED}
+	 * @since 1.1.0
+	 */
+	public int hammingDistanceBounded(Hash h, int maxDistance) {
+		long[] a = packedWords();
+		long[] b = h.packedWords();
+		int common = Math.min(a.length, b.length);
+		int distance = 0;
+		for (int i = 0; i < common; i++) {
+			distance += Long.bitCount(a[i] ^ b[i]);
+			if (distance > maxDistance) {
+				return DISTANCE_EXCEEDED;
+			}
+		}
+		long[] longer = a.length > b.length ? a : b;
+		for (int i = common; i < longer.length; i++) {
+			distance += Long.bitCount(longer[i]);
+			if (distance > maxDistance) {
+				return DISTANCE_EXCEEDED;
+			}
+		}
+		return distance > maxDistance ? DISTANCE_EXCEEDED : distance;
 	}
 
 	/**
@@ -156,7 +283,7 @@ public class Hash implements Serializable {
 	 * @see #hammingDistance(Hash)
 	 */
 	public int hammingDistanceFast(BigInteger bInt) {
-		return this.hashValue.xor(bInt).bitCount();
+		return getHashValue().xor(bInt).bitCount();
 	}
 
 	/**
@@ -238,7 +365,15 @@ public class Hash implements Serializable {
 	 * @since 2.0.0
 	 */
 	public boolean getBitUnsafe(int position) {
-		return hashValue.testBit(position);
+		if (position < 0) {
+			throw new ArithmeticException("Negative bit address");
+		}
+		long[] packed = packedWords();
+		int wordIndex = position >>> 6;
+		if (wordIndex >= packed.length) {
+			return false;
+		}
+		return (packed[wordIndex] & (1L << position)) != 0;
 	}
 
 	/**
@@ -252,10 +387,41 @@ public class Hash implements Serializable {
 	}
 
 	/**
+	 * Return the hash value as big integer. The big integer is created lazily on
+	 * first access, distance computations do not rely on it.
+	 * 
 	 * @return the base BigInteger holding the hash value
 	 */
 	public BigInteger getHashValue() {
-		return hashValue;
+		BigInteger value = hashValue;
+		if (value == null) {
+			value = unpack(packedWords());
+			hashValue = value;
+		}
+		return value;
+	}
+
+	/**
+	 * Return a copy of the packed hash value. Bit <code>n</code> of the hash is
+	 * stored at bit <code>n % 64</code> of the word at index <code>n / 64</code>.
+	 * 
+	 * @return the packed long representation of the hash value
+	 * @since 1.1.0
+	 */
+	public long[] toLongArray() {
+		return packedWords().clone();
+	}
+
+	/**
+	 * Return the internal packed representation of the hash value without copying
+	 * it. Sub classes which lazily compute their value have to make sure that the
+	 * returned array is up to date. The returned array must not be modified.
+	 * 
+	 * @return the packed words of this hash
+	 * @since 1.1.0
+	 */
+	protected long[] packedWords() {
+		return words;
 	}
 
 	/**
@@ -279,7 +445,7 @@ public class Hash implements Serializable {
 		int[] colorIndex = new int[hashLength];
 
 		for (int i = 0; i < hashLength; i++) {
-			colorIndex[i] = hashValue.testBit(i) ? 1 : 0;
+			colorIndex[i] = getBitUnsafe(i) ? 1 : 0;
 		}
 		return toImage(colorIndex, colorArr, blockSize);
 	}
@@ -353,23 +519,33 @@ public class Hash implements Serializable {
 	}
 
 	/**
-	 * Saves this hash to a file for persistent storage. The hash can later be
-	 * recovered by calling {@link #fromFile(File)};
+	 * Saves this hash to a file for persistent storage using the binary format of
+	 * the {@link HashWriter}. The hash can later be recovered by calling
+	 * {@link #fromFile(File)};
+	 * 
+	 * <p>
+	 * Algorithm specific sub classes are saved as plain hashes. Use
+	 * {@link HashingAlgorithm#createAlgorithmSpecificHash(Hash)} to restore them.
+	 * To save many hashes at once use a {@link HashWriter} directly.
 	 * 
 	 * @param saveLocation the file to save the hash to
 	 * @throws IOException If an error occurs during file access
 	 * @since 3.0.0
+	 * @since 1.1.0 binary format instead of java serialization
 	 */
 	public void toFile(File saveLocation) throws IOException {
-		try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(saveLocation))) {
-			oos.writeObject(this);
+		try (HashWriter writer = new HashWriter(saveLocation)) {
+			writer.write(this);
 		}
 	}
 
 	/**
-	 * Reads a hash from a serialization file and returns it. Only hashes can be read from file
+	 * Reads a hash from a file and returns it. Only hashes can be read from file
 	 * that got saved by the same class instance using {@link #toFile(File)};
 	 * 
+	 * <p>
+	 * Files created by java serialization in earlier versions are still supported.
+	 * 
 	 * @param source The file this hash can be read from.
 	 * @return a hash object
 	 * @throws IOException            If an error occurs during file read
@@ -378,7 +554,17 @@ public class Hash implements Serializable {
 	 * @since 3.0.0
 	 */
 	public static Hash fromFile(File source) throws IOException, ClassNotFoundException {
-		try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(source))) {
+		try (InputStream in = new BufferedInputStream(new FileInputStream(source))) {
+			if (!HashReader.isJavaSerialized(in)) {
+				try (HashReader reader = new HashReader(in)) {
+					Hash hash = reader.read();
+					if (hash == null) {
+						throw new EOFException("The file does not contain a hash");
+					}
+					return hash;
+				}
+			}
+			ObjectInputStream ois = new ObjectInputStream(in);
 			Object o = ois.readObject();
 			//Ugly. This is not oop.
 			if(o.getClass() == FuzzyHash.class) {
@@ -403,7 +589,7 @@ public class Hash implements Serializable {
 	 *         byte.
 	 */
 	public byte[] toByteArray() {
-		byte[] bArray = hashValue.toByteArray();
+		byte[] bArray = getHashValue().toByteArray();
 
 		if (bArray[0] != 0) {
 			return bArray;
@@ -415,8 +601,93 @@ public class Hash implements Serializable {
 
 	}
 
+	/**
+	 * Calculate the hamming distance between two packed hash values. Words
+	 * missing in the shorter array are treated as 0.
+	 * 
+	 * @param a the first packed hash value
+	 * @param b the second packed hash value
+	 * @return the number of differing bits
+	 */
+	static int hammingDistance(long[] a, long[] b) {
+		int common = Math.min(a.length, b.length);
+		int distance = 0;
+		for (int i = 0; i < common; i++) {
+			distance += Long.bitCount(a[i] ^ b[i]);
+		}
+		long[] longer = a.length > b.length ? a : b;
+		for (int i = common; i < longer.length; i++) {
+			distance += Long.bitCount(longer[i]);
+		}
+		return distance;
+	}
+
+	/**
+	 * Compute the number of longs required to hold the given number of bits
+	 * 
+	 * @param bits the number of bits
+	 * @return the number of words
+	 */
+	static int wordCount(int bits) {
+		return (bits + 63) >>> 6;
+	}
+
+	/**
+	 * Convert a positive big integer to it's packed representation.
+	 * 
+	 * @param value      the big integer to convert
+	 * @param hashLength the bit resolution of the hash. If the big integer
+	 *                   contains more bits all bits will be retained.
+	 * @return the packed words
+	 */
+	static long[] pack(BigInteger value, int hashLength) {
+		long[] packed = new long[wordCount(Math.max(hashLength, value.bitLength()))];
+		// Big endian two's complement. The most significant byte is at index 0
+		byte[] bytes = value.toByteArray();
+		for (int i = 0; i < bytes.length; i++) {
+			int wordIndex = i >>> 3;
+			if (wordIndex >= packed.length) {
+				// Only the sign byte is left
+				break;
+			}
+			packed[wordIndex] |= (bytes[bytes.length - 1 - i] & 0xFFL) << ((i & 7) << 3);
+		}
+		return packed;
+	}
+
+	/**
+	 * Convert packed words back to a positive big integer
+	 * 
+	 * @param packed the packed words
+	 * @return the big integer representation
+	 */
+	static BigInteger unpack(long[] packed) {
+		byte[] bytes = new byte[packed.length * 8];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[bytes.length - 1 - i] = (byte) (packed[i >>> 3] >>> ((i & 7) << 3));
+		}
+		return new BigInteger(1, bytes);
+	}
+
+	/**
+	 * Serialize the hash. The big integer representation is written to stay
+	 * compatible with hashes serialized by earlier versions.
+	 * 
+	 * @param oos the stream to write to
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void writeObject(ObjectOutputStream oos) throws IOException {
+		getHashValue();
+		oos.defaultWriteObject();
+	}
+
+	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+		ois.defaultReadObject();
+		words = pack(hashValue, hashLength);
+	}
+
 	public String toString() {
-		return "Hash: " + StringUtil.fillStringBeginning("0", hashLength, hashValue.toString(2)) + " [algoId: "
+		return "Hash: " + StringUtil.fillStringBeginning("0", hashLength, getHashValue().toString(2)) + " [algoId: "
 				+ algorithmId + "]";
 	}
 
@@ -425,7 +696,15 @@ public class Hash implements Serializable {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + algorithmId;
-		result = prime * result + ((hashValue == null) ? 0 : hashValue.hashCode());
+		long[] packed = packedWords();
+		// Ignore leading zero words to stay consistent with equals
+		int last = packed.length - 1;
+		while (last >= 0 && packed[last] == 0) {
+			last--;
+		}
+		for (int i = 0; i <= last; i++) {
+			result = prime * result + Long.hashCode(packed[i]);
+		}
 		return result;
 	}
 
@@ -440,12 +719,7 @@ public class Hash implements Serializable {
 		Hash other = (Hash) obj;
 		if (algorithmId != other.getAlgorithmId())
 			return false;
-		if (hashValue == null) {
-			if (other.hashValue != null)
-				return false;
-		} else if (!hashValue.equals(other.getHashValue()))
-			return false;
-		return true;
+		return hammingDistance(packedWords(), other.packedWords()) == 0;
 	}
 
 }
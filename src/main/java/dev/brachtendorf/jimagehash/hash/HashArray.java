@@ -0,0 +1,266 @@
+package dev.brachtendorf.jimagehash.hash;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+import dev.brachtendorf.Require;
+
+/**
+ * A growable container holding hashes of a single algorithm contiguously as
+ * packed <code>long</code> words. The words of the hash at index
+ * <code>i</code> are located at
+ * <code>[i * wordsPerHash, (i+1) * wordsPerHash)</code> of the backing array.
+ *
+ * <p>
+ * Opposed to iterating a collection of {@link Hash} objects and calling
+ * {@link Hash#hammingDistanceFast(Hash)} for each element, the bulk operations
+ * of this class scan a single primitive array sequentially without any object
+ * dereferencing or allocation. This makes brute force one to many comparisons
+ * of millions of hashes bound by memory bandwidth.
+ *
+ * <p>
+ * This class is not thread safe. Concurrent scans are safe as long as no hashes
+ * are added at the same time.
+ *
+ * @author Kilian
+ * @since 1.1.0
+ */
+public class HashArray implements Serializable {
+
+	private static final long serialVersionUID = -2870946376580294785L;
+
+	/** The algorithm id all hashes in this array share */
+	private final int algorithmId;
+
+	/** The bit resolution all hashes in this array share */
+	private final int bitResolution;
+
+	/** The number of longs used to represent a single hash */
+	private final int wordsPerHash;
+
+	/** The packed words of all hashes */
+	private long[] words;
+
+	/** The number of hashes currently held */
+	private int size;
+
+	/**
+	 * Create an empty hash array
+	 *
+	 * @param bitResolution the bit resolution of the hashes added to this array
+	 * @param algorithmId   the algorithm id of the hashes added to this array
+	 */
+	public HashArray(int bitResolution, int algorithmId) {
+		this(bitResolution, algorithmId, 16);
+	}
+
+	/**
+	 * Create an empty hash array
+	 *
+	 * @param bitResolution   the bit resolution of the hashes added to this array
+	 * @param algorithmId     the algorithm id of the hashes added to this array
+	 * @param initialCapacity the number of hashes the array can hold before it has
+	 *                        to grow
+	 */
+	public HashArray(int bitResolution, int algorithmId, int initialCapacity) {
+		this.bitResolution = Require.positiveValue(bitResolution, "The bit resolution has to be positive");
+		this.algorithmId = algorithmId;
+		this.wordsPerHash = Hash.wordCount(bitResolution);
+		this.words = new long[Math.max(1, initialCapacity) * wordsPerHash];
+	}
+
+	/**
+	 * Create a hash array containing the supplied hashes. The bit resolution and
+	 * algorithm id are taken from the first hash.
+	 *
+	 * @param hashes the hashes to add
+	 * @return a hash array containing all hashes in the given order
+	 * @throws IllegalArgumentException if no hash is supplied or the hashes are
+	 *                                  not compatible
+	 */
+	public static HashArray of(Hash... hashes) {
+		if (hashes.length == 0) {
+			throw new IllegalArgumentException("Please provide at least 1 hash to add to the array");
+		}
+		HashArray array = new HashArray(hashes[0].getBitResolution(), hashes[0].getAlgorithmId(), hashes.length);
+		for (Hash h : hashes) {
+			array.add(h);
+		}
+		return array;
+	}
+
+	/**
+	 * Append a hash to this array.
+	 *
+	 * @param hash the hash to add
+	 * @return the index of the added hash
+	 * @throws IllegalArgumentException if the hash was created by a different
+	 *                                  algorithm or is of different length
+	 */
+	public int add(Hash hash) {
+		checkCompatible(hash);
+		if ((size + 1) * wordsPerHash > words.length) {
+			words = Arrays.copyOf(words, Math.max(words.length * 2, (size + 1) * wordsPerHash));
+		}
+		long[] packed = hash.packedWords();
+		System.arraycopy(packed, 0, words, size * wordsPerHash, Math.min(packed.length, wordsPerHash));
+		return size++;
+	}
+
+	/**
+	 * Reconstruct the hash at the given index
+	 *
+	 * @param index the index of the hash
+	 * @return a hash object holding the same value as the hash added at this
+	 *         position
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public Hash get(int index) {
+		Objects.checkIndex(index, size);
+		int offset = index * wordsPerHash;
+		return Hash.wrap(Arrays.copyOfRange(words, offset, offset + wordsPerHash), bitResolution, algorithmId);
+	}
+
+	/**
+	 * Calculate the hamming distance between the query and the hash at the given
+	 * index.
+	 *
+	 * @param query the hash to compare against
+	 * @param index the index of the hash in this array
+	 * @return the hamming distance
+	 * @throws IllegalArgumentException  if the query is not compatible with this
+	 *                                   array
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public int distance(Hash query, int index) {
+		long[] q = queryWords(query);
+		Objects.checkIndex(index, size);
+		int offset = index * wordsPerHash;
+		int distance = 0;
+		for (int w = 0; w < wordsPerHash; w++) {
+			distance += Long.bitCount(words[offset + w] ^ q[w]);
+		}
+		return distance;
+	}
+
+	/**
+	 * Calculate the hamming distance between the query and every hash in this
+	 * array. The distance to the hash at index <code>i</code> is written to
+	 * <code>out[i]</code>.
+	 *
+	 * @param query the hash to compare against
+	 * @param out   the array receiving the distances. Has to hold at least
+	 *              {@link #size()} elements
+	 * @throws IllegalArgumentException if the query is not compatible with this
+	 *                                  array or the out array is too small
+	 */
+	public void distances(Hash query, int[] out) {
+		long[] q = queryWords(query);
+		if (out.length < size) {
+			throw new IllegalArgumentException("The out array has to hold at least " + size + " elements");
+		}
+
+		if (wordsPerHash == 1) {
+			long q0 = q[0];
+			for (int i = 0; i < size; i++) {
+				out[i] = Long.bitCount(words[i] ^ q0);
+			}
+		} else {
+			for (int i = 0, offset = 0; i < size; i++, offset += wordsPerHash) {
+				int distance = 0;
+				for (int w = 0; w < wordsPerHash; w++) {
+					distance += Long.bitCount(words[offset + w] ^ q[w]);
+				}
+				out[i] = distance;
+			}
+		}
+	}
+
+	/**
+	 * Return the indices of all hashes whose hamming distance to the query is
+	 * smaller or equal to the given distance.
+	 *
+	 * @param query       the hash to compare against
+	 * @param maxDistance the maximum hamming distance (inclusive)
+	 * @return the indices of matching hashes in ascending order
+	 * @throws IllegalArgumentException if the query is not compatible with this
+	 *                                  array
+	 */
+	public int[] indicesWithin(Hash query, int maxDistance) {
+		long[] q = queryWords(query);
+
+		int[] matches = new int[8];
+		int matchCount = 0;
+
+		for (int i = 0, offset = 0; i < size; i++, offset += wordsPerHash) {
+			int distance = 0;
+			// Stop early once the bound is exceeded
+			for (int w = 0; w < wordsPerHash && distance <= maxDistance; w++) {
+				distance += Long.bitCount(words[offset + w] ^ q[w]);
+			}
+			if (distance <= maxDistance) {
+				if (matchCount == matches.length) {
+					matches = Arrays.copyOf(matches, matchCount * 2);
+				}
+				matches[matchCount++] = i;
+			}
+		}
+		return Arrays.copyOf(matches, matchCount);
+	}
+
+	/**
+	 * @return the number of hashes in this array
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the bit resolution of the hashes in this array
+	 */
+	public int getBitResolution() {
+		return bitResolution;
+	}
+
+	/**
+	 * @return the algorithm id of the hashes in this array
+	 */
+	public int getAlgorithmId() {
+		return algorithmId;
+	}
+
+	/**
+	 * Release capacity not used by the currently held hashes
+	 */
+	public void trimToSize() {
+		words = Arrays.copyOf(words, Math.max(1, size) * wordsPerHash);
+	}
+
+	private void checkCompatible(Hash hash) {
+		if (hash.getAlgorithmId() != algorithmId || hash.getBitResolution() != bitResolution) {
+			throw new IllegalArgumentException("Can't use hashes with unequal length or algorithmIds");
+		}
+	}
+
+	/**
+	 * Return the words of the query padded to the word length of the stored
+	 * hashes
+	 *
+	 * @param query the query hash
+	 * @return words with a length of {@link #wordsPerHash}
+	 */
+	private long[] queryWords(Hash query) {
+		checkCompatible(query);
+		long[] packed = query.packedWords();
+		if (packed.length == wordsPerHash) {
+			return packed;
+		}
+		return Arrays.copyOf(packed, wordsPerHash);
+	}
+
+	@Override
+	public String toString() {
+		return "HashArray [algorithmId=" + algorithmId + ", bitResolution=" + bitResolution + ", size=" + size + "]";
+	}
+}
@@ -0,0 +1,149 @@
+package dev.brachtendorf.jimagehash.hash;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads hashes written by a {@link HashWriter}. Hashes are read one record at a
+ * time, allowing large collections to be streamed without holding the entire
+ * file in memory.
+ *
+ * <p>
+ * This class is not thread safe.
+ *
+ * @author Kilian
+ * @since 1.1.0
+ */
+public class HashReader implements Closeable {
+
+	private final DataInputStream in;
+
+	/**
+	 * Create a hash reader reading from the given file.
+	 *
+	 * @param file the file to read from
+	 * @throws IOException if an I/O error occurs or the file does not start with a
+	 *                     valid header
+	 */
+	public HashReader(File file) throws IOException {
+		this(new FileInputStream(file));
+	}
+
+	/**
+	 * Create a hash reader reading from the given stream and validate the stream
+	 * header. The stream is buffered internally and will be closed once this
+	 * reader is closed.
+	 *
+	 * @param in the stream to read from
+	 * @throws IOException if an I/O error occurs or the stream does not start with
+	 *                     a valid header
+	 */
+	public HashReader(InputStream in) throws IOException {
+		this.in = new DataInputStream(new BufferedInputStream(in));
+
+		byte[] magic = new byte[HashWriter.MAGIC.length];
+		this.in.readFully(magic);
+		for (int i = 0; i < magic.length; i++) {
+			if (magic[i] != HashWriter.MAGIC[i]) {
+				throw new StreamCorruptedException("Not a binary hash stream");
+			}
+		}
+		int version = this.in.readUnsignedByte();
+		if (version != HashWriter.VERSION) {
+			throw new StreamCorruptedException("Unsupported hash format version: " + version);
+		}
+	}
+
+	/**
+	 * Read the next hash from the stream
+	 *
+	 * @return the next hash or null if the end of the stream was reached
+	 * @throws IOException if an I/O error occurs or the stream is corrupted
+	 */
+	public Hash read() throws IOException {
+		int type = in.read();
+		if (type == -1) {
+			return null;
+		}
+		try {
+			int algorithmId = in.readInt();
+			int bitResolution = in.readInt();
+			int wordCount = in.readInt();
+
+			// Validate the lengths before allocating arrays of the claimed size
+			if (bitResolution < 0 || bitResolution > HashWriter.MAX_BIT_RESOLUTION) {
+				throw new StreamCorruptedException("Invalid bit resolution: " + bitResolution);
+			}
+			if (wordCount != Hash.wordCount(bitResolution)) {
+				throw new StreamCorruptedException(
+						"Word count " + wordCount + " does not match bit resolution " + bitResolution);
+			}
+
+			long[] words = new long[wordCount];
+			for (int i = 0; i < wordCount; i++) {
+				words[i] = in.readLong();
+			}
+
+			switch (type) {
+			case HashWriter.TYPE_HASH:
+				return Hash.wrap(words, bitResolution, algorithmId);
+			case HashWriter.TYPE_FUZZY:
+				int addedCount = in.readInt();
+				int[] bits = new int[bitResolution];
+				for (int i = 0; i < bitResolution; i++) {
+					bits[i] = in.readInt();
+				}
+				return new FuzzyHash(algorithmId, bitResolution, bits, addedCount);
+			default:
+				throw new StreamCorruptedException("Unknown record type: " + type);
+			}
+		} catch (EOFException e) {
+			throw new StreamCorruptedException("Unexpected end of hash stream");
+		}
+	}
+
+	/**
+	 * Read all remaining hashes from the stream
+	 *
+	 * @return a list containing the hashes in the order they were written
+	 * @throws IOException if an I/O error occurs or the stream is corrupted
+	 */
+	public List<Hash> readAll() throws IOException {
+		List<Hash> hashes = new ArrayList<>();
+		Hash h;
+		while ((h = read()) != null) {
+			hashes.add(h);
+		}
+		return hashes;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	/**
+	 * Check if the stream contains java serialized data. The stream has to support
+	 * mark and reset.
+	 *
+	 * @param in the stream to check. The position of the stream is not altered
+	 * @return true if the stream starts with the java serialization stream magic
+	 * @throws IOException if an I/O error occurs
+	 */
+	static boolean isJavaSerialized(InputStream in) throws IOException {
+		in.mark(2);
+		int b0 = in.read();
+		int b1 = in.read();
+		in.reset();
+		return b0 == 0xAC && b1 == 0xED;
+	}
+}
@@ -0,0 +1,159 @@
+package dev.brachtendorf.jimagehash.hash;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes hashes to a stream using a compact, versioned binary format. Opposed
+ * to java serialization no class descriptors are written, which keeps the
+ * output small and allows millions of hashes to be read back quickly by a
+ * {@link HashReader}.
+ *
+ * <pre>
+ * <code>
+ * Stream header
+ * 	byte[4] magic "JIHB"
+ * 	byte    format version
+ *
+ * Hash record
+ * 	byte    record type (0 = hash, 1 = fuzzy hash)
+ * 	int     algorithm id
+ * 	int     bit resolution
+ * 	int     number of packed words n = (bit resolution + 63) / 64
+ * 	long[n] packed words
+ *
+ * Fuzzy hash record (additionally)
+ * 	int     number of hashes added
+ * 	int[bit resolution] bit counter
+ * </code>
+ * </pre>
+ *
+ * Sub classes of hashes (e.g.
+ * {@link dev.brachtendorf.jimagehash.hashAlgorithms.DifferenceHash.DHash}) are
+ * written as plain hashes. They can be restored by calling
+ * {@link dev.brachtendorf.jimagehash.hashAlgorithms.HashingAlgorithm#createAlgorithmSpecificHash(Hash)}
+ * on the read hash.
+ *
+ * <p>
+ * This class is not thread safe.
+ *
+ * @author Kilian
+ * @since 1.1.0
+ */
+public class HashWriter implements Closeable, Flushable {
+
+	/** Identifies a binary hash stream */
+	static final byte[] MAGIC = { 'J', 'I', 'H', 'B' };
+
+	/** The format version written by this class */
+	static final int VERSION = 1;
+
+	/** Record type of a plain hash */
+	static final int TYPE_HASH = 0;
+
+	/** Record type of a fuzzy hash */
+	static final int TYPE_FUZZY = 1;
+
+	/**
+	 * The maximum bit resolution of a hash in the stream. Protects the reader from
+	 * allocating huge arrays for corrupted records
+	 */
+	static final int MAX_BIT_RESOLUTION = 1 << 24;
+
+	private final DataOutputStream out;
+
+	/**
+	 * Create a hash writer writing to the given file. An existing file will be
+	 * overwritten.
+	 *
+	 * @param file the file to write to
+	 * @throws IOException if an I/O error occurs
+	 */
+	public HashWriter(File file) throws IOException {
+		this(new FileOutputStream(file));
+	}
+
+	/**
+	 * Create a hash writer writing to the given stream and write the stream
+	 * header. The stream is buffered internally and will be closed once this
+	 * writer is closed.
+	 *
+	 * @param out the stream to write to
+	 * @throws IOException if an I/O error occurs
+	 */
+	public HashWriter(OutputStream out) throws IOException {
+		this.out = new DataOutputStream(new BufferedOutputStream(out));
+		this.out.write(MAGIC);
+		this.out.writeByte(VERSION);
+	}
+
+	/**
+	 * Append a hash to the stream
+	 *
+	 * @param hash the hash to write
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if the bit resolution exceeds 2^24 bits or
+	 *                                  the hash has bits set beyond its bit
+	 *                                  resolution
+	 */
+	public void write(Hash hash) throws IOException {
+		int bitResolution = hash.getBitResolution();
+		if (bitResolution > MAX_BIT_RESOLUTION) {
+			throw new IllegalArgumentException("Bit resolution exceeds " + MAX_BIT_RESOLUTION + ": " + bitResolution);
+		}
+		long[] words = hash.packedWords();
+		int wordCount = Hash.wordCount(bitResolution);
+		for (int i = wordCount; i < words.length; i++) {
+			if (words[i] != 0) {
+				throw new IllegalArgumentException("Hash has bits set beyond its bit resolution of " + bitResolution);
+			}
+		}
+
+		boolean fuzzy = hash instanceof FuzzyHash;
+		out.writeByte(fuzzy ? TYPE_FUZZY : TYPE_HASH);
+		out.writeInt(hash.getAlgorithmId());
+		out.writeInt(bitResolution);
+
+		out.writeInt(wordCount);
+		for (int i = 0; i < wordCount; i++) {
+			out.writeLong(i < words.length ? words[i] : 0);
+		}
+
+		if (fuzzy) {
+			FuzzyHash fuzzyHash = (FuzzyHash) hash;
+			out.writeInt(fuzzyHash.getAddedCount());
+			int[] bits = fuzzyHash.bits;
+			for (int i = 0; i < hash.getBitResolution(); i++) {
+				out.writeInt(bits[i]);
+			}
+		}
+	}
+
+	/**
+	 * Append all hashes to the stream
+	 *
+	 * @param hashes the hashes to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void writeAll(Iterable<? extends Hash> hashes) throws IOException {
+		for (Hash h : hashes) {
+			write(h);
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+}
@@ -0,0 +1,303 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+
+/**
+ * Rescales images by averaging all source pixels covered by a target pixel,
+ * weighted by the covered area.
+ *
+ * <p>
+ * Opposed to scaling via Java2D the pixel data is read directly from the data
+ * buffer of the source image for the common image types
+ * {@link BufferedImage#TYPE_INT_RGB}, {@link BufferedImage#TYPE_INT_ARGB},
+ * {@link BufferedImage#TYPE_3BYTE_BGR}, {@link BufferedImage#TYPE_4BYTE_ABGR}
+ * and {@link BufferedImage#TYPE_BYTE_GRAY}. Gray samples are converted to the
+ * same values getRGB returns. Other types are converted row by row using
+ * {@link BufferedImage#getRGB(int, int, int, int, int[], int, int)}.
+ * All computations are carried out in integer arithmetic, therefore the result
+ * is identical on every jvm and platform.
+ *
+ * @author Kilian
+ * @since 1.1.0
+ */
+class AreaAveragingScaler {
+
+	/**
+	 * The channel value of each sample of a {@link BufferedImage#TYPE_BYTE_GRAY}
+	 * image as returned by getRGB, which converts the linear gray samples to the
+	 * sRGB color space
+	 */
+	private static final int[] GRAY_TO_RGB = new int[256];
+
+	static {
+		BufferedImage gray = new BufferedImage(256, 1, BufferedImage.TYPE_BYTE_GRAY);
+		for (int i = 0; i < 256; i++) {
+			gray.getRaster().setSample(i, 0, 0, i);
+		}
+		int[] rgb = gray.getRGB(0, 0, 256, 1, null, 0, 256);
+		for (int i = 0; i < 256; i++) {
+			GRAY_TO_RGB[i] = rgb[i] & 0xFF;
+		}
+	}
+
+	private AreaAveragingScaler() {
+	}
+
+	/**
+	 * Rescale the image.
+	 *
+	 * @param image  the image to rescale
+	 * @param width  the width of the rescaled image
+	 * @param height the height of the rescaled image
+	 * @return a {@link BufferedImage#TYPE_INT_ARGB} image if the source contains an
+	 *         alpha channel, otherwise a {@link BufferedImage#TYPE_INT_RGB} image
+	 */
+	static BufferedImage scale(BufferedImage image, int width, int height) {
+		boolean alpha = image.getColorModel().hasAlpha();
+		BufferedImage scaled = new BufferedImage(width, height,
+				alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+		int[] target = ((DataBufferInt) scaled.getRaster().getDataBuffer()).getData();
+		scale(image, width, height, alpha, target);
+		return scaled;
+	}
+
+	/**
+	 * Rescale the image into a packed argb array.
+	 *
+	 * @param image  the image to rescale
+	 * @param width  the width of the rescaled image
+	 * @param height the height of the rescaled image
+	 * @param alpha  if true the alpha channel is averaged, otherwise it is set to
+	 *               255
+	 * @param target the row major array of at least width * height length the
+	 *               argb values are written to
+	 */
+	static void scale(BufferedImage image, int width, int height, boolean alpha, int[] target) {
+		int srcWidth = image.getWidth();
+		int srcHeight = image.getHeight();
+		RowReader reader = createReader(image);
+
+		Contributions xContrib = new Contributions(srcWidth, width);
+		Contributions yContrib = new Contributions(srcHeight, height);
+
+		// Per channel sums of the current source row horizontally scaled. At most
+		// 255 * srcWidth, which fits into an int
+		int[] rowSum = new int[width * 4];
+		// Per channel sums of the target
+		long[] sum = new long[width * height * 4];
+
+		int currentRow = -1;
+		for (int c = 0; c < yContrib.count; c++) {
+			int srcY = yContrib.source[c];
+			if (srcY != currentRow) {
+				currentRow = srcY;
+				Arrays.fill(rowSum, 0);
+				reader.accumulate(srcY, xContrib, rowSum);
+			}
+			int offset = yContrib.target[c] * width * 4;
+			long weight = yContrib.weight[c];
+			for (int i = 0; i < rowSum.length; i++) {
+				sum[offset + i] += rowSum[i] * weight;
+			}
+		}
+
+		// Each target pixel covers srcWidth * srcHeight units
+		long area = (long) srcWidth * srcHeight;
+		long half = area / 2;
+		for (int i = 0; i < width * height; i++) {
+			int a = alpha ? (int) ((sum[i * 4] + half) / area) : 255;
+			int r = (int) ((sum[i * 4 + 1] + half) / area);
+			int g = (int) ((sum[i * 4 + 2] + half) / area);
+			int b = (int) ((sum[i * 4 + 3] + half) / area);
+			target[i] = a << 24 | r << 16 | g << 8 | b;
+		}
+	}
+
+	/**
+	 * The overlap of source and target pixels along one axis. Source pixels are
+	 * <code>targetLength</code> units wide, target pixels
+	 * <code>sourceLength</code> units. Contributions are ordered by source index.
+	 */
+	private static class Contributions {
+		private final int[] source;
+		private final int[] target;
+		private final int[] weight;
+		private int count;
+
+		Contributions(int sourceLength, int targetLength) {
+			int capacity = sourceLength + targetLength;
+			source = new int[capacity];
+			target = new int[capacity];
+			weight = new int[capacity];
+
+			for (int t = 0; t < targetLength; t++) {
+				long start = (long) t * sourceLength;
+				long end = start + sourceLength;
+				int first = (int) (start / targetLength);
+				int last = (int) ((end - 1) / targetLength);
+				for (int s = first; s <= last; s++) {
+					long overlap = Math.min(end, (long) (s + 1) * targetLength)
+							- Math.max(start, (long) s * targetLength);
+					source[count] = s;
+					target[count] = t;
+					weight[count] = (int) overlap;
+					count++;
+				}
+			}
+		}
+	}
+
+	private static RowReader createReader(BufferedImage image) {
+		WritableRaster raster = image.getRaster();
+		switch (image.getType()) {
+		case BufferedImage.TYPE_INT_RGB:
+		case BufferedImage.TYPE_INT_ARGB:
+			if (raster.getSampleModel() instanceof SinglePixelPackedSampleModel
+					&& raster.getDataBuffer() instanceof DataBufferInt) {
+				return new IntRowReader(image);
+			}
+			break;
+		case BufferedImage.TYPE_3BYTE_BGR:
+		case BufferedImage.TYPE_4BYTE_ABGR:
+		case BufferedImage.TYPE_BYTE_GRAY:
+			if (raster.getSampleModel() instanceof ComponentSampleModel
+					&& raster.getDataBuffer() instanceof DataBufferByte) {
+				return new ByteRowReader(image);
+			}
+			break;
+		default:
+		}
+		return new RgbRowReader(image);
+	}
+
+	/**
+	 * Accumulates the weighted channel values of a single source row
+	 */
+	private interface RowReader {
+		/**
+		 * @param y        the source row
+		 * @param xContrib the horizontal contributions
+		 * @param rowSum   the interleaved argb sums of each target column
+		 */
+		void accumulate(int y, Contributions xContrib, int[] rowSum);
+	}
+
+	private static void accumulate(int argb, int weight, int[] rowSum, int offset) {
+		rowSum[offset] += (argb >>> 24) * weight;
+		rowSum[offset + 1] += ((argb >> 16) & 0xFF) * weight;
+		rowSum[offset + 2] += ((argb >> 8) & 0xFF) * weight;
+		rowSum[offset + 3] += (argb & 0xFF) * weight;
+	}
+
+	private static class RgbRowReader implements RowReader {
+		private final BufferedImage image;
+		private final int[] row;
+
+		RgbRowReader(BufferedImage image) {
+			this.image = image;
+			this.row = new int[image.getWidth()];
+		}
+
+		@Override
+		public void accumulate(int y, Contributions xContrib, int[] rowSum) {
+			image.getRGB(0, y, row.length, 1, row, 0, row.length);
+			for (int c = 0; c < xContrib.count; c++) {
+				AreaAveragingScaler.accumulate(row[xContrib.source[c]], xContrib.weight[c], rowSum,
+						xContrib.target[c] * 4);
+			}
+		}
+	}
+
+	private static class IntRowReader implements RowReader {
+		private final int[] data;
+		private final int offset;
+		private final int scanlineStride;
+
+		IntRowReader(BufferedImage image) {
+			WritableRaster raster = image.getRaster();
+			SinglePixelPackedSampleModel sm = (SinglePixelPackedSampleModel) raster.getSampleModel();
+			data = ((DataBufferInt) raster.getDataBuffer()).getData();
+			scanlineStride = sm.getScanlineStride();
+			offset = raster.getDataBuffer().getOffset() - raster.getSampleModelTranslateY() * scanlineStride
+					- raster.getSampleModelTranslateX();
+		}
+
+		@Override
+		public void accumulate(int y, Contributions xContrib, int[] rowSum) {
+			// The undefined alpha byte of rgb images is ignored by the caller
+			int rowOffset = offset + y * scanlineStride;
+			for (int c = 0; c < xContrib.count; c++) {
+				AreaAveragingScaler.accumulate(data[rowOffset + xContrib.source[c]], xContrib.weight[c], rowSum,
+						xContrib.target[c] * 4);
+			}
+		}
+	}
+
+	private static class ByteRowReader implements RowReader {
+		private final byte[] data;
+		private final int offset;
+		private final int scanlineStride;
+		private final int pixelStride;
+		/** Offsets of the r g b a bands. The gray band is used for all colors */
+		private final int r, g, b, a;
+		/** Conversion of gray samples or null for colored images */
+		private final int[] gray;
+
+		ByteRowReader(BufferedImage image) {
+			WritableRaster raster = image.getRaster();
+			ComponentSampleModel sm = (ComponentSampleModel) raster.getSampleModel();
+			data = ((DataBufferByte) raster.getDataBuffer()).getData();
+			scanlineStride = sm.getScanlineStride();
+			pixelStride = sm.getPixelStride();
+			offset = raster.getDataBuffer().getOffset() - raster.getSampleModelTranslateY() * scanlineStride
+					- raster.getSampleModelTranslateX() * pixelStride;
+			// Band order R G B (A) or a single gray band
+			int[] bandOffsets = sm.getBandOffsets();
+			r = bandOffsets[0];
+			g = bandOffsets.length > 1 ? bandOffsets[1] : r;
+			b = bandOffsets.length > 2 ? bandOffsets[2] : r;
+			a = bandOffsets.length > 3 ? bandOffsets[3] : -1;
+			gray = image.getType() == BufferedImage.TYPE_BYTE_GRAY ? GRAY_TO_RGB : null;
+		}
+
+		@Override
+		public void accumulate(int y, Contributions xContrib, int[] rowSum) {
+			byte[] data = this.data;
+			int[] source = xContrib.source;
+			int[] target = xContrib.target;
+			int[] weight = xContrib.weight;
+			int count = xContrib.count;
+			int rowOffset = offset + y * scanlineStride;
+			int r = this.r, g = this.g, b = this.b, a = this.a;
+			if (gray != null) {
+				for (int c = 0; c < count; c++) {
+					int value = gray[data[rowOffset + source[c] * pixelStride + r] & 0xFF] * weight[c];
+					int t = target[c] * 4;
+					rowSum[t + 1] += value;
+					rowSum[t + 2] += value;
+					rowSum[t + 3] += value;
+				}
+				return;
+			}
+			for (int c = 0; c < count; c++) {
+				int index = rowOffset + source[c] * pixelStride;
+				int w = weight[c];
+				int t = target[c] * 4;
+				rowSum[t + 1] += (data[index + r] & 0xFF) * w;
+				rowSum[t + 2] += (data[index + g] & 0xFF) * w;
+				rowSum[t + 3] += (data[index + b] & 0xFF) * w;
+			}
+			if (a >= 0) {
+				for (int c = 0; c < count; c++) {
+					rowSum[target[c] * 4] += (data[rowOffset + source[c] * pixelStride + a] & 0xFF) * weight[c];
+				}
+			}
+		}
+	}
+}
@@ -46,6 +46,12 @@ public class AverageColorHash extends AverageHash {
 		super(bitResolution);
 	}
 
+	@Override
+	protected boolean isLumaOnly() {
+		// Consumes the average of the color channels
+		return false;
+	}
+
 	@Override
 	protected BigInteger hash(BufferedImage image, HashBuilder hash) {
 		FastPixel fp = createPixelAccessor(image, width, height);
@@ -1,11 +1,11 @@
 package dev.brachtendorf.jimagehash.hashAlgorithms;
 
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
 import java.math.BigInteger;
 import java.util.Objects;
 
 import dev.brachtendorf.ArrayUtil;
-import dev.brachtendorf.graphics.FastPixel;
 
 /**
  * Calculate a hash value based on the average luminosity in an image.
@@ -60,12 +60,10 @@ public class AverageHash extends HashingAlgorithm {
 
 	@Override
 	protected BigInteger hash(BufferedImage image, HashBuilder hash) {
-		FastPixel fp = createPixelAccessor(image, width, height);
-
-		int[][] luminocity = fp.getLuma();
+		int[] luminocity = createLumaPlane1D(image, width, height);
 
 		// Calculate the average color of the entire image
-		double avgPixelValue = ArrayUtil.average(luminocity);
+		double avgPixelValue = average(luminocity);
 
 		// Create hash
 		return computeHash(hash, luminocity, avgPixelValue);
@@ -84,6 +82,49 @@ public class AverageHash extends HashingAlgorithm {
 		return hash.toBigInteger();
 	}
 
+	/**
+	 * Compute the hash of a flat row major plane. Pixels are visited in the same
+	 * order as {@link #computeHash(HashBuilder, int[][], double)}.
+	 * 
+	 * @param hash           the hash builder
+	 * @param pixelValue     the values in row major order
+	 * @param compareAgainst the threshold
+	 * @return the hash
+	 * @since 1.1.0
+	 */
+	protected BigInteger computeHash(HashBuilder hash, int[] pixelValue, double compareAgainst) {
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				if (pixelValue[y * width + x] < compareAgainst) {
+					hash.prependZero();
+				} else {
+					hash.prependOne();
+				}
+			}
+		}
+		return hash.toBigInteger();
+	}
+
+	/**
+	 * Average of a flat row major plane. The values are summed column wise in the
+	 * same order as {@link ArrayUtil#average(int[][])} to yield an identical
+	 * result.
+	 * 
+	 * @param pixelValue the values in row major order
+	 * @return the average of the values
+	 */
+	protected double average(int[] pixelValue) {
+		double avg = 0;
+		for (int x = 0; x < width; x++) {
+			double columnAvg = 0;
+			for (int y = 0; y < height; y++) {
+				columnAvg += pixelValue[y * width + x] / (double) height;
+			}
+			avg += columnAvg / width;
+		}
+		return avg;
+	}
+
 	protected BigInteger computeHash(HashBuilder hash, int[][] pixelValue, double compareAgainst) {
 		for (int x = 0; x < width; x++) {
 			for (int y = 0; y < height; y++) {
@@ -119,6 +160,16 @@ public class AverageHash extends HashingAlgorithm {
 		}
 	}
 
+	@Override
+	protected Dimension getScaledImageDimension() {
+		return new Dimension(width, height);
+	}
+
+	@Override
+	protected boolean isLumaOnly() {
+		return true;
+	}
+
 	@Override
 	protected int precomputeAlgoId() {
 		/*
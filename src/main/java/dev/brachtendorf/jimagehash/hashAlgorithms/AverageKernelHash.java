@@ -9,7 +9,6 @@ import java.util.Objects;
 
 import dev.brachtendorf.ArrayUtil;
 import dev.brachtendorf.Require;
-import dev.brachtendorf.graphics.FastPixel;
 import dev.brachtendorf.jimagehash.hashAlgorithms.filter.Kernel;
 
 /**
@@ -95,9 +94,7 @@ public class AverageKernelHash extends AverageHash{
 
 	@Override
 	protected BigInteger hash(BufferedImage image, HashBuilder hash) {
-		FastPixel fp = createPixelAccessor(image, width, height);
-
-		int[][] luminosity = fp.getLuma();
+		int[][] luminosity = createLumaPlane(image, width, height);
 
 		// Calculate the average color of the entire image
 
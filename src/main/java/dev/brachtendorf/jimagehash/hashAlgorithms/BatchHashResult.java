@@ -0,0 +1,70 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms;
+
+import java.nio.file.Path;
+
+import dev.brachtendorf.jimagehash.hash.Hash;
+
+/**
+ * The outcome of hashing a single image as part of a batch operation. Either a
+ * hash or the throwable which prevented the image from being hashed is present.
+ *
+ * @author Kilian
+ * @since 1.1.0
+ * @see HashingAlgorithm#hashAll(Iterable, int)
+ */
+public class BatchHashResult {
+
+	private final int index;
+	private final Path source;
+	private final Hash hash;
+	private final Throwable error;
+
+	BatchHashResult(int index, Path source, Hash hash, Throwable error) {
+		this.index = index;
+		this.source = source;
+		this.hash = hash;
+		this.error = error;
+	}
+
+	/**
+	 * @return the position of the image in the input sequence
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return the path of the image
+	 */
+	public Path getSource() {
+		return source;
+	}
+
+	/**
+	 * @return the hash of the image or null if the image could not be hashed
+	 */
+	public Hash getHash() {
+		return hash;
+	}
+
+	/**
+	 * @return the exception or error thrown while reading or hashing the image or
+	 *         null if the image was hashed successfully
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	/**
+	 * @return true if a hash was created, false if an error occurred
+	 */
+	public boolean isSuccessful() {
+		return error == null;
+	}
+
+	@Override
+	public String toString() {
+		return "BatchHashResult [index=" + index + ", source=" + source + ", "
+				+ (isSuccessful() ? "hash=" + hash : "error=" + error) + "]";
+	}
+}
@@ -0,0 +1,63 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+import javax.imageio.stream.ImageInputStreamImpl;
+
+/**
+ * An image input stream reading the remaining bytes of a byte buffer without
+ * copying them. Heap as well as direct buffers are supported. The position of
+ * the supplied buffer is not altered.
+ *
+ * @author Kilian
+ * @since 1.1.0
+ */
+class ByteBufferImageInputStream extends ImageInputStreamImpl {
+
+	private final ByteBuffer buffer;
+
+	/**
+	 * @param source the buffer to read. Bytes between the current position and the
+	 *               limit are exposed by the stream
+	 */
+	ByteBufferImageInputStream(ByteBuffer source) {
+		// Independent position and limit
+		this.buffer = source.slice();
+	}
+
+	@Override
+	public int read() throws IOException {
+		checkClosed();
+		bitOffset = 0;
+		if (streamPos >= buffer.limit()) {
+			return -1;
+		}
+		return buffer.get((int) streamPos++) & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		checkClosed();
+		Objects.checkFromIndexSize(off, len, b.length);
+		bitOffset = 0;
+		if (len == 0) {
+			return 0;
+		}
+		long remaining = buffer.limit() - streamPos;
+		if (remaining <= 0) {
+			return -1;
+		}
+		int count = (int) Math.min(len, remaining);
+		buffer.position((int) streamPos);
+		buffer.get(b, off, count);
+		streamPos += count;
+		return count;
+	}
+
+	@Override
+	public long length() {
+		return buffer.limit();
+	}
+}
@@ -1,5 +1,6 @@
 package dev.brachtendorf.jimagehash.hashAlgorithms;
 
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
 import java.math.BigInteger;
 import java.util.Objects;
@@ -93,16 +94,12 @@ public class DifferenceHash extends HashingAlgorithm {
 
 	@Override
 	protected BigInteger hash(BufferedImage image, HashBuilder hash) {
-		FastPixel fp = createPixelAccessor(image, width, height);
-
-		// Use data buffer for faster access
-
-		int[][] lum = fp.getLuma();
+		int[] lum = createLumaPlane1D(image, width, height);
 
 		// Calculate the left to right gradient
 		for (int x = 1; x < width; x++) {
 			for (int y = 0; y < height; y++) {
-				if (lum[x][y] >= lum[x - 1][y]) {
+				if (lum[y * width + x] >= lum[y * width + x - 1]) {
 					hash.prependZero();
 				} else {
 					hash.prependOne();
@@ -117,7 +114,7 @@ public class DifferenceHash extends HashingAlgorithm {
 
 			for (int x = 0; x < width; x++) {
 				for (int y = 1; y < height; y++) {
-					if (lum[x][y] < lum[x][y - 1]) {
+					if (lum[y * width + x] < lum[(y - 1) * width + x]) {
 						hash.prependZero();
 					} else {
 						hash.prependOne();
@@ -130,7 +127,7 @@ public class DifferenceHash extends HashingAlgorithm {
 		if (precision.equals(Precision.Triple)) {
 			for (int x = 1; x < width; x++) {
 				for (int y = 1; y < height; y++) {
-					if (lum[x][y] < lum[x - 1][y - 1]) {
+					if (lum[y * width + x] < lum[(y - 1) * width + x - 1]) {
 						hash.prependZero();
 					} else {
 						hash.prependOne();
@@ -168,6 +165,16 @@ public class DifferenceHash extends HashingAlgorithm {
 
 	}
 
+	@Override
+	protected Dimension getScaledImageDimension() {
+		return new Dimension(width, height);
+	}
+
+	@Override
+	protected boolean isLumaOnly() {
+		return true;
+	}
+
 	@Override
 	protected int precomputeAlgoId() {
 		// + 1 to ensure id is incompatible to earlier version
@@ -178,11 +185,6 @@ public class DifferenceHash extends HashingAlgorithm {
 	 * Difference hash requires a little bit different handling when converting the
 	 * hash to an image.
 	 */
-	@Override
-	public Hash hash(BufferedImage image) {
-		return new DHash(super.hash(image), this.precision, width, height);
-	}
-
 	@Override
 	public Hash createAlgorithmSpecificHash(Hash original) {
 		return new DHash(original, this.precision, width, height);
@@ -201,7 +203,7 @@ public class DifferenceHash extends HashingAlgorithm {
 		private int height;
 
 		public DHash(Hash h, Precision precision, int width, int height) {
-			super(h.getHashValue(), h.getBitResolution(), h.getAlgorithmId());
+			super(h);
 			this.precision = precision;
 			this.width = width;
 			this.height = height;
@@ -213,7 +215,7 @@ public class DifferenceHash extends HashingAlgorithm {
 			int[] colorIndex = new int[hashLength];
 
 			for (int i = 0; i < hashLength; i++) {
-				colorIndex[i] = hashValue.testBit(i) ? 1 : 0;
+				colorIndex[i] = getBitUnsafe(i) ? 1 : 0;
 			}
 			return toImage(colorIndex, colorArr, blockSize);
 		}
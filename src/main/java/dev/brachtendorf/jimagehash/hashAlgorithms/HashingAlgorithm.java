@@ -1,16 +1,35 @@
 package dev.brachtendorf.jimagehash.hashAlgorithms;
 
 import java.awt.Color;
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import javax.imageio.IIOException;
 import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 
 import dev.brachtendorf.Require;
 import dev.brachtendorf.graphics.ColorUtil;
@@ -18,6 +37,7 @@ import dev.brachtendorf.graphics.FastPixel;
 import dev.brachtendorf.graphics.ImageUtil;
 import dev.brachtendorf.jimagehash.hash.Hash;
 import dev.brachtendorf.jimagehash.hashAlgorithms.filter.Filter;
+import dev.brachtendorf.jimagehash.hashAlgorithms.filter.FilterChain;
 
 /**
  * Base class for hashing algorithms returning perceptual hashes for supplied
@@ -33,7 +53,10 @@ import dev.brachtendorf.jimagehash.hashAlgorithms.filter.Filter;
  * hashable images the method {@link #getKeyResolution()} has to be overridden.
  * 
  * <p>
- * Unless otherwise noted hashing algorithms are thread safe.
+ * Unless otherwise noted hashing algorithms are thread safe. A single instance
+ * may be used to hash images from multiple threads concurrently, as long as
+ * filters and opaque handling are configured before the first hash is created.
+ * Implementations must not store per image state in instance fields.
  * 
  * @author Kilian
  * @since 1.0.0
@@ -57,8 +80,11 @@ public abstract class HashingAlgorithm implements Serializable {
 	 */
 	protected final int bitResolution;
 
-	/** The actual bit resolution of produced hashes */
-	protected int keyResolution = -1;
+	/**
+	 * The actual bit resolution of produced hashes. Lazily computed, every thread
+	 * computes the same value.
+	 */
+	protected volatile int keyResolution = -1;
 
 	/**
 	 * The algorithm id of this hashing algorithm. The algorithm id specifies a
@@ -66,7 +92,7 @@ public abstract class HashingAlgorithm implements Serializable {
 	 * the same hashing algorithm and therefore are comparable. Even algorithms with
 	 * the same
 	 */
-	private int algorithmId;
+	private volatile int algorithmId;
 
 	/** Color used in replacement of opaque pixels */
 	protected Color opaqueReplacementColor = Color.orange;
@@ -74,11 +100,47 @@ public abstract class HashingAlgorithm implements Serializable {
 	/** Maximum alpha value a pixel must have in order to be replaced */
 	protected int opaqueReplacementThreshold = -1;
 
+	/**
+	 * If true images read from files are decoded at a reduced resolution fitting
+	 * the dimension of the rescaled image
+	 */
+	private boolean subsampledDecoding = false;
+
+	/**
+	 * If true images are rescaled by area averaging instead of nearest neighbor
+	 * sampling
+	 */
+	private boolean areaAveragingScaling = false;
+
+	/**
+	 * Maximum width of the image the filters are applied to. 0 if filters are
+	 * applied at the original resolution
+	 */
+	private int filterWidth = 0;
+
+	/**
+	 * Maximum height of the image the filters are applied to. 0 if filters are
+	 * applied at the original resolution
+	 */
+	private int filterHeight = 0;
+
+	/**
+	 * If true filters are applied to the luma values of algorithms only consuming
+	 * luma values
+	 */
+	private boolean lumaFiltering = false;
+
 	/**
 	 * After a hash was created or the id was calculated the object may not be
 	 * altered anymore.
 	 */
-	protected boolean immutableState = false;
+	protected volatile boolean immutableState = false;
+
+	/**
+	 * Scaled images shared between algorithms while a {@link MultiHasher} hashes
+	 * an image on the current thread. Null if no multi hasher is active.
+	 */
+	static final ThreadLocal<ScaledImageCache> SHARED_SCALED_IMAGES = new ThreadLocal<>();
 
 	private static final String LOCKED_MODIFICATION_EXCEPTION = "Hashing algorithms may only be "
 			+ "modified as long as no hash has been generated or hashcode has been used by this object. This limitation is "
@@ -217,43 +279,222 @@ public abstract class HashingAlgorithm implements Serializable {
 		return returnValue;
 	}
 
+	/**
+	 * Read and hash the given images concurrently using a fixed number of threads.
+	 * Opposed to {@link #hash(File...)} a failure to read or hash an image does not
+	 * abort the operation but is reported in the corresponding result. This
+	 * includes errors, e.g. an {@link OutOfMemoryError} thrown while decoding a
+	 * single image.
+	 * 
+	 * <p>
+	 * At most <code>2 * parallelism</code> images are decoded at the same time. The
+	 * returned list contains one entry per image in the order of the input.
+	 * 
+	 * @param images      the paths of the images to hash
+	 * @param parallelism the number of threads used to read and hash the images
+	 * @return the results in the order of the input
+	 * @throws InterruptedException if the calling thread is interrupted while
+	 *                              waiting for the images to be hashed
+	 * @throws IllegalArgumentException if parallelism is not positive
+	 * @since 1.1.0
+	 */
+	public List<BatchHashResult> hashAll(Iterable<Path> images, int parallelism) throws InterruptedException {
+		Require.positiveValue(parallelism, "Parallelism has to be positive");
+
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			List<BatchHashResult> results = Collections.synchronizedList(new ArrayList<>());
+			hashAll(images, executor, 2 * parallelism, results::add);
+			results.sort(Comparator.comparingInt(BatchHashResult::getIndex));
+			return results;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Read and hash the given images concurrently using a fixed number of threads.
+	 * The stream is consumed lazily.
+	 * 
+	 * @param images      the paths of the images to hash
+	 * @param parallelism the number of threads used to read and hash the images
+	 * @return the results in the order of the input
+	 * @throws InterruptedException if the calling thread is interrupted while
+	 *                              waiting for the images to be hashed
+	 * @see #hashAll(Iterable, int)
+	 * @since 1.1.0
+	 */
+	public List<BatchHashResult> hashAll(Stream<Path> images, int parallelism) throws InterruptedException {
+		return hashAll((Iterable<Path>) images::iterator, parallelism);
+	}
+
+	/**
+	 * Read and hash the given images on the supplied executor, passing each result
+	 * to the callback as soon as it is available. This method blocks until all
+	 * images are processed.
+	 * 
+	 * <p>
+	 * The number of tasks handed to the executor but not yet completed is limited
+	 * to <code>maxInFlight</code>. Since every task holds at most one decoded image
+	 * this bounds the memory consumption independent of the number of images.
+	 * 
+	 * <p>
+	 * The callback is invoked concurrently from the executor threads in the order
+	 * the images finish. Use {@link BatchHashResult#getIndex()} to associate
+	 * results with the input. Exceptions thrown by the callback are not caught.
+	 * 
+	 * @param images      the paths of the images to hash
+	 * @param executor    the executor used to read and hash the images
+	 * @param maxInFlight the maximum number of images processed at the same time
+	 * @param callback    consumer receiving the result of each image
+	 * @throws InterruptedException      if the calling thread is interrupted while
+	 *                                   waiting for the images to be hashed
+	 * @throws IllegalArgumentException  if maxInFlight is not positive
+	 * @throws RejectedExecutionException if the executor does not accept a task
+	 * @since 1.1.0
+	 */
+	public void hashAll(Iterable<Path> images, Executor executor, int maxInFlight,
+			Consumer<BatchHashResult> callback) throws InterruptedException {
+		Objects.requireNonNull(images);
+		Objects.requireNonNull(executor);
+		Objects.requireNonNull(callback);
+		Require.positiveValue(maxInFlight, "The number of images in flight has to be positive");
+
+		Semaphore permits = new Semaphore(maxInFlight);
+		int index = 0;
+		for (Path image : images) {
+			permits.acquire();
+			final int i = index++;
+			try {
+				executor.execute(() -> {
+					try {
+						callback.accept(hashBatchItem(i, image));
+					} finally {
+						permits.release();
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				permits.release();
+				throw e;
+			}
+		}
+		// Wait for the remaining tasks
+		permits.acquire(maxInFlight);
+		permits.release(maxInFlight);
+	}
+
+	private BatchHashResult hashBatchItem(int index, Path image) {
+		try {
+			return new BatchHashResult(index, image, hash(readImage(image)), null);
+		} catch (Throwable t) {
+			// Errors like an OutOfMemoryError decoding a single huge image are reported
+			// as well, otherwise the result of the image would be missing
+			return new BatchHashResult(index, image, null, t);
+		}
+	}
+
 	/**
 	 * Calculate a hash for the given image. Invoking the hash function on the same
 	 * image has to return the same hash value. A comparison of the hashes relates
 	 * to the similarity of the images. The lower the value the more similar the
 	 * images are. Equal images will produce a similarity of 0.
 	 * 
+	 * <p>
+	 * Subclasses returning a specialized hash should override
+	 * {@link #createAlgorithmSpecificHash(Hash)} instead of this method.
+	 * {@link MultiHasher} can only share intermediate results with algorithms
+	 * which do not override this method.
+	 * 
 	 * @param image Image whose hash will be calculated
 	 * @return The hash representing the image
 	 * @see Hash
 	 */
 	public Hash hash(BufferedImage image) {
+		return createAlgorithmSpecificHash(hashPreprocessed(applyFilters(image)));
+	}
 
+	/**
+	 * Apply the preprocessing filters of this algorithm to the image
+	 * 
+	 * @param image the image to filter
+	 * @return the filtered image or the image itself if no filters are present
+	 */
+	BufferedImage applyFilters(BufferedImage image) {
 		BufferedImage bi = image;
 
 		// If we have kernels defined alter red green and blue values accordingly
 		if (!preProcessing.isEmpty()) {
 
-			for (Filter kernel : preProcessing) {
-				if (bi == null) {
-					bi = kernel.filter(image);
-				} else {
-					bi = kernel.filter(bi);
+			if (filterWidth > 0) {
+				// Uniformly downscale the image to fit into the filter resolution
+				double factor = Math.min(filterWidth / (double) image.getWidth(),
+						filterHeight / (double) image.getHeight());
+				if (factor < 1) {
+					int width = Math.max(1, Math.min(filterWidth, (int) Math.round(image.getWidth() * factor)));
+					int height = Math.max(1, Math.min(filterHeight, (int) Math.round(image.getHeight() * factor)));
+					bi = scale(image, width, height);
 				}
 			}
+
+			if (isLumaFiltered()) {
+				bi = FilterChain.filterLuma(bi, preProcessing);
+			} else {
+				bi = FilterChain.filter(bi, preProcessing);
+			}
 		}
+		return bi;
+	}
+
+	/**
+	 * Identifies the image returned by {@link #applyFilters(BufferedImage)}.
+	 * Algorithms with equal keys produce the same filtered image.
+	 * 
+	 * @return the key of the preprocessing steps
+	 */
+	Object getFilterKey() {
+		boolean luma = isLumaFiltered();
+		if (filterWidth == 0 && !luma) {
+			return preProcessing;
+		}
+		return Arrays.asList(preProcessing, filterWidth, filterHeight, areaAveragingScaling, luma);
+	}
+
+	/**
+	 * @return true if the filters are applied to the luma values
+	 */
+	private boolean isLumaFiltered() {
+		return lumaFiltering && isLumaOnly();
+	}
+
+	/**
+	 * @return true if the images passed to the hash function hold the filtered
+	 *         luma values in their color channels
+	 */
+	boolean hashesFilteredLuma() {
+		return isLumaFiltered() && !preProcessing.isEmpty();
+	}
+
+	/**
+	 * Hash an image which already passed the preprocessing filters
+	 * 
+	 * @param bi the filtered image
+	 * @return The hash representing the image
+	 */
+	Hash hashPreprocessed(BufferedImage bi) {
 		immutableState = true;
 
 		BigInteger hashValue;
 
-		if (keyResolution < 0) {
+		int keyLength = keyResolution;
+		if (keyLength < 0) {
 			HashBuilder hb = new HashBuilder(this.bitResolution);
 			hashValue = hash(bi, hb);
-			keyResolution = hb.length;
+			keyLength = hb.length;
+			keyResolution = keyLength;
 		} else {
-			hashValue = hash(bi, new HashBuilder(getKeyResolution()));
+			hashValue = hash(bi, new HashBuilder(keyLength));
 		}
-		return new Hash(hashValue, getKeyResolution(), algorithmId());
+		return new Hash(hashValue, keyLength, algorithmId());
 	}
 
 	/**
@@ -269,7 +510,336 @@ public abstract class HashingAlgorithm implements Serializable {
 	 */
 	public Hash hash(File imageFile) throws IOException {
 		immutableState = true;
-		return hash(ImageIO.read(imageFile));
+		return hash(readImage(imageFile));
+	}
+
+	/**
+	 * Decode the image file, applying source subsampling if enabled
+	 * 
+	 * @param imageFile the file to read
+	 * @return the decoded image
+	 * @throws IOException if the file can not be read or decoded
+	 */
+	BufferedImage readImage(File imageFile) throws IOException {
+		return readImage(imageFile, getDecodingDimension());
+	}
+
+	/**
+	 * Decode the image file with pooled readers
+	 * 
+	 * @param imageFile       the file to read
+	 * @param targetDimension the dimension used to compute the subsampling or null
+	 *                        to decode the full image
+	 * @return the decoded image
+	 * @throws IOException if the file can not be read or decoded
+	 * @see #getDecodingDimension()
+	 */
+	static BufferedImage readImage(File imageFile, Dimension targetDimension) throws IOException {
+		if (!imageFile.canRead()) {
+			throw new IIOException("Can't read input file: " + imageFile);
+		}
+		try (ImageInputStream stream = ImageIO.createImageInputStream(imageFile)) {
+			return ImageDecoder.read(stream, targetDimension);
+		}
+	}
+
+	/**
+	 * Decode the image file, applying source subsampling if enabled
+	 * 
+	 * @param imagePath the path of the file to read
+	 * @return the decoded image
+	 * @throws IOException if the file can not be read or decoded
+	 */
+	BufferedImage readImage(Path imagePath) throws IOException {
+		if (imagePath.getFileSystem() == FileSystems.getDefault()) {
+			return readImage(imagePath.toFile());
+		}
+		// E.g. zip file systems do not support random access files
+		try (InputStream is = Files.newInputStream(imagePath);
+				ImageInputStream stream = new MemoryCacheImageInputStream(is)) {
+			return readImage(stream);
+		}
+	}
+
+	private BufferedImage readImage(ImageInputStream stream) throws IOException {
+		return ImageDecoder.read(stream, getDecodingDimension());
+	}
+
+	/**
+	 * @return the dimension image files are subsampled for or null if image files
+	 *         are decoded at full resolution
+	 */
+	Dimension getDecodingDimension() {
+		return subsampledDecoding ? getScaledImageDimension() : null;
+	}
+
+	/**
+	 * Calculate a hash for the image contained in the file. Invoking the hash
+	 * function on the same image has to return the same hash value. A comparison
+	 * of the hashes relates to the similarity of the images. The lower the value
+	 * the more similar the images are. Equal images will produce a similarity of
+	 * 0.
+	 * 
+	 * @param imagePath The path pointing to the image. Paths of any file system
+	 *                  provider are supported
+	 * @return The hash representing the image
+	 * @throws IOException if an error occurs during loading the image
+	 * @see Hash
+	 * @since 1.1.0
+	 */
+	public Hash hash(Path imagePath) throws IOException {
+		immutableState = true;
+		return hash(readImage(imagePath));
+	}
+
+	/**
+	 * Calculate a hash for the encoded image read from the stream. Invoking the
+	 * hash function on the same image has to return the same hash value. A
+	 * comparison of the hashes relates to the similarity of the images. The lower
+	 * the value the more similar the images are. Equal images will produce a
+	 * similarity of 0.
+	 * 
+	 * <p>
+	 * The stream is read without creating a temporary file and is not closed by
+	 * this method.
+	 * 
+	 * @param imageStream The stream containing the encoded image, e.g. a jpg or png
+	 * @return The hash representing the image
+	 * @throws IOException if an error occurs during loading the image
+	 * @see Hash
+	 * @since 1.1.0
+	 */
+	public Hash hash(InputStream imageStream) throws IOException {
+		immutableState = true;
+		try (ImageInputStream stream = new MemoryCacheImageInputStream(imageStream)) {
+			return hash(readImage(stream));
+		}
+	}
+
+	/**
+	 * Calculate a hash for the encoded image. Invoking the hash function on the
+	 * same image has to return the same hash value. A comparison of the hashes
+	 * relates to the similarity of the images. The lower the value the more
+	 * similar the images are. Equal images will produce a similarity of 0.
+	 * 
+	 * @param encodedImage The bytes of the encoded image, e.g. a jpg or png
+	 * @return The hash representing the image
+	 * @throws IOException if an error occurs during decoding the image
+	 * @see Hash
+	 * @since 1.1.0
+	 */
+	public Hash hash(byte[] encodedImage) throws IOException {
+		return hash(ByteBuffer.wrap(encodedImage));
+	}
+
+	/**
+	 * Calculate a hash for the encoded image stored between the position and the
+	 * limit of the buffer. Invoking the hash function on the same image has to
+	 * return the same hash value. A comparison of the hashes relates to the
+	 * similarity of the images. The lower the value the more similar the images
+	 * are. Equal images will produce a similarity of 0.
+	 * 
+	 * <p>
+	 * Heap and direct buffers are read in place without copying the content. The
+	 * position of the buffer is not altered.
+	 * 
+	 * @param encodedImage The buffer containing the encoded image, e.g. a jpg or
+	 *                     png
+	 * @return The hash representing the image
+	 * @throws IOException if an error occurs during decoding the image
+	 * @see Hash
+	 * @since 1.1.0
+	 */
+	public Hash hash(ByteBuffer encodedImage) throws IOException {
+		immutableState = true;
+		try (ImageInputStream stream = new ByteBufferImageInputStream(encodedImage)) {
+			return hash(readImage(stream));
+		}
+	}
+
+	/**
+	 * Decode images read from files at a reduced resolution. Instead of decoding
+	 * every pixel only every n-th pixel of every n-th row is decoded, with n chosen
+	 * so that the decoded image stays several times larger than the dimension the
+	 * image is rescaled to for hashing. This reduces decoding time and memory
+	 * consumption of large images by an order of magnitude.
+	 * 
+	 * <p>
+	 * Hashes of subsampled images are similar but not identical to hashes of the
+	 * fully decoded image. Depending on the algorithm a considerable fraction of
+	 * the bits may differ, therefore hashes created with subsampled decoding are
+	 * not comparable to hashes of fully decoded images. Filters are applied to the
+	 * subsampled image. The setting is part of the algorithm id if the algorithm
+	 * reports a {@link #getScaledImageDimension()}. Other algorithms always decode
+	 * the full image.
+	 * 
+	 * @param subsampledDecoding true to decode image files at reduced resolution
+	 * @throws IllegalStateException if a hash was already created and the object is
+	 *                               considered immutable.
+	 * @since 1.1.0
+	 */
+	public void setSubsampledDecoding(boolean subsampledDecoding) {
+		if (immutableState) {
+			throw new IllegalStateException(LOCKED_MODIFICATION_EXCEPTION);
+		}
+		this.subsampledDecoding = subsampledDecoding;
+	}
+
+	/**
+	 * @return true if image files are decoded at a reduced resolution
+	 * @see #setSubsampledDecoding(boolean)
+	 * @since 1.1.0
+	 */
+	public boolean isSubsampledDecoding() {
+		return subsampledDecoding;
+	}
+
+	/**
+	 * Rescale images by averaging all pixels covered by a pixel of the rescaled
+	 * image instead of sampling a single pixel.
+	 * 
+	 * <p>
+	 * Area averaging reads the pixel data of common image types directly instead
+	 * of drawing the image via Java2D and is therefore considerably faster for
+	 * large images. The result only depends on integer arithmetic and is identical
+	 * on every jvm. Since every source pixel contributes to the rescaled image the
+	 * hashes are less susceptible to noise and aliasing.
+	 * 
+	 * <p>
+	 * Hashes created with area averaging are not comparable to hashes created by
+	 * nearest neighbor scaling. The setting is part of the algorithm id.
+	 * 
+	 * @param areaAveragingScaling true to rescale images by area averaging
+	 * @throws IllegalStateException if a hash was already created and the object is
+	 *                               considered immutable.
+	 * @since 1.1.0
+	 */
+	public void setAreaAveragingScaling(boolean areaAveragingScaling) {
+		if (immutableState) {
+			throw new IllegalStateException(LOCKED_MODIFICATION_EXCEPTION);
+		}
+		this.areaAveragingScaling = areaAveragingScaling;
+	}
+
+	/**
+	 * @return true if images are rescaled by area averaging
+	 * @see #setAreaAveragingScaling(boolean)
+	 * @since 1.1.0
+	 */
+	public boolean isAreaAveragingScaling() {
+		return areaAveragingScaling;
+	}
+
+	/**
+	 * Apply the filters to a downscaled version of the image instead of the image
+	 * at its original resolution. Images exceeding the given width or height are
+	 * uniformly rescaled to fit into it with the configured scaling method before
+	 * the first filter is applied, keeping their aspect ratio. Smaller images are
+	 * filtered as is.
+	 * 
+	 * <p>
+	 * The filtered image is rescaled to the dimension of the hash afterwards
+	 * anyway. Most filters like blurring, gray scaling or edge detection yield
+	 * close hashes when applied at an intermediate resolution, which costs a
+	 * fraction of filtering the full image. Kernels operate on pixels, therefore
+	 * the intermediate size should be a few times larger than the hash dimension
+	 * to keep the relative extent of the kernels comparable.
+	 * 
+	 * <p>
+	 * Hashes are close but not identical to hashes of images filtered at full
+	 * resolution. The setting is part of the algorithm id if filters are present.
+	 * 
+	 * @param width  the maximum width of the image the filters are applied to. 0
+	 *               to filter at the original resolution
+	 * @param height the maximum height of the image the filters are applied to. 0
+	 *               to filter at the original resolution
+	 * @throws IllegalArgumentException if only one of the dimensions is 0 or a
+	 *                                  dimension is negative
+	 * @throws IllegalStateException    if a hash was already created and the object
+	 *                                  is considered immutable.
+	 * @since 1.1.0
+	 */
+	public void setFilterResolution(int width, int height) {
+		if (immutableState) {
+			throw new IllegalStateException(LOCKED_MODIFICATION_EXCEPTION);
+		}
+		if (width < 0 || height < 0 || (width == 0) != (height == 0)) {
+			throw new IllegalArgumentException(
+					"The filter resolution has to be positive or 0 for both dimensions. Found: " + width + "x"
+							+ height);
+		}
+		this.filterWidth = width;
+		this.filterHeight = height;
+	}
+
+	/**
+	 * @return the maximum dimension of the image the filters are applied to or
+	 *         null if filters are applied at the original resolution
+	 * @see #setFilterResolution(int, int)
+	 * @since 1.1.0
+	 */
+	public Dimension getFilterResolution() {
+		return filterWidth == 0 ? null : new Dimension(filterWidth, filterHeight);
+	}
+
+	/**
+	 * Apply the filters to the luma values of the image instead of the individual
+	 * color channels. Only honored by algorithms which solely consume the luma
+	 * values of the image, see {@link #isLumaOnly()}.
+	 * 
+	 * <p>
+	 * The image is converted to luma values before the first kernel and every
+	 * kernel convolves a single plane instead of the red, green and blue channel.
+	 * For linear kernels the hashes are close to the hashes of images filtered
+	 * channel wise, non linear kernels like the median select different values.
+	 * The setting is part of the algorithm id if it is honored and filters are
+	 * present.
+	 * 
+	 * @param lumaFiltering true to filter the luma values
+	 * @throws IllegalStateException if a hash was already created and the object is
+	 *                               considered immutable.
+	 * @see dev.brachtendorf.jimagehash.hashAlgorithms.filter.FilterChain#filterLuma(BufferedImage,
+	 *      List)
+	 * @since 1.1.0
+	 */
+	public void setLumaFiltering(boolean lumaFiltering) {
+		if (immutableState) {
+			throw new IllegalStateException(LOCKED_MODIFICATION_EXCEPTION);
+		}
+		this.lumaFiltering = lumaFiltering;
+	}
+
+	/**
+	 * @return true if filters are applied to the luma values
+	 * @see #setLumaFiltering(boolean)
+	 * @since 1.1.0
+	 */
+	public boolean isLumaFiltering() {
+		return lumaFiltering;
+	}
+
+	/**
+	 * Declares if the hash solely depends on the luma values of the image. Luma
+	 * values are read via {@link #createLumaPlane(BufferedImage, int, int)},
+	 * {@link #createLumaPlane1D(BufferedImage, int, int)} or
+	 * {@link FastPixel#getLuma(int, int)}.
+	 * 
+	 * @return true if the algorithm ignores the individual color channels
+	 * @since 1.1.0
+	 */
+	protected boolean isLumaOnly() {
+		return false;
+	}
+
+	/**
+	 * The dimension images are rescaled to before the hash is computed. Used to
+	 * determine how far images may be subsampled during decoding.
+	 * 
+	 * @return the dimension of the rescaled image or null if unknown
+	 * @since 1.1.0
+	 */
+	protected Dimension getScaledImageDimension() {
+		return null;
 	}
 
 	/**
@@ -292,31 +862,213 @@ public abstract class HashingAlgorithm implements Serializable {
 	 */
 	protected abstract BigInteger hash(BufferedImage image, HashBuilder hashBuilder);
 
+	/**
+	 * Rescale the image and create a pixel accessor. If a {@link MultiHasher} is
+	 * active on the current thread the accessor is shared with all algorithms
+	 * requesting the same image, dimension and opaque handling and must not be
+	 * modified.
+	 * 
+	 * @param image  the image to rescale
+	 * @param width  the width of the rescaled image
+	 * @param height the height of the rescaled image
+	 * @return a pixel accessor of the rescaled image
+	 */
 	protected FastPixel createPixelAccessor(BufferedImage image, int width, int height) {
+		ScaledImageCache shared = SHARED_SCALED_IMAGES.get();
+		if (shared != null) {
+			return shared.getPixelAccessor(this, image, width, height);
+		}
+		return createPixelAccessor(image, scale(image, width, height));
+	}
+
+	/**
+	 * Rescale the image and extract the luma values. The returned array is indexed
+	 * [x][y] and may be shared with other algorithms, it must not be modified.
+	 * 
+	 * @param image  the image to rescale
+	 * @param width  the width of the rescaled image
+	 * @param height the height of the rescaled image
+	 * @return the luma values of the rescaled image
+	 * @since 1.1.0
+	 */
+	protected int[][] createLumaPlane(BufferedImage image, int width, int height) {
+		ScaledImageCache shared = SHARED_SCALED_IMAGES.get();
+		if (shared != null) {
+			return shared.getLuma(this, image, width, height);
+		}
+		return toColumns(extractLuma(image, scaleReadOnly(image, width, height)), width, height);
+	}
 
-		BufferedImage scaledInstance = ImageUtil.getScaledInstance(image, width, height);
+	/**
+	 * Rescale the image and extract the luma values into a flat row major array.
+	 * The luma value of pixel (x,y) is located at index <code>y * width + x</code>.
+	 * The returned array may be shared with other algorithms, it must not be
+	 * modified.
+	 * 
+	 * <p>
+	 * Opposed to {@link #createPixelAccessor(BufferedImage, int, int)} the values
+	 * are read directly from the raster of the rescaled image for the common image
+	 * types.
+	 * 
+	 * @param image  the image to rescale
+	 * @param width  the width of the rescaled image
+	 * @param height the height of the rescaled image
+	 * @return the luma values of the rescaled image
+	 * @since 1.1.0
+	 */
+	protected int[] createLumaPlane1D(BufferedImage image, int width, int height) {
+		ScaledImageCache shared = SHARED_SCALED_IMAGES.get();
+		if (shared != null) {
+			return shared.getLuma1D(this, image, width, height);
+		}
+		return extractLuma(image, scaleReadOnly(image, width, height));
+	}
+
+	/**
+	 * Rescale the image and write the luma values into the supplied row major
+	 * array. Opposed to {@link #createLumaPlane1D(BufferedImage, int, int)} no
+	 * plane is allocated, allowing implementations to reuse a per thread
+	 * workspace.
+	 * 
+	 * @param image  the image to rescale
+	 * @param width  the width of the rescaled image
+	 * @param height the height of the rescaled image
+	 * @param luma   the array of at least width * height length the luma values
+	 *               are written to
+	 * @since 1.1.0
+	 */
+	protected void createLumaPlane1D(BufferedImage image, int width, int height, int[] luma) {
+		ScaledImageCache shared = SHARED_SCALED_IMAGES.get();
+		if (shared != null) {
+			System.arraycopy(shared.getLuma1D(this, image, width, height), 0, luma, 0, width * height);
+		} else {
+			extractLuma(image, scaleReadOnly(image, width, height), luma);
+		}
+	}
+
+	/**
+	 * Rescale the image with the configured scaling method
+	 * 
+	 * @param image  the image to rescale
+	 * @param width  the width of the rescaled image
+	 * @param height the height of the rescaled image
+	 * @return the rescaled image
+	 */
+	BufferedImage scale(BufferedImage image, int width, int height) {
+		return areaAveragingScaling ? AreaAveragingScaler.scale(image, width, height)
+				: ImageUtil.getScaledInstance(image, width, height);
+	}
+
+	/**
+	 * Rescale the image for read only access. Drawing an opaque image of a common
+	 * type onto an image of the same type and dimension is an exact copy, in which
+	 * case the image itself is returned instead. The result must not be modified.
+	 * 
+	 * @param image  the image to rescale
+	 * @param width  the width of the rescaled image
+	 * @param height the height of the rescaled image
+	 * @return the rescaled image or the image itself
+	 */
+	BufferedImage scaleReadOnly(BufferedImage image, int width, int height) {
+		if (!areaAveragingScaling && image.getWidth() == width && image.getHeight() == height) {
+			switch (image.getType()) {
+			case BufferedImage.TYPE_INT_RGB:
+			case BufferedImage.TYPE_INT_BGR:
+			case BufferedImage.TYPE_3BYTE_BGR:
+			case BufferedImage.TYPE_BYTE_GRAY:
+			case BufferedImage.TYPE_USHORT_GRAY:
+				return image;
+			default:
+			}
+		}
+		return scale(image, width, height);
+	}
+
+	/**
+	 * Create a pixel accessor of the rescaled image honoring the opaque handling.
+	 * 
+	 * @param image          the original image
+	 * @param scaledInstance the rescaled image
+	 * @return a pixel accessor of the rescaled image
+	 */
+	FastPixel createPixelAccessor(BufferedImage image, BufferedImage scaledInstance) {
 		FastPixel fp = FastPixel.create(scaledInstance);
 
 		// If opaque handling is specified and the image has an alpha channel
 		if (this.opaqueReplacementThreshold >= 0 && fp.hasAlpha()) {
-			/**
-			 * If no color is specified grab the contrast color. This operation might not be
-			 * the best for hash calculation depending on how the color is interpolated. The
-			 * interpolated Color might be black for white images if the alpha is in the
-			 * majority.
-			 */
-			if (this.opaqueReplacementColor == null) {
-
-				javafx.scene.paint.Color interpolatedColor = ImageUtil.interpolateColor(image);
-				Color replacementColor = ColorUtil.getContrastColor(ColorUtil.fxToAwtColor(interpolatedColor));
-				fp.setReplaceOpaqueColors(this.opaqueReplacementThreshold, replacementColor);
-			} else {
-				fp.setReplaceOpaqueColors(this.opaqueReplacementThreshold, this.opaqueReplacementColor);
-			}
+			fp.setReplaceOpaqueColors(this.opaqueReplacementThreshold, getReplacementColor(image));
 		}
 		return fp;
 	}
 
+	/**
+	 * Extract the luma values of the rescaled image into a flat row major array
+	 * honoring the opaque handling.
+	 * 
+	 * @param image          the original image
+	 * @param scaledInstance the rescaled image
+	 * @return the luma values of the rescaled image
+	 */
+	int[] extractLuma(BufferedImage image, BufferedImage scaledInstance) {
+		int[] luma = new int[scaledInstance.getWidth() * scaledInstance.getHeight()];
+		extractLuma(image, scaledInstance, luma);
+		return luma;
+	}
+
+	/**
+	 * Extract the luma values of the rescaled image into the supplied row major
+	 * array honoring the opaque handling.
+	 * 
+	 * @param image          the original image
+	 * @param scaledInstance the rescaled image
+	 * @param luma           the array the luma values are written to
+	 */
+	void extractLuma(BufferedImage image, BufferedImage scaledInstance, int[] luma) {
+		int replacementRgb = 0;
+		if (this.opaqueReplacementThreshold >= 0 && scaledInstance.getColorModel().hasAlpha()) {
+			replacementRgb = getReplacementColor(image).getRGB() & 0xFFFFFF;
+		}
+		if (hashesFilteredLuma()) {
+			// The channels of gray pixels already hold the filtered luma value
+			PixelPlanes.extractGrayLuma(scaledInstance, this.opaqueReplacementThreshold, replacementRgb, luma);
+		} else {
+			PixelPlanes.extractLuma(scaledInstance, this.opaqueReplacementThreshold, replacementRgb, luma);
+		}
+	}
+
+	/**
+	 * Transpose a flat row major plane into an array indexed [x][y]
+	 * 
+	 * @param plane  the row major values
+	 * @param width  the width of the plane
+	 * @param height the height of the plane
+	 * @return the values indexed [x][y]
+	 */
+	static int[][] toColumns(int[] plane, int width, int height) {
+		int[][] columns = new int[width][height];
+		for (int y = 0; y < height; y++) {
+			int offset = y * width;
+			for (int x = 0; x < width; x++) {
+				columns[x][y] = plane[offset + x];
+			}
+		}
+		return columns;
+	}
+
+	private Color getReplacementColor(BufferedImage image) {
+		/**
+		 * If no color is specified grab the contrast color. This operation might not be
+		 * the best for hash calculation depending on how the color is interpolated. The
+		 * interpolated Color might be black for white images if the alpha is in the
+		 * majority.
+		 */
+		if (this.opaqueReplacementColor == null) {
+			javafx.scene.paint.Color interpolatedColor = ImageUtil.interpolateColor(image);
+			return ColorUtil.getContrastColor(ColorUtil.fxToAwtColor(interpolatedColor));
+		}
+		return this.opaqueReplacementColor;
+	}
+
 	/**
 	 * A unique id identifying the settings and algorithms used to generate the
 	 * output result. The id shall stay consistent throughout restarts of the jvm.
@@ -331,20 +1083,38 @@ public abstract class HashingAlgorithm implements Serializable {
 	 * @return the algorithm id identifying this hashing algorithm
 	 */
 	public final int algorithmId() {
-		if (algorithmId == 0) {
-			algorithmId = 31 * precomputeAlgoId();
+		int id = algorithmId;
+		if (id == 0) {
+			// Compute locally so other threads never observe a partial id
+			id = 31 * precomputeAlgoId();
 			// Make sure the algo id doesn't collide with version 2.0.0 id's
-			algorithmId = 31 * algorithmId + 5 + preProcessing.hashCode();
+			id = 31 * id + 5 + preProcessing.hashCode();
 
 			// Change hash code only if transparency is supported
 			if (this.opaqueReplacementThreshold >= 0) {
-				algorithmId = 31 * algorithmId
-						+ Objects.hash(this.opaqueReplacementThreshold, this.opaqueReplacementColor);
+				id = 31 * id + Objects.hash(this.opaqueReplacementThreshold, this.opaqueReplacementColor);
+			}
+
+			if (areaAveragingScaling) {
+				id = 31 * id + 7;
+			}
+
+			if (getDecodingDimension() != null) {
+				id = 31 * id + 13;
+			}
+
+			if (filterWidth > 0 && !preProcessing.isEmpty()) {
+				id = 31 * id + Objects.hash(filterWidth, filterHeight);
+			}
+
+			if (isLumaFiltered() && !preProcessing.isEmpty()) {
+				id = 31 * id + 11;
 			}
 
 			immutableState = true;
+			algorithmId = id;
 		}
-		return algorithmId;
+		return id;
 	}
 
 	/**
@@ -389,14 +1159,16 @@ public abstract class HashingAlgorithm implements Serializable {
 	 */
 	public int getKeyResolution() {
 		// If they key resolution is not know compute a sample hash and cache it's
-		// return value
-		if (keyResolution < 0) {
+		// return value. Concurrent callers compute the same value.
+		int keyLength = keyResolution;
+		if (keyLength < 0) {
 			BufferedImage bi = new BufferedImage(1, 1, BufferedImage.TYPE_3BYTE_BGR);
 			HashBuilder sb = new HashBuilder(this.bitResolution);
 			this.hash(bi, sb);
-			keyResolution = sb.length;
+			keyLength = sb.length;
+			keyResolution = keyLength;
 		}
-		return keyResolution;
+		return keyLength;
 	}
 
 	/**
@@ -464,6 +1236,10 @@ public abstract class HashingAlgorithm implements Serializable {
 	 * If the algorithm does not utilize a special hash sub class this method
 	 * returns the supplied argument.
 	 * 
+	 * <p>
+	 * Every hash created by {@link #hash(BufferedImage)} and {@link MultiHasher}
+	 * is passed through this method.
+	 * 
 	 * @param original the hash to transform
 	 * @return a hash as it would be created by this algorithm.
 	 * @since 3.0.0
@@ -0,0 +1,130 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms;
+
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.spi.IIORegistry;
+import javax.imageio.spi.ImageReaderSpi;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Decodes images with image readers reused per thread. Opposed to
+ * {@link ImageIO#read(ImageInputStream)}, which creates and disposes a reader
+ * for every image, readers are looked up once per format and thread.
+ *
+ * <p>
+ * If a target dimension is supplied the image is decoded with source
+ * subsampling. Only every n-th pixel of every n-th row is decoded while keeping
+ * at least {@link #OVERSAMPLING} times the target dimension in each direction.
+ * This reduces decoding time and memory consumption of large images
+ * considerably.
+ *
+ * @author Kilian
+ * @since 1.1.0
+ */
+class ImageDecoder {
+
+	/**
+	 * Minimum factor the decoded image has to be larger than the target dimension.
+	 * Each pixel of the rescaled image is still computed from at least
+	 * OVERSAMPLING² source pixels.
+	 */
+	static final int OVERSAMPLING = 16;
+
+	/**
+	 * Readers by provider. The number of readers per thread is bounded by the
+	 * number of registered formats. Readers are reset after every image and
+	 * therefore do not retain the stream or the decoded image, but are kept
+	 * until the thread terminates.
+	 */
+	private static final ThreadLocal<Map<ImageReaderSpi, ImageReader>> READERS = ThreadLocal
+			.withInitial(HashMap::new);
+
+	private ImageDecoder() {
+	}
+
+	/**
+	 * Decode the first image of the stream. The stream is not closed.
+	 *
+	 * @param stream          the stream to read from
+	 * @param targetDimension the dimension the image will be rescaled to or null
+	 *                        if the image shall be decoded at full resolution
+	 * @return the decoded image
+	 * @throws IOException if an error occurs during reading or no image reader
+	 *                     supports the format of the stream
+	 */
+	static BufferedImage read(ImageInputStream stream, Dimension targetDimension) throws IOException {
+		if (stream == null) {
+			throw new IOException("Can't create an image input stream");
+		}
+		ImageReaderSpi spi = findProvider(stream);
+		if (spi == null) {
+			throw new IOException("No image reader found for the supplied image format");
+		}
+
+		Map<ImageReaderSpi, ImageReader> readers = READERS.get();
+		ImageReader reader = readers.get(spi);
+		if (reader == null) {
+			reader = spi.createReaderInstance();
+			readers.put(spi, reader);
+		}
+
+		boolean reusable = false;
+		try {
+			reader.setInput(stream, true, true);
+			ImageReadParam param = reader.getDefaultReadParam();
+			if (targetDimension != null) {
+				int subsampling = computeSubsampling(reader.getWidth(0), reader.getHeight(0), targetDimension);
+				if (subsampling > 1) {
+					param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+				}
+			}
+			BufferedImage image = reader.read(0, param);
+			reusable = true;
+			return image;
+		} finally {
+			if (reusable) {
+				reader.reset();
+			} else {
+				// Don't reuse readers which might be in an inconsistent state
+				readers.remove(spi);
+				reader.dispose();
+			}
+		}
+	}
+
+	/**
+	 * Compute the largest subsampling factor keeping at least
+	 * {@link #OVERSAMPLING} times the target dimension.
+	 *
+	 * @param width           the width of the source image
+	 * @param height          the height of the source image
+	 * @param targetDimension the dimension the image will be rescaled to
+	 * @return the subsampling factor. 1 if no subsampling shall be applied
+	 */
+	static int computeSubsampling(int width, int height, Dimension targetDimension) {
+		int xFactor = width / (Math.max(1, targetDimension.width) * OVERSAMPLING);
+		int yFactor = height / (Math.max(1, targetDimension.height) * OVERSAMPLING);
+		return Math.max(1, Math.min(xFactor, yFactor));
+	}
+
+	private static ImageReaderSpi findProvider(ImageInputStream stream) throws IOException {
+		Iterator<ImageReaderSpi> providers = IIORegistry.getDefaultInstance()
+				.getServiceProviders(ImageReaderSpi.class, true);
+		while (providers.hasNext()) {
+			ImageReaderSpi spi = providers.next();
+			// canDecodeInput marks and resets the stream
+			if (spi.canDecodeInput(stream)) {
+				return spi;
+			}
+		}
+		return null;
+	}
+}
@@ -4,7 +4,6 @@ import java.awt.image.BufferedImage;
 import java.math.BigInteger;
 
 import dev.brachtendorf.ArrayUtil;
-import dev.brachtendorf.graphics.FastPixel;
 
 /**
  * Calculate a hash value based on the median luminosity in an image.
@@ -49,14 +48,45 @@ public class MedianHash extends AverageHash {
 
 	@Override
 	protected BigInteger hash(BufferedImage image, HashBuilder hash) {
-		FastPixel fp = createPixelAccessor(image, width, height);
+		int[] lum = createLumaPlane1D(image, width, height);
 
-		int[] lum = fp.getLuma1D();
+		// Create hash
+		return computeHash(hash, lum, median(lum));
+	}
 
-		int[][] luminocity = fp.getLuma();
+	/**
+	 * Median of luma values computed via a histogram instead of sorting. Yields the
+	 * same result as {@link ArrayUtil#median(int[])}.
+	 * 
+	 * @param lum the luma values in the range [0-255]
+	 * @return the median
+	 */
+	private static double median(int[] lum) {
+		int[] histogram = new int[256];
+		for (int value : lum) {
+			histogram[value]++;
+		}
+		int upper = rank(histogram, lum.length / 2);
+		if (lum.length % 2 == 1) {
+			return upper;
+		}
+		return (upper + rank(histogram, lum.length / 2 - 1)) / 2d;
+	}
 
-		// Create hash
-		return computeHash(hash, luminocity, ArrayUtil.median(lum));
+	/**
+	 * @param histogram the histogram
+	 * @param rank      the 0 based index in sorted order
+	 * @return the value at the given index of the sorted values
+	 */
+	private static int rank(int[] histogram, int rank) {
+		int count = 0;
+		for (int value = 0; value < histogram.length; value++) {
+			count += histogram[value];
+			if (count > rank) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Rank exceeds histogram count");
 	}
 
 }
@@ -0,0 +1,185 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms;
+
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import dev.brachtendorf.jimagehash.hash.Hash;
+
+/**
+ * Compute the hashes of multiple hashing algorithms for the same image while
+ * sharing intermediate results.
+ *
+ * <p>
+ * Calling {@link HashingAlgorithm#hash(BufferedImage)} for each algorithm
+ * repeats the preprocessing, rescaling and luma extraction of the image. The
+ * multi hasher applies each distinct filter chain once and rescales the image
+ * once per required dimension, handing the same scaled pixel data to all
+ * algorithms requesting it. The produced hashes are identical to the hashes
+ * created by the individual algorithms.
+ *
+ * <p>
+ * Algorithms specializing their hashes via
+ * {@link HashingAlgorithm#createAlgorithmSpecificHash(Hash)} share the
+ * intermediate results. Algorithms overriding
+ * {@link HashingAlgorithm#hash(BufferedImage)} are invoked directly and do not
+ * benefit from the shared results.
+ *
+ * <p>
+ * This class is thread safe as long as the supplied algorithms are.
+ *
+ * @author Kilian
+ * @since 1.1.0
+ */
+public class MultiHasher {
+
+	/**
+	 * True if a class overrides {@link HashingAlgorithm#hash(BufferedImage)}
+	 */
+	private static final ClassValue<Boolean> OVERRIDES_HASH = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			try {
+				return type.getMethod("hash", BufferedImage.class).getDeclaringClass() != HashingAlgorithm.class;
+			} catch (NoSuchMethodException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	};
+
+	private final List<HashingAlgorithm> algorithms;
+
+	/**
+	 * @param algorithms the algorithms used to hash images
+	 * @throws NullPointerException if an algorithm is null
+	 */
+	public MultiHasher(HashingAlgorithm... algorithms) {
+		this(Arrays.asList(algorithms));
+	}
+
+	/**
+	 * @param algorithms the algorithms used to hash images. Hashes are returned in
+	 *                   the iteration order of the collection
+	 * @throws NullPointerException if an algorithm is null
+	 */
+	public MultiHasher(Collection<? extends HashingAlgorithm> algorithms) {
+		for (HashingAlgorithm algo : algorithms) {
+			Objects.requireNonNull(algo, "Hashing algorithms may not be null");
+		}
+		this.algorithms = List.copyOf(algorithms);
+	}
+
+	/**
+	 * Calculate the hashes of all algorithms for the given image.
+	 *
+	 * @param image Image whose hashes will be calculated
+	 * @return the hashes in the order of the algorithms supplied during
+	 *         construction
+	 */
+	public Hash[] hash(BufferedImage image) {
+		BufferedImage[] images = new BufferedImage[algorithms.size()];
+		Arrays.fill(images, image);
+		return hash(images);
+	}
+
+	/**
+	 * Calculate the hashes of all algorithms for the given image. The image is
+	 * decoded once for all algorithms decoding image files at the same
+	 * resolution, see {@link HashingAlgorithm#setSubsampledDecoding(boolean)}.
+	 *
+	 * @param imageFile The file pointing to the image
+	 * @return the hashes in the order of the algorithms supplied during
+	 *         construction. The hashes are identical to the hashes returned by
+	 *         {@link HashingAlgorithm#hash(File)}
+	 * @throws IOException if an error occurs during loading the image
+	 */
+	public Hash[] hash(File imageFile) throws IOException {
+		Map<Dimension, BufferedImage> decoded = new HashMap<>();
+		BufferedImage[] images = new BufferedImage[algorithms.size()];
+		for (int i = 0; i < images.length; i++) {
+			Dimension decodingDimension = algorithms.get(i).getDecodingDimension();
+			BufferedImage image = decoded.get(decodingDimension);
+			if (image == null) {
+				image = HashingAlgorithm.readImage(imageFile, decodingDimension);
+				decoded.put(decodingDimension, image);
+			}
+			images[i] = image;
+		}
+		return hash(images);
+	}
+
+	/**
+	 * @param images the image hashed by each algorithm
+	 * @return the hashes in the order of the algorithms
+	 */
+	private Hash[] hash(BufferedImage[] images) {
+		Hash[] hashes = new Hash[algorithms.size()];
+
+		ScaledImageCache previous = HashingAlgorithm.SHARED_SCALED_IMAGES.get();
+		HashingAlgorithm.SHARED_SCALED_IMAGES.set(new ScaledImageCache());
+		try {
+			// Filtered images by source image and filter key
+			Map<BufferedImage, Map<Object, BufferedImage>> filtered = new IdentityHashMap<>();
+			for (int i = 0; i < hashes.length; i++) {
+				HashingAlgorithm algo = algorithms.get(i);
+				BufferedImage image = images[i];
+				if (OVERRIDES_HASH.get(algo.getClass())) {
+					hashes[i] = algo.hash(image);
+					continue;
+				}
+				BufferedImage bi;
+				if (algo.preProcessing.isEmpty()) {
+					bi = image;
+				} else {
+					bi = filtered.computeIfAbsent(image, k -> new HashMap<>()).computeIfAbsent(algo.getFilterKey(),
+							k -> algo.applyFilters(image));
+				}
+				hashes[i] = algo.createAlgorithmSpecificHash(algo.hashPreprocessed(bi));
+			}
+		} finally {
+			if (previous == null) {
+				HashingAlgorithm.SHARED_SCALED_IMAGES.remove();
+			} else {
+				HashingAlgorithm.SHARED_SCALED_IMAGES.set(previous);
+			}
+		}
+		return hashes;
+	}
+
+	/**
+	 * Calculate the hashes of all algorithms for the given image.
+	 *
+	 * @param image Image whose hashes will be calculated
+	 * @return a map containing the hash of each algorithm in the order of the
+	 *         algorithms supplied during construction
+	 */
+	public Map<HashingAlgorithm, Hash> hashAsMap(BufferedImage image) {
+		Hash[] hashes = hash(image);
+		Map<HashingAlgorithm, Hash> result = new LinkedHashMap<>();
+		for (int i = 0; i < hashes.length; i++) {
+			result.put(algorithms.get(i), hashes[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * @return an unmodifiable list of the algorithms used by this hasher
+	 */
+	public List<HashingAlgorithm> getAlgorithms() {
+		return algorithms;
+	}
+
+	@Override
+	public String toString() {
+		return "MultiHasher " + algorithms;
+	}
+}
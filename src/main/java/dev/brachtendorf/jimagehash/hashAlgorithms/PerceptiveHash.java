@@ -1,14 +1,17 @@
 package dev.brachtendorf.jimagehash.hashAlgorithms;
 
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
 import java.math.BigInteger;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 import org.jtransforms.dct.DoubleDCT_2D;
 import org.jtransforms.utils.CommonUtils;
 
-import dev.brachtendorf.graphics.FastPixel;
+
 
 /**
  * Calculate a hash based on the frequency of an image using the DCT T2. This
@@ -38,11 +41,50 @@ public class PerceptiveHash extends HashingAlgorithm {
 
 	private static final Logger LOGGER = Logger.getLogger(PerceptiveHash.class.getSimpleName());
 
+	/**
+	 * Strategy used to compute the low frequency dct coefficients.
+	 * 
+	 * <p>
+	 * Both transformations compute the same coefficients up to floating point
+	 * rounding errors. The hashes only differ if coefficients are within these
+	 * errors of the average, e.g. for images of a single solid color. As hashes
+	 * are not guaranteed to be bit identical each transformation yields a
+	 * distinct algorithm id and the hashes are not comparable.
+	 * 
+	 * @author Kilian
+	 * @since 1.1.0
+	 */
+	public enum Transformation {
+		/**
+		 * Compute the entire 2 dimensional dct using JTransforms. Only a fourth of the
+		 * coefficients are used.
+		 */
+		Full,
+		/**
+		 * Only compute the coefficients used by the hash by multiplying the luma
+		 * matrix with precomputed cosine basis matrices. Faster up to a bit resolution
+		 * of roughly 256 bits and does not start the JTransforms thread pool.
+		 */
+		LowFrequency
+	}
+
+	/** Reusable dct matrix and plan of each thread */
+	private static final WorkspaceCache<Workspace> WORKSPACES = new WorkspaceCache<>(Workspace::new);
+
+	/** Immutable cosine basis matrices shared by all instances of a resolution */
+	private static final Map<Dimension, CosineBasis> BASIS = new ConcurrentHashMap<>();
+
 	/**
 	 * The height and width of the scaled instance used to compute the hash
 	 */
 	private int height, width;
 
+	/**
+	 * Strategy used to compute the dct. Null for instances serialized by older
+	 * versions.
+	 */
+	private final Transformation transformation;
+
 	/**
 	 * 
 	 * @param bitResolution The bit resolution specifies the final length of the
@@ -52,70 +94,160 @@ public class PerceptiveHash extends HashingAlgorithm {
 	 *                      key is not always desired.
 	 */
 	public PerceptiveHash(int bitResolution) {
+		this(bitResolution, Transformation.Full);
+	}
+
+	/**
+	 * 
+	 * @param bitResolution  The bit resolution specifies the final length of the
+	 *                       generated hash. A higher resolution will increase
+	 *                       computation time and space requirement while being
+	 *                       able to track finer detail in the image. Be aware that
+	 *                       a high key is not always desired.
+	 * @param transformation the strategy used to compute the dct coefficients.
+	 *                       Hashes created by different transformations are not
+	 *                       comparable.
+	 * @since 1.1.0
+	 */
+	public PerceptiveHash(int bitResolution, Transformation transformation) {
 		super(bitResolution);
 		computeDimensions(bitResolution);
+		this.transformation = Objects.requireNonNull(transformation, "Transformation may not be null");
 
 		// thread usage enabled issue warning.
 		// This does not get triggered in usual circumstances.
-		if (width * height >= CommonUtils.getThreadsBeginN_2D()) {
+		if (transformation == Transformation.Full && width * height >= CommonUtils.getThreadsBeginN_2D()) {
 			LOGGER.warning(
 					"Due to an unfortunate design decision in JTransform a threadpool will be kept alive after finishing calculation"
 							+ " possibly block jvm termination.  You see this message because calculating an unusual high bit resolution perceptive hash will likely trigger this rule."
-							+ " To quickly terminate the jvm without delay please call ConcurrencyUtils.shutdownThreadPoolAndAwaitTermination(); manually once you are done computing perceptive hashes");
+							+ " To quickly terminate the jvm without delay please call ConcurrencyUtils.shutdownThreadPoolAndAwaitTermination(); manually once you are done computing perceptive hashes"
+							+ " or use Transformation.LowFrequency");
 		}
 
 	}
 
 	@Override
 	protected BigInteger hash(BufferedImage image, HashBuilder hash) {
-		FastPixel fp = createPixelAccessor(image, width, height);
+		Workspace workspace = WORKSPACES.get(width, height);
 
-		int[][] lum = fp.getLuma();
+		int[] luma = workspace.luma;
+		createLumaPlane1D(image, width, height, luma);
 
 		// int to double conversion ...
-		double[][] lumAsDouble = new double[width][height];
+		double[][] lumAsDouble = workspace.lumAsDouble;
 
 		for (int x = 0; x < width; x++) {
-			for (int y = 0; y < height; y++) {
-				lumAsDouble[x][y] = lum[x][y] / 255d;
+			double[] column = lumAsDouble[x];
+			for (int y = 0, i = x; y < height; y++, i += width) {
+				column[y] = luma[i] / 255d;
 			}
 		}
 
-		DoubleDCT_2D dct = new DoubleDCT_2D(width, height);
-
-		dct.forward(lumAsDouble, false);
+		// Take a look at a forth of the pixel matrix. The lower right corner does not
+		// yield much information.
+		int subWidth = (int) (width / 4d);
+		int subHeight = (int) (height / 4d);
+		int count = subWidth * subHeight;
 
 		// Average value of the (topmost) YxY low frequencies. Skip the first column as
 		// it might be too dominant. Solid color e.g.
 		// TODO DCT walk down in a triangular motion. Skipping the entire edge neglects
 		// several important frequencies. Maybe just skip
 		// just the upper corner.
-		double avg = 0;
-
-		// Take a look at a forth of the pixel matrix. The lower right corner does not
-		// yield much information.
-		int subWidth = (int) (width / 4d);
-		int subHeight = (int) (height / 4d);
-		int count = subWidth * subHeight;
+		double[] lowFrequencies = workspace.lowFrequencies;
+		if (transformation == Transformation.LowFrequency) {
+			computeLowFrequencies(lumAsDouble, subWidth, subHeight, workspace, lowFrequencies);
+		} else {
+			workspace.dct().forward(lumAsDouble, false);
+			int k = 0;
+			for (int i = 1; i < subWidth + 1; i++) {
+				for (int j = 1; j < subHeight + 1; j++) {
+					lowFrequencies[k++] = lumAsDouble[i][j];
+				}
+			}
+		}
 
 		// calculate the average of the dct
-		for (int i = 1; i < subWidth + 1; i++) {
-			for (int j = 1; j < subHeight + 1; j++) {
-				avg += lumAsDouble[i][j] / count;
+		double avg = 0;
+		for (int k = 0; k < count; k++) {
+			avg += lowFrequencies[k] / count;
+		}
+
+		for (int k = 0; k < count; k++) {
+			if (lowFrequencies[k] < avg) {
+				hash.prependZero();
+			} else {
+				hash.prependOne();
 			}
 		}
+		return hash.toBigInteger();
+	}
 
-		for (int i = 1; i < subWidth + 1; i++) {
-			for (int j = 1; j < subHeight + 1; j++) {
+	/**
+	 * Compute the dct coefficients [1 - subWidth] x [1 - subHeight] as
+	 * <code>Bx * L * By<sup>T</sup></code> where Bx and By hold the cosine basis
+	 * vectors of the requested frequencies. The coefficients are scaled equally to
+	 * the unscaled JTransforms dct.
+	 * 
+	 * @param lum            the luma values of the image
+	 * @param subWidth       the number of horizontal frequencies
+	 * @param subHeight      the number of vertical frequencies
+	 * @param workspace      the workspace of the current thread
+	 * @param lowFrequencies the array the coefficients are written to in row major
+	 *                       order
+	 */
+	private void computeLowFrequencies(double[][] lum, int subWidth, int subHeight, Workspace workspace,
+			double[] lowFrequencies) {
+		CosineBasis basis = workspace.basis;
+		if (basis == null) {
+			basis = BASIS.computeIfAbsent(new Dimension(width, height),
+					d -> new CosineBasis(d.width, d.height, subWidth, subHeight));
+			workspace.basis = basis;
+		}
+
+		// Transform along y: partial[x][j] = sum_y lum[x][y] * By[j][y]
+		// The basis vectors are symmetric for odd and antisymmetric for even
+		// frequencies (with frequency 0 skipped, index j holds frequency j + 1).
+		// Folding the column halves the number of multiplications.
+		double[] partial = workspace.partial;
+		double[] sum = workspace.foldedSum;
+		double[] difference = workspace.foldedDifference;
+		double[] yBasis = basis.y;
+		int half = sum.length;
+		for (int x = 0; x < width; x++) {
+			double[] column = lum[x];
+			for (int y = 0; y < height / 2; y++) {
+				sum[y] = column[y] + column[height - 1 - y];
+				difference[y] = column[y] - column[height - 1 - y];
+			}
+			if (height % 2 == 1) {
+				sum[half - 1] = column[half - 1];
+				difference[half - 1] = 0;
+			}
+			for (int j = 0; j < subHeight; j++) {
+				double[] folded = j % 2 == 0 ? difference : sum;
+				int offset = j * half;
+				double coefficient = 0;
+				for (int y = 0; y < half; y++) {
+					coefficient += folded[y] * yBasis[offset + y];
+				}
+				partial[x * subHeight + j] = coefficient;
+			}
+		}
 
-				if (lumAsDouble[i][j] < avg) {
-					hash.prependZero();
-				} else {
-					hash.prependOne();
+		// Transform along x: coefficient[i][j] = sum_x Bx[i][x] * partial[x][j]
+		double[] xBasis = basis.x;
+		int k = 0;
+		for (int i = 0; i < subWidth; i++) {
+			int offset = i * width;
+			for (int j = 0; j < subHeight; j++) {
+				double coefficient = 0;
+				for (int x = 0; x < width; x++) {
+					coefficient += xBasis[offset + x] * partial[x * subHeight + j];
 				}
+				lowFrequencies[k++] = coefficient;
 			}
 		}
-		return hash.toBigInteger();
 	}
 
 	/**
@@ -145,8 +277,101 @@ public class PerceptiveHash extends HashingAlgorithm {
 		}
 	}
 
+	@Override
+	protected Dimension getScaledImageDimension() {
+		return new Dimension(width, height);
+	}
+
+	@Override
+	protected boolean isLumaOnly() {
+		return true;
+	}
+
 	@Override
 	protected int precomputeAlgoId() {
-		return Objects.hash("com.github.kilianB.hashAlgorithms."+getClass().getSimpleName(), height, width) * 31 + 1;
+		int id = Objects.hash("com.github.kilianB.hashAlgorithms."+getClass().getSimpleName(), height, width) * 31 + 1;
+		// Keep the id of the full transformation compatible with previous versions
+		if (getTransformation() == Transformation.LowFrequency) {
+			id = 31 * id + Transformation.LowFrequency.ordinal();
+		}
+		return id;
+	}
+
+	/**
+	 * @return the strategy used to compute the dct coefficients
+	 * @since 1.1.0
+	 */
+	public Transformation getTransformation() {
+		return transformation == null ? Transformation.Full : transformation;
+	}
+
+	/**
+	 * Thread confined buffers of a single hash computation
+	 */
+	private static class Workspace {
+		private final int width;
+		private final int height;
+		/** Luma values of the rescaled image in row major order */
+		private final int[] luma;
+		private final double[][] lumAsDouble;
+		private final double[] partial;
+		private final double[] foldedSum;
+		private final double[] foldedDifference;
+		private final double[] lowFrequencies;
+		private DoubleDCT_2D dct;
+		/** The shared basis of the resolution, resolved on first use */
+		private CosineBasis basis;
+
+		Workspace(int width, int height) {
+			this.width = width;
+			this.height = height;
+			luma = new int[width * height];
+			lumAsDouble = new double[width][height];
+			int subWidth = (int) (width / 4d);
+			int subHeight = (int) (height / 4d);
+			partial = new double[width * subHeight];
+			foldedSum = new double[(height + 1) / 2];
+			foldedDifference = new double[(height + 1) / 2];
+			lowFrequencies = new double[subWidth * subHeight];
+		}
+
+		DoubleDCT_2D dct() {
+			// Only created if requested. The plan of large resolutions is expensive
+			if (dct == null) {
+				dct = new DoubleDCT_2D(width, height);
+			}
+			return dct;
+		}
+	}
+
+	/**
+	 * Cosine basis vectors of the low dct frequencies 1 - n of a resolution. The
+	 * arrays are never modified after construction.
+	 */
+	private static class CosineBasis {
+		/** Basis vectors along x stored row major [frequency][x] */
+		private final double[] x;
+		/**
+		 * Basis vectors along y stored row major [frequency][y]. Only the first half
+		 * of each vector is stored as the second half is mirrored.
+		 */
+		private final double[] y;
+
+		CosineBasis(int width, int height, int subWidth, int subHeight) {
+			// The unscaled 2d dct of JTransforms is twice the textbook definition
+			x = basis(width, width, subWidth, 2);
+			y = basis(height, (height + 1) / 2, subHeight, 1);
+		}
+
+		private static double[] basis(int n, int length, int frequencies, double scale) {
+			double[] basis = new double[frequencies * length];
+			for (int k = 0; k < frequencies; k++) {
+				for (int i = 0; i < length; i++) {
+					// Skip frequency 0
+					basis[k * length + i] = scale * Math.cos(Math.PI / n * (i + 0.5) * (k + 1));
+				}
+			}
+			return basis;
+		}
 	}
 }
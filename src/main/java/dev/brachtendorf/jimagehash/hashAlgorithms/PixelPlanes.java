@@ -0,0 +1,207 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+import dev.brachtendorf.graphics.FastPixel;
+
+/**
+ * Extracts the pixel values of an image into flat row major primitive arrays.
+ * The value of pixel (x,y) is located at index <code>y * width + x</code>.
+ *
+ * <p>
+ * Images with int packed ({@link BufferedImage#TYPE_INT_RGB},
+ * {@link BufferedImage#TYPE_INT_ARGB}, {@link BufferedImage#TYPE_INT_BGR}) or
+ * byte interleaved ({@link BufferedImage#TYPE_3BYTE_BGR},
+ * {@link BufferedImage#TYPE_4BYTE_ABGR}) rasters are read directly from their
+ * data buffer. All other images are converted via
+ * {@link BufferedImage#getRGB(int, int, int, int, int[], int, int)}. The
+ * extracted values are identical to the values reported by {@link FastPixel}
+ * including the replacement of transparent pixels.
+ *
+ * @author Kilian
+ * @since 1.1.0
+ */
+class PixelPlanes {
+
+	/*
+	 * Weighted channel values. The products are identical to the ones computed by
+	 * FastPixel and summed in the same order
+	 */
+	private static final double[] RED_WEIGHT = new double[256];
+	private static final double[] GREEN_WEIGHT = new double[256];
+	private static final double[] BLUE_WEIGHT = new double[256];
+
+	static {
+		for (int i = 0; i < 256; i++) {
+			RED_WEIGHT[i] = i * 0.299;
+			GREEN_WEIGHT[i] = i * 0.587;
+			BLUE_WEIGHT[i] = i * 0.114;
+		}
+	}
+
+	private PixelPlanes() {
+	}
+
+	/**
+	 * Extract the rgb values of the image.
+	 *
+	 * @param image          the image
+	 * @param alphaThreshold pixels with an alpha value lower or equal to the
+	 *                       threshold are replaced. Negative values disable the
+	 *                       replacement. Only applies to images with an alpha
+	 *                       channel
+	 * @param replacementRgb the rgb value of replaced pixels
+	 * @param rgb            the array of at least width * height length the packed
+	 *                       0xRRGGBB values are written to
+	 */
+	static void extractRgb(BufferedImage image, int alphaThreshold, int replacementRgb, int[] rgb) {
+		extract(image, alphaThreshold, replacementRgb, rgb, false, false);
+	}
+
+	/**
+	 * Extract the luma values of the image. The luma is computed as
+	 * <code>0.299 r + 0.587 g + 0.114 b</code> identical to
+	 * {@link FastPixel#getLuma(int, int)}.
+	 *
+	 * @param image          the image
+	 * @param alphaThreshold pixels with an alpha value lower or equal to the
+	 *                       threshold are replaced. Negative values disable the
+	 *                       replacement
+	 * @param replacementRgb the rgb value of replaced pixels
+	 * @param luma           the array of at least width * height length the luma
+	 *                       values are written to
+	 */
+	static void extractLuma(BufferedImage image, int alphaThreshold, int replacementRgb, int[] luma) {
+		extract(image, alphaThreshold, replacementRgb, luma, true, false);
+	}
+
+	/**
+	 * Extract the luma values of an image whose gray pixels already hold luma
+	 * values, e.g. an image filtered by
+	 * {@link dev.brachtendorf.jimagehash.hashAlgorithms.filter.FilterChain#filterLuma(BufferedImage, java.util.List)}.
+	 * Pixels with identical red, green and blue values are mapped to this value.
+	 * The weighted sum of the channels would truncate 65 of these gray values to
+	 * the next smaller value. All other pixels are converted identical to
+	 * {@link #extractLuma(BufferedImage, int, int, int[])}.
+	 *
+	 * @param image          the image
+	 * @param alphaThreshold pixels with an alpha value lower or equal to the
+	 *                       threshold are replaced. Negative values disable the
+	 *                       replacement
+	 * @param replacementRgb the rgb value of replaced pixels
+	 * @param luma           the array of at least width * height length the luma
+	 *                       values are written to
+	 */
+	static void extractGrayLuma(BufferedImage image, int alphaThreshold, int replacementRgb, int[] luma) {
+		extract(image, alphaThreshold, replacementRgb, luma, true, true);
+	}
+
+	/**
+	 * @param luma      if true each row is converted to luma values while it is
+	 *                  still cached
+	 * @param exactGray if true gray pixels are mapped to their channel value
+	 */
+	private static void extract(BufferedImage image, int alphaThreshold, int replacementRgb, int[] rgb,
+			boolean luma, boolean exactGray) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		WritableRaster raster = image.getRaster();
+		SampleModel sm = raster.getSampleModel();
+		int type = image.getType();
+
+		if ((type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB
+				|| type == BufferedImage.TYPE_INT_BGR) && sm instanceof SinglePixelPackedSampleModel
+				&& raster.getDataBuffer() instanceof DataBufferInt) {
+			int[] data = ((DataBufferInt) raster.getDataBuffer()).getData();
+			int stride = ((SinglePixelPackedSampleModel) sm).getScanlineStride();
+			int offset = raster.getDataBuffer().getOffset() - raster.getSampleModelTranslateY() * stride
+					- raster.getSampleModelTranslateX();
+			boolean replace = type == BufferedImage.TYPE_INT_ARGB && alphaThreshold >= 0;
+			boolean bgr = type == BufferedImage.TYPE_INT_BGR;
+
+			int i = 0;
+			for (int y = 0; y < height; y++) {
+				int index = offset + y * stride;
+				for (int x = 0; x < width; x++, i++) {
+					int value = data[index + x];
+					if (replace && (value >>> 24) <= alphaThreshold) {
+						rgb[i] = replacementRgb;
+					} else if (bgr) {
+						rgb[i] = (value & 0xFF) << 16 | (value & 0xFF00) | (value >> 16) & 0xFF;
+					} else {
+						rgb[i] = value & 0xFFFFFF;
+					}
+				}
+				if (luma) {
+					toLuma(rgb, i - width, width, exactGray);
+				}
+			}
+		} else if ((type == BufferedImage.TYPE_3BYTE_BGR || type == BufferedImage.TYPE_4BYTE_ABGR)
+				&& sm instanceof ComponentSampleModel && raster.getDataBuffer() instanceof DataBufferByte) {
+			ComponentSampleModel csm = (ComponentSampleModel) sm;
+			byte[] data = ((DataBufferByte) raster.getDataBuffer()).getData();
+			int stride = csm.getScanlineStride();
+			int pixelStride = csm.getPixelStride();
+			int offset = raster.getDataBuffer().getOffset() - raster.getSampleModelTranslateY() * stride
+					- raster.getSampleModelTranslateX() * pixelStride;
+			int[] bands = csm.getBandOffsets();
+			int r = bands[0];
+			int g = bands[1];
+			int b = bands[2];
+			int a = bands.length > 3 && alphaThreshold >= 0 ? bands[3] : -1;
+
+			int i = 0;
+			for (int y = 0; y < height; y++) {
+				int index = offset + y * stride;
+				for (int x = 0; x < width; x++, i++, index += pixelStride) {
+					if (a >= 0 && (data[index + a] & 0xFF) <= alphaThreshold) {
+						rgb[i] = replacementRgb;
+					} else {
+						rgb[i] = (data[index + r] & 0xFF) << 16 | (data[index + g] & 0xFF) << 8
+								| (data[index + b] & 0xFF);
+					}
+				}
+				if (luma) {
+					toLuma(rgb, i - width, width, exactGray);
+				}
+			}
+		} else {
+			image.getRGB(0, 0, width, height, rgb, 0, width);
+			boolean replace = image.getColorModel().hasAlpha() && alphaThreshold >= 0;
+			for (int i = 0; i < width * height; i++) {
+				int value = rgb[i];
+				rgb[i] = replace && (value >>> 24) <= alphaThreshold ? replacementRgb : value & 0xFFFFFF;
+			}
+			if (luma) {
+				toLuma(rgb, 0, width * height, exactGray);
+			}
+		}
+	}
+
+	/**
+	 * Convert packed rgb values to luma values in place.
+	 *
+	 * @param values    the packed 0xRRGGBB values
+	 * @param offset    the index of the first value to convert
+	 * @param length    the number of values to convert
+	 * @param exactGray if true gray values are mapped to their channel value
+	 */
+	static void toLuma(int[] values, int offset, int length, boolean exactGray) {
+		for (int i = offset; i < offset + length; i++) {
+			int value = values[i];
+			if (exactGray && value == (value & 0xFF) * 0x010101) {
+				values[i] = value & 0xFF;
+				continue;
+			}
+			int luma = (int) (RED_WEIGHT[(value >> 16) & 0xFF] + GREEN_WEIGHT[(value >> 8) & 0xFF]
+					+ BLUE_WEIGHT[value & 0xFF]);
+			values[i] = luma > 255 ? 255 : luma;
+		}
+	}
+}
@@ -0,0 +1,265 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+/**
+ * Assignment of the pixels of a rescaled image to concentric rings around the
+ * center of the image as used by rotational invariant hashing algorithms.
+ *
+ * <p>
+ * The layout of the partition function of the library algorithms only depends
+ * on the resolution of the rescaled image and is computed once and shared by
+ * all algorithms of the same type and resolution. Subclasses overriding the
+ * partition function receive a layout of their own, as the function may depend
+ * on the state of the instance.
+ * Pixels are grouped by bucket into slices of a single primitive array, the
+ * slice of bucket <code>b</code> starts at {@link #getOffset(int)} and holds
+ * {@link #getSize(int)} values. Within a slice pixels are ordered by x and y
+ * index, identical to iterating the image column by column.
+ *
+ * <p>
+ * Instances are immutable and thread safe.
+ *
+ * @author Kilian
+ * @since 1.1.0
+ */
+class RingPartition {
+
+	/**
+	 * Maps a pixel to the bucket it falls into. Buckets equal or greater than the
+	 * number of buckets are discarded.
+	 */
+	@FunctionalInterface
+	interface Partitioner {
+		int computePartition(double x, double y);
+	}
+
+	private static final Map<Key, RingPartition> LAYOUTS = new ConcurrentHashMap<>();
+
+	/**
+	 * The class declaring the computePartition(double, double) method used by an
+	 * algorithm, or null if none is declared
+	 */
+	private static final ClassValue<Class<?>> PARTITION_DECLARATION = new ClassValue<>() {
+		@Override
+		protected Class<?> computeValue(Class<?> type) {
+			for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+				try {
+					c.getDeclaredMethod("computePartition", double.class, double.class);
+					return c;
+				} catch (NoSuchMethodException e) {
+					// Check the super class
+				}
+			}
+			return null;
+		}
+	};
+
+	/** Width of the rescaled image */
+	private final int width;
+
+	/** Height of the rescaled image */
+	private final int height;
+
+	/** Bucket of each pixel indexed by x * height + y. -1 if discarded */
+	private final int[] bucketOf;
+
+	/** Index into the slice array of each pixel. -1 if discarded */
+	private final int[] slotOf;
+
+	/**
+	 * Start of each bucket in the slice array. The last entry holds the total
+	 * number of mapped pixels
+	 */
+	private final int[] offsets;
+
+	private RingPartition(int width, int height, int buckets, Partitioner partitioner) {
+		this.width = width;
+		this.height = height;
+		bucketOf = new int[width * height];
+		slotOf = new int[width * height];
+		offsets = new int[buckets + 1];
+
+		int[] count = new int[buckets];
+		int pixel = 0;
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++, pixel++) {
+				int bucket = partitioner.computePartition(x, y);
+				if (bucket < 0 || bucket >= buckets) {
+					bucketOf[pixel] = -1;
+				} else {
+					bucketOf[pixel] = bucket;
+					count[bucket]++;
+				}
+			}
+		}
+		for (int i = 0; i < buckets; i++) {
+			offsets[i + 1] = offsets[i] + count[i];
+		}
+
+		int[] cursor = new int[buckets];
+		for (pixel = 0; pixel < bucketOf.length; pixel++) {
+			int bucket = bucketOf[pixel];
+			slotOf[pixel] = bucket < 0 ? -1 : offsets[bucket] + cursor[bucket]++;
+		}
+	}
+
+	/**
+	 * Get the ring partition of an algorithm. If the algorithm uses the partition
+	 * function declared by the base class the layout is shared with all
+	 * algorithms of the base class and resolution. Otherwise the layout is
+	 * computed for the algorithm alone and not cached, the caller is expected to
+	 * keep it. Only library classes are used as keys of the shared layouts.
+	 *
+	 * @param algorithm   the algorithm requesting the layout
+	 * @param base        the library class declaring the default partition
+	 *                    function
+	 * @param width       the width of the rescaled image
+	 * @param height      the height of the rescaled image
+	 * @param buckets     the number of buckets
+	 * @param partitioner maps pixels to buckets
+	 * @return the layout of the algorithm
+	 */
+	static RingPartition of(HashingAlgorithm algorithm, Class<? extends HashingAlgorithm> base, int width,
+			int height, int buckets, Partitioner partitioner) {
+		if (PARTITION_DECLARATION.get(algorithm.getClass()) != base) {
+			return new RingPartition(width, height, buckets, partitioner);
+		}
+		return of(base, width, height, buckets, partitioner);
+	}
+
+	/**
+	 * Get the ring partition of the given resolution. The partitioner is only
+	 * invoked the first time a layout is requested for the owner and resolution
+	 * and therefore must not depend on any other state.
+	 *
+	 * @param owner       the class identifying the partition function
+	 * @param width       the width of the rescaled image
+	 * @param height      the height of the rescaled image
+	 * @param buckets     the number of buckets
+	 * @param partitioner maps pixels to buckets
+	 * @return the shared layout
+	 */
+	static RingPartition of(Class<?> owner, int width, int height, int buckets, Partitioner partitioner) {
+		return LAYOUTS.computeIfAbsent(new Key(owner, width, height, buckets),
+				k -> new RingPartition(width, height, buckets, partitioner));
+	}
+
+	/**
+	 * @return the number of buckets
+	 */
+	int getBuckets() {
+		return offsets.length - 1;
+	}
+
+	/**
+	 * @param bucket the bucket index
+	 * @return the index of the first value of the bucket in the slice array
+	 */
+	int getOffset(int bucket) {
+		return offsets[bucket];
+	}
+
+	/**
+	 * @param bucket the bucket index
+	 * @return the number of pixels mapped to the bucket
+	 */
+	int getSize(int bucket) {
+		return offsets[bucket + 1] - offsets[bucket];
+	}
+
+	/**
+	 * @return the number of pixels mapped to any bucket. The required length of
+	 *         the slice array
+	 */
+	int getPixelCount() {
+		return offsets[offsets.length - 1];
+	}
+
+	/**
+	 * Copy the luma values of all mapped pixels into their bucket slices in a
+	 * single pass over the image.
+	 *
+	 * @param luma   the row major luma values of the rescaled image
+	 * @param values the slice array of at least {@link #getPixelCount()} length
+	 */
+	void extractLuma(int[] luma, int[] values) {
+		int pixel = 0;
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++, pixel++) {
+				int slot = slotOf[pixel];
+				if (slot >= 0) {
+					values[slot] = luma[y * width + x];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Copy the luma values of all mapped pixels into their bucket slices in
+	 * ascending order. The values are sorted with a counting sort, therefore in
+	 * linear time.
+	 *
+	 * @param luma       the row major luma values of the rescaled image
+	 * @param histograms scratch array of at least 256 * {@link #getBuckets()}
+	 *                   length
+	 * @param values     the slice array of at least {@link #getPixelCount()}
+	 *                   length
+	 */
+	void extractSortedLuma(int[] luma, int[] histograms, double[] values) {
+		int buckets = getBuckets();
+		Arrays.fill(histograms, 0, buckets * 256, 0);
+		int pixel = 0;
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++, pixel++) {
+				int bucket = bucketOf[pixel];
+				if (bucket >= 0) {
+					histograms[bucket * 256 + luma[y * width + x]]++;
+				}
+			}
+		}
+
+		int index = 0;
+		for (int bucket = 0; bucket < buckets; bucket++) {
+			for (int lum = 0; lum < 256; lum++) {
+				for (int c = histograms[bucket * 256 + lum]; c > 0; c--) {
+					values[index++] = lum;
+				}
+			}
+		}
+	}
+
+	private static final class Key {
+		private final Class<?> owner;
+		private final int width;
+		private final int height;
+		private final int buckets;
+
+		Key(Class<?> owner, int width, int height, int buckets) {
+			this.owner = owner;
+			this.width = width;
+			this.height = height;
+			this.buckets = buckets;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(owner, width, height, buckets);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return owner == other.owner && width == other.width && height == other.height
+					&& buckets == other.buckets;
+		}
+	}
+}
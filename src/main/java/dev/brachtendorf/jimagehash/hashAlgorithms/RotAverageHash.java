@@ -1,11 +1,11 @@
 package dev.brachtendorf.jimagehash.hashAlgorithms;
 
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
 import java.math.BigInteger;
 import java.util.Objects;
 
 import dev.brachtendorf.MathUtil;
-import dev.brachtendorf.graphics.FastPixel;
 
 /**
  * 
@@ -23,11 +23,6 @@ import dev.brachtendorf.graphics.FastPixel;
  * gets rather large when higher bit resolutions are required which affects the
  * performance for high bit keys lengths.
  * 
- * <p>
- * Note: Unlike the other hashing algorithms this algorithm is only thread safe
- * after it successfully hashed it's first image. If concurrent usage is
- * required perform a single hash pass on an arbitrary image.
- * 
  * @author Kilian
  *
  */
@@ -35,23 +30,28 @@ public class RotAverageHash extends HashingAlgorithm {
 
 	private static final long serialVersionUID = 128391293L;
 
+	/** Reusable luma planes and slices of each thread */
+	private static final WorkspaceCache<Workspace> WORKSPACES = new WorkspaceCache<>(Workspace::new);
+
 	/** Width of the rescaled image */
-	private int width;
+	private final int width;
 
 	/** Height of the rescaled image */
-	private int height;
+	private final int height;
 
 	/** X Origin the pixels will be rotated around */
-	private double centerX;
+	private final double centerX;
 
 	/** Y Origin the pixels will be rotated around */
-	private double centerY;
+	private final double centerY;
 
 	/**
-	 * The number of pixels in each bucket used to compute the average. Since this
-	 * value stays consistent due to resizing it can be cached.
+	 * Mapping of pixels to buckets. Since this value stays consistent due to
+	 * resizing it is shared by all instances of the same resolution unless
+	 * {@link #computePartition(double, double)} is overridden. Looked up lazily
+	 * as overridden partition functions may depend on subclass state.
 	 */
-	private int[] count = null;
+	private transient volatile RingPartition partition;
 
 	/**
 	 * @param bitResolution The bit resolution specifies the final length of the
@@ -84,42 +84,23 @@ public class RotAverageHash extends HashingAlgorithm {
 
 	@Override
 	protected BigInteger hash(BufferedImage image, HashBuilder hash) {
-		FastPixel fp = createPixelAccessor(image, width, height);
+		Workspace workspace = WORKSPACES.get(width, height);
+		createLumaPlane1D(image, width, height, workspace.luma);
 
 		// We need 2 more bucket since we compare to n-1 and no values are mapped to 0
 		// bucket
+		RingPartition partition = getPartition();
+		int[] values = workspace.values;
+		partition.extractLuma(workspace.luma, values);
 
 		// Average luminosity of the bucket
 		double hashArr[] = new double[bitResolution + 2];
 
-		boolean initCount = count == null;
-
-		if (initCount) {
-			count = new int[hashArr.length];
-		}
-
-		for (int x = 0; x < width; x++) {
-			for (int y = 0; y < height; y++) {
-				int bucket = computePartition(x, y);
-
-				if (bucket >= hashArr.length) {
-					// Everything beyond this column will be outside as well.
-					continue;
-				}
-
-				if (initCount) {
-					count[bucket]++;
-					hashArr[bucket] += fp.getLuma(x, y);
-				} else {
-					hashArr[bucket] += (fp.getLuma(x, y) / (double) count[bucket]);
-				}
-			}
-		}
-
-		// During first pass compute the average separately
-		if (initCount) {
-			for (int i = 0; i < hashArr.length; i++) {
-				hashArr[i] /= count[i];
+		for (int bucket = 0; bucket < hashArr.length; bucket++) {
+			int offset = partition.getOffset(bucket);
+			int count = partition.getSize(bucket);
+			for (int i = offset; i < offset + count; i++) {
+				hashArr[bucket] += (values[i] / (double) count);
 			}
 		}
 
@@ -135,6 +116,15 @@ public class RotAverageHash extends HashingAlgorithm {
 		return hash.toBigInteger();
 	}
 
+	private RingPartition getPartition() {
+		RingPartition current = partition;
+		if (current == null) {
+			current = RingPartition.of(this, RotAverageHash.class, width, height, bitResolution + 2, this::computePartition);
+			partition = current;
+		}
+		return current;
+	}
+
 	/**
 	 * Compute the ring partition this specific pixel will fall into.
 	 * 
@@ -150,6 +140,16 @@ public class RotAverageHash extends HashingAlgorithm {
 		return (int) Math.round(Math.sqrt(originalX * originalX + originalY * originalY));
 	}
 
+	@Override
+	protected Dimension getScaledImageDimension() {
+		return new Dimension(width, height);
+	}
+
+	@Override
+	protected boolean isLumaOnly() {
+		return true;
+	}
+
 	@Override
 	protected int precomputeAlgoId() {
 		// @since 1.0.0 force incompatible hashes due to new calculation method.
@@ -158,4 +158,16 @@ public class RotAverageHash extends HashingAlgorithm {
 		// These variables are enough to uniquely identify the hashing algorithm
 		return Objects.hash("com.github.kilianB.hashAlgorithms."+getClass().getSimpleName(), width, height, doubleEqualsOffset);
 	}
+
+	private static class Workspace {
+		/** Luma values of the rescaled image in row major order */
+		private final int[] luma;
+		/** Luma values grouped by bucket */
+		private final int[] values;
+
+		Workspace(int width, int height) {
+			luma = new int[width * height];
+			values = new int[width * height];
+		}
+	}
 }
@@ -1,16 +1,12 @@
 package dev.brachtendorf.jimagehash.hashAlgorithms;
 
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
 import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.Objects;
 
 import org.jtransforms.dct.DoubleDCT_1D;
 
-import dev.brachtendorf.graphics.FastPixel;
-
 /**
  * A rotational invariant hashing algorithm which is mostly immune to rotation
  * attacks. The hash wraps the pixels around a circle and computes a discrete
@@ -27,26 +23,36 @@ public class RotPHash extends HashingAlgorithm {
 
 	private static final long serialVersionUID = -7498910506857652806L;
 
+	/** Reusable luma planes, histograms, value arrays and dct plans of each thread */
+	private static final WorkspaceCache<Workspace> WORKSPACES = new WorkspaceCache<>(Workspace::new);
+
 	/** If parts of the key shall be truncated */
 	private final boolean truncateKey;
 
 	/** Width of the rescaled image */
-	private int width;
+	private final int width;
 
 	/** Height of the rescaled image */
-	private int height;
+	private final int height;
 
 	/** X Origin the pixels will be rotated around */
-	private double centerX;
+	private final double centerX;
 
 	/** Y Origin the pixels will be rotated around */
-	private double centerY;
+	private final double centerY;
 
 	/** The width of each circle */
-	private double widthPerSection;
+	private final double widthPerSection;
 
 	/** The number of circles the pixels will be mapped to */
-	private int buckets;
+	private final int buckets;
+
+	/**
+	 * Mapping of pixels to buckets. Only depends on the resolution unless
+	 * {@link #computePartition(double, double)} is overridden. Looked up lazily as
+	 * overridden partition functions may depend on subclass state.
+	 */
+	private transient volatile RingPartition partition;
 
 	/**
 	 * Create a Rotational Invariant Perceptive Hasher
@@ -97,29 +103,18 @@ public class RotPHash extends HashingAlgorithm {
 	@Override
 	protected BigInteger hash(BufferedImage image, HashBuilder hash) {
 
-		// 0. Preprocessing. Extract Luminosity
-		// Fast pixel access. Order 10x faster than jdk internal
-		FastPixel fp = createPixelAccessor(image, width, height);
+		RingPartition partition = getPartition();
+		Workspace workspace = WORKSPACES.get(width, height);
+		workspace.prepare(partition);
 
-		@SuppressWarnings("unchecked")
-		List<Integer>[] values = new List[buckets];
-		for (int i = 0; i < buckets; i++) {
-			values[i] = new ArrayList<Integer>();
-		}
+		// 0. Preprocessing. Extract Luminosity
+		createLumaPlane1D(image, width, height, workspace.luma);
 
 		// 1. Map each pixel into a circle bucket. (Currently we ignore parts of the
-		// image if they do not fit inside a cropped circle)
-		for (int x = 0; x < width; x++) {
-			for (int y = 0; y < height; y++) {
-				// Wrap pixel around center. Return the bucket whose center is the closest to
-				// this pixel
-				int bucket = computePartition(x, y);
-				if (bucket >= buckets) {
-					continue;
-				}
-				values[bucket].add(fp.getLuma(x, y));
-			}
-		}
+		// image if they do not fit inside a cropped circle). Sort lum values to get a
+		// dct independent of initial rotation
+		double[] arr = workspace.values;
+		partition.extractSortedLuma(workspace.luma, workspace.histograms, arr);
 
 		// 2. Construct the final hash
 
@@ -128,22 +123,15 @@ public class RotPHash extends HashingAlgorithm {
 
 		int length = 0;
 		for (int i = 0; i < buckets; i++) {
-			// Sort lum values to get a dct independent of initial rotation
-			Collections.sort(values[i]);
-
-			double[] arr = new double[values[i].size()];
-			for (int j = 0; j < arr.length; j++) {
-				arr[j] = values[i].get(j);
-			}
-
 			// Compute dct of each bucket and calculate the average
-			DoubleDCT_1D dct = new DoubleDCT_1D(arr.length);
-			dct.forward(arr, false);
+			int offset = partition.getOffset(i);
+			workspace.dcts[i].forward(arr, offset, false);
 
+			int size = partition.getSize(i);
 			double avg = 0;
-			int count = arr.length / 4 - 1;
+			int count = size / 4 - 1;
 			for (int j = 2; j < count; j++) {
-				avg += (arr[j] / (count - 2));
+				avg += (arr[offset + j] / (count - 2));
 			}
 
 			/*
@@ -157,7 +145,7 @@ public class RotPHash extends HashingAlgorithm {
 				if (this.truncateKey && length == bitResolution)
 					break;
 
-				if (arr[j] >= avg) {
+				if (arr[offset + j] >= avg) {
 					hash.prependZero();
 				} else {
 					hash.prependOne();
@@ -168,6 +156,15 @@ public class RotPHash extends HashingAlgorithm {
 		return hash.toBigInteger();
 	}
 
+	private RingPartition getPartition() {
+		RingPartition current = partition;
+		if (current == null) {
+			current = RingPartition.of(this, RotPHash.class, width, height, buckets, this::computePartition);
+			partition = current;
+		}
+		return current;
+	}
+
 	/**
 	 * Compute the ring partition this specific pixel will fall into.
 	 * 
@@ -199,10 +196,49 @@ public class RotPHash extends HashingAlgorithm {
 //		return keyResolution;
 //	}
 
+	@Override
+	protected Dimension getScaledImageDimension() {
+		return new Dimension(width, height);
+	}
+
+	@Override
+	protected boolean isLumaOnly() {
+		return true;
+	}
+
 	@Override
 	protected int precomputeAlgoId() {
 		return Objects.hash("com.github.kilianB.hashAlgorithms."+getClass().getSimpleName(), this.width, this.height, this.truncateKey);
 
 	}
 
+	/**
+	 * Thread confined buffers of a single hash computation
+	 */
+	private static class Workspace {
+		/** Luma values of the rescaled image in row major order */
+		private final int[] luma;
+		private RingPartition partition;
+		private int[] histograms;
+		private double[] values;
+		private DoubleDCT_1D[] dcts;
+
+		Workspace(int width, int height) {
+			luma = new int[width * height];
+		}
+
+		void prepare(RingPartition partition) {
+			if (this.partition == partition) {
+				return;
+			}
+			int buckets = partition.getBuckets();
+			histograms = new int[buckets * 256];
+			values = new double[partition.getPixelCount()];
+			dcts = new DoubleDCT_1D[buckets];
+			for (int i = 0; i < buckets; i++) {
+				dcts[i] = new DoubleDCT_1D(partition.getSize(i));
+			}
+			this.partition = partition;
+		}
+	}
 }
@@ -0,0 +1,112 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import dev.brachtendorf.graphics.FastPixel;
+
+/**
+ * Rescaled pixel accessors and luma planes of the images hashed during a single
+ * {@link MultiHasher} invocation. Algorithms requesting the same source image,
+ * target dimension, scaling method, opaque handling and luma conversion
+ * receive the same instances.
+ *
+ * <p>
+ * This class is not thread safe and only used by the thread it was created on.
+ *
+ * @author Kilian
+ * @since 1.1.0
+ */
+class ScaledImageCache {
+
+	private final Map<Key, Entry> entries = new HashMap<>();
+
+	FastPixel getPixelAccessor(HashingAlgorithm algo, BufferedImage image, int width, int height) {
+		Entry entry = getEntry(algo, image, width, height);
+		if (entry.pixelAccessor == null) {
+			entry.pixelAccessor = algo.createPixelAccessor(image, entry.scaled);
+		}
+		return entry.pixelAccessor;
+	}
+
+	int[][] getLuma(HashingAlgorithm algo, BufferedImage image, int width, int height) {
+		Entry entry = getEntry(algo, image, width, height);
+		if (entry.luma == null) {
+			entry.luma = HashingAlgorithm.toColumns(getLuma1D(algo, image, width, height), width, height);
+		}
+		return entry.luma;
+	}
+
+	int[] getLuma1D(HashingAlgorithm algo, BufferedImage image, int width, int height) {
+		Entry entry = getEntry(algo, image, width, height);
+		if (entry.luma1D == null) {
+			entry.luma1D = algo.extractLuma(image, entry.scaled);
+		}
+		return entry.luma1D;
+	}
+
+	private Entry getEntry(HashingAlgorithm algo, BufferedImage image, int width, int height) {
+		int threshold = algo.opaqueReplacementThreshold;
+		// The replacement color is only relevant if opaque handling is enabled
+		Color replacementColor = threshold >= 0 ? algo.opaqueReplacementColor : null;
+		Key key = new Key(image, width, height, algo.isAreaAveragingScaling(), threshold < 0 ? -1 : threshold,
+				replacementColor, algo.hashesFilteredLuma());
+		return entries.computeIfAbsent(key, k -> new Entry(algo.scaleReadOnly(image, width, height)));
+	}
+
+	private static class Entry {
+		private final BufferedImage scaled;
+		private FastPixel pixelAccessor;
+		/** Luma values indexed [x][y] */
+		private int[][] luma;
+		/** Luma values in row major order */
+		private int[] luma1D;
+
+		Entry(BufferedImage scaled) {
+			this.scaled = scaled;
+		}
+	}
+
+	private static class Key {
+		/** Compared by identity */
+		private final BufferedImage image;
+		private final int width;
+		private final int height;
+		private final boolean areaAveraging;
+		private final int opaqueThreshold;
+		private final Color opaqueColor;
+		private final boolean filteredLuma;
+
+		Key(BufferedImage image, int width, int height, boolean areaAveraging, int opaqueThreshold,
+				Color opaqueColor, boolean filteredLuma) {
+			this.image = image;
+			this.width = width;
+			this.height = height;
+			this.areaAveraging = areaAveraging;
+			this.opaqueThreshold = opaqueThreshold;
+			this.opaqueColor = opaqueColor;
+			this.filteredLuma = filteredLuma;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(System.identityHashCode(image), width, height, areaAveraging, opaqueThreshold,
+					opaqueColor, filteredLuma);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return image == other.image && width == other.width && height == other.height
+					&& areaAveraging == other.areaAveraging && opaqueThreshold == other.opaqueThreshold && Objects.equals(opaqueColor, other.opaqueColor)
+					&& filteredLuma == other.filteredLuma;
+		}
+	}
+}
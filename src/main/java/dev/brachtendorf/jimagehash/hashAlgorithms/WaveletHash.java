@@ -1,10 +1,10 @@
 package dev.brachtendorf.jimagehash.hashAlgorithms;
 
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
 import java.math.BigInteger;
 import java.util.Objects;
 
-import dev.brachtendorf.graphics.FastPixel;
 
 /**
  * Calculate a hash based on iterative application of a haar wavelet on the
@@ -20,6 +20,9 @@ public class WaveletHash extends HashingAlgorithm {
 
 	private static final long serialVersionUID = -2259243765925949874L;
 
+	/** Reusable transformation buffers of each thread */
+	private static final WorkspaceCache<Workspace> WORKSPACES = new WorkspaceCache<>(Workspace::new);
+
 	/**
 	 * The width of the rescaled image
 	 */
@@ -61,14 +64,23 @@ public class WaveletHash extends HashingAlgorithm {
 	@Override
 	protected BigInteger hash(BufferedImage image, HashBuilder hashBuilder) {
 
-		// Rescale
-		FastPixel fp = createPixelAccessor(image, width, height);
+		Workspace workspace = WORKSPACES.get(width, height);
 
-		int[][] luma = fp.getLuma();
+		// Rescale
+		int[] lum = workspace.lum;
+		createLumaPlane1D(image, width, height, lum);
+
+		double[][] ds = workspace.ds;
+		for (int x = 0; x < width; x++) {
+			double[] column = ds[x];
+			for (int y = 0; y < height; y++) {
+				column[y] = lum[y * width + x];
+			}
+		}
 
 		// Compute wavelet
 
-		double[][] transformed = doHaar2DFWTransform(luma, cycles);
+		double[][] transformed = doHaar2DFWTransform(ds, cycles, workspace.tempds);
 
 		// System.out.println(ArrayUtil.deepToStringFormatted(transformed));
 
@@ -103,14 +115,39 @@ public class WaveletHash extends HashingAlgorithm {
 	public static double[][] doHaar2DFWTransform(int[][] pixels, int cycles) {
 		int w = pixels[0].length;
 		int h = pixels.length;
+		return doHaar2DFWTransform(pixels, cycles, new double[h][w], new double[h][w]);
+	}
 
-		double[][] ds = new double[h][w];
-		double[][] tempds = new double[h][w];
+	/**
+	 * Apply the haar wavelet transform using the supplied buffers
+	 * 
+	 * @param pixels the values to transform
+	 * @param cycles the number of times to apply the transformation
+	 * @param ds     buffer with the dimension of pixels receiving the result
+	 * @param tempds temporary buffer with the dimension of pixels
+	 * @return ds
+	 */
+	private static double[][] doHaar2DFWTransform(int[][] pixels, int cycles, double[][] ds, double[][] tempds) {
 		for (int i = 0; i < pixels.length; i++) {
 			for (int j = 0; j < pixels[0].length; j++) {
 				ds[i][j] = pixels[i][j];
 			}
 		}
+		return doHaar2DFWTransform(ds, cycles, tempds);
+	}
+
+	/**
+	 * Apply the haar wavelet transform in place
+	 * 
+	 * @param ds     the values to transform receiving the result
+	 * @param cycles the number of times to apply the transformation
+	 * @param tempds temporary buffer with the dimension of ds
+	 * @return ds
+	 */
+	private static double[][] doHaar2DFWTransform(double[][] ds, int cycles, double[][] tempds) {
+		int w = ds[0].length;
+		int h = ds.length;
+
 		for (int i = 0; i < cycles; i++) {
 			w /= 2;
 			for (int j = 0; j < h; j++) {
@@ -162,6 +199,16 @@ public class WaveletHash extends HashingAlgorithm {
 //		return (int) MathUtil.log(hw, 2);
 //	}
 
+	@Override
+	protected Dimension getScaledImageDimension() {
+		return new Dimension(width, height);
+	}
+
+	@Override
+	protected boolean isLumaOnly() {
+		return true;
+	}
+
 	@Override
 	protected int precomputeAlgoId() {
 		return Objects.hash(width, height, cycles);
@@ -172,4 +219,20 @@ public class WaveletHash extends HashingAlgorithm {
 		return "WaveletHash [" + bitResolution + "," + cycles + "]";
 	}
 
+	/**
+	 * Thread confined buffers of a single hash computation
+	 */
+	private static class Workspace {
+		/** Luma values of the rescaled image in row major order */
+		private final int[] lum;
+		private final double[][] ds;
+		private final double[][] tempds;
+
+		Workspace(int width, int height) {
+			lum = new int[width * height];
+			// The transformation treats the first index as rows
+			ds = new double[width][height];
+			tempds = new double[width][height];
+		}
+	}
 }
@@ -0,0 +1,97 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Thread confined cache of scratch buffers used while computing hashes.
+ *
+ * <p>
+ * Hashing algorithms frequently require temporary arrays whose size only
+ * depends on the dimension of the rescaled image. Instead of allocating them
+ * for every image each thread keeps one workspace per dimension which is reused
+ * by all subsequent hash operations on that thread. Since the workspace is only
+ * visible to the current thread no synchronization is required and hashing
+ * algorithms stay thread safe.
+ *
+ * <p>
+ * At most {@link #MAX_WORKSPACES} workspaces are retained per thread. If
+ * further dimensions are requested the least recently used workspace is
+ * evicted. Workspaces are retained until the thread terminates, their size is
+ * limited by the dimensions of the rescaled images, not the source images.
+ *
+ * <p>
+ * Workspaces must not escape the hash computation they were requested for.
+ *
+ * @author Kilian
+ * @param <T> the type of the workspace
+ * @since 1.1.0
+ */
+class WorkspaceCache<T> {
+
+	/**
+	 * Creates a new workspace for the given dimension
+	 *
+	 * @param <T> the type of the workspace
+	 */
+	@FunctionalInterface
+	interface Factory<T> {
+		T create(int width, int height);
+	}
+
+	/** Maximum number of workspaces retained per thread */
+	static final int MAX_WORKSPACES = 4;
+
+	private final Factory<T> factory;
+
+	private final ThreadLocal<List<Entry<T>>> workspaces = ThreadLocal.withInitial(ArrayList::new);
+
+	/**
+	 * @param factory used to create a workspace the first time a dimension is
+	 *                requested on a thread
+	 */
+	WorkspaceCache(Factory<T> factory) {
+		this.factory = factory;
+	}
+
+	/**
+	 * Get the workspace of the current thread for the given dimension
+	 *
+	 * @param width  the width of the workspace
+	 * @param height the height of the workspace
+	 * @return a workspace only used by the current thread
+	 */
+	T get(int width, int height) {
+		List<Entry<T>> entries = workspaces.get();
+		// Usually only one or two dimensions are in use. A linear scan does not
+		// allocate opposed to boxed map keys. Entries are ordered by their last use.
+		for (int i = 0; i < entries.size(); i++) {
+			Entry<T> entry = entries.get(i);
+			if (entry.width == width && entry.height == height) {
+				if (i > 0) {
+					entries.remove(i);
+					entries.add(0, entry);
+				}
+				return entry.workspace;
+			}
+		}
+		if (entries.size() == MAX_WORKSPACES) {
+			entries.remove(MAX_WORKSPACES - 1);
+		}
+		T workspace = factory.create(width, height);
+		entries.add(0, new Entry<>(width, height, workspace));
+		return workspace;
+	}
+
+	private static class Entry<T> {
+		private final int width;
+		private final int height;
+		private final T workspace;
+
+		Entry(int width, int height, T workspace) {
+			this.width = width;
+			this.height = height;
+			this.workspace = workspace;
+		}
+	}
+}
@@ -0,0 +1,321 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms.experimental;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import dev.brachtendorf.MathUtil;
+import dev.brachtendorf.Require;
+
+/**
+ * Histograms of oriented gradients of a luma plane.
+ *
+ * <p>
+ * The horizontal and vertical gradients are central differences of 8 bit luma
+ * values and therefore limited to [-255 - 255]. Instead of computing the
+ * magnitude and orientation of every pixel with <code>sqrt</code> and
+ * <code>atan</code>, the gradients are quantized into an index of a lookup
+ * table holding the bins and the weighted magnitudes each gradient contributes
+ * to. The tables are computed once per number of bins and shared between all
+ * instances.
+ *
+ * <p>
+ * The gradients are computed once during construction. Histograms of different
+ * cell sizes and bin counts can be derived from the same instance, either
+ * directly via {@link #cellHistograms(int, int, int)} or from an
+ * {@link IntegralHistogram} which sums arbitrary rectangles with 4 lookups per
+ * bin.
+ *
+ * @author Kilian
+ * @since 1.1.0
+ */
+public class HogFeatures {
+
+	/** Maximum absolute value of a central difference of 8 bit values */
+	private static final int MAX_GRADIENT = 255;
+
+	/** Number of distinct vertical gradients */
+	private static final int GRADIENT_RANGE = 2 * MAX_GRADIENT + 1;
+
+	/** Orientation tables by number of bins */
+	private static final Map<Integer, OrientationTable> TABLES = new ConcurrentHashMap<>();
+
+	private final int width;
+	private final int height;
+
+	/**
+	 * Quantized gradient of each pixel indexed <code>x * height + y</code>.
+	 * Border pixels have a zero gradient
+	 */
+	private final int[] gradients;
+
+	/**
+	 * Compute the gradients of a luma plane.
+	 *
+	 * @param luma   the row major luma values in the range of [0 - 255]. The
+	 *               value of pixel (x,y) is located at index
+	 *               <code>y * width + x</code>
+	 * @param width  the width of the plane
+	 * @param height the height of the plane
+	 * @throws IllegalArgumentException if the plane does not contain width *
+	 *                                  height values
+	 */
+	public HogFeatures(int[] luma, int width, int height) {
+		if (width <= 0 || height <= 0 || luma.length != width * height) {
+			throw new IllegalArgumentException(
+					"Plane of length " + luma.length + " does not match dimension " + width + "x" + height);
+		}
+		this.width = width;
+		this.height = height;
+		this.gradients = new int[width * height];
+
+		int zero = gradientIndex(0, 0);
+		for (int x = 0; x < width; x++) {
+			int offset = x * height;
+			for (int y = 0; y < height; y++) {
+				if (x == 0 || y == 0 || x == width - 1 || y == height - 1) {
+					gradients[offset + y] = zero;
+				} else {
+					int i = y * width + x;
+					gradients[offset + y] = gradientIndex(luma[i + 1] - luma[i - 1], luma[i - width] - luma[i + width]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Map a gradient to the index of the orientation table. Opposite gradients
+	 * share the same orientation and magnitude and are mapped to the same index.
+	 *
+	 * @param h the horizontal gradient
+	 * @param v the vertical gradient
+	 * @return the index of the gradient
+	 */
+	private static int gradientIndex(int h, int v) {
+		if (h < 0 || (h == 0 && v < 0)) {
+			h = -h;
+			v = -v;
+		}
+		return h * GRADIENT_RANGE + v + MAX_GRADIENT;
+	}
+
+	/**
+	 * Compute the histogram of each cell. Each gradient contributes its magnitude
+	 * to the two closest bins of the unsigned orientation [0 - 180°]
+	 * proportionally to the distance of the orientation to the bin. The
+	 * contributions are truncated while being summed.
+	 *
+	 * <p>
+	 * Pixels beyond the last complete cell are ignored.
+	 *
+	 * @param cellWidth  the width of a cell
+	 * @param cellHeight the height of a cell
+	 * @param numBins    the number of bins per cell
+	 * @return the histograms. The bin of cell (xCell,yCell) is located at index
+	 *         <code>(xCell * yCells + yCell) * numBins + bin</code> with
+	 *         <code>yCells = height / cellHeight</code>
+	 */
+	public int[] cellHistograms(int cellWidth, int cellHeight, int numBins) {
+		Require.positiveValue(cellWidth);
+		Require.positiveValue(cellHeight);
+		OrientationTable table = table(numBins);
+
+		int xCells = width / cellWidth;
+		int yCells = height / cellHeight;
+		int[] hog = new int[xCells * yCells * numBins];
+
+		// Pixels are visited column wise, summing the contributions of each cell in
+		// the same order
+		for (int x = 0; x < xCells * cellWidth; x++) {
+			int xOffset = x / cellWidth * yCells;
+			int offset = x * height;
+			for (int y = 0; y < yCells * cellHeight; y++) {
+				int gradient = gradients[offset + y];
+				int cell = (xOffset + y / cellHeight) * numBins;
+				int bin = table.bin[gradient];
+				int next = bin == numBins - 1 ? 0 : bin + 1;
+				hog[cell + bin] += table.current[gradient];
+				hog[cell + next] += table.next[gradient];
+			}
+		}
+		return hog;
+	}
+
+	/**
+	 * Compute the integral histogram of the gradients. The integral histogram
+	 * holds the summed contributions of all pixels above and left of each pixel,
+	 * allowing the histogram of any rectangle to be derived in constant time.
+	 *
+	 * @param numBins the number of bins
+	 * @return the integral histogram
+	 */
+	public IntegralHistogram integralHistogram(int numBins) {
+		OrientationTable table = table(numBins);
+		int stride = (height + 1) * numBins;
+		double[] integral = new double[(width + 1) * stride];
+		for (int x = 0; x < width; x++) {
+			int offset = x * height;
+			int left = x * stride;
+			int out = left + stride;
+			// Running sum of the column
+			double[] column = new double[numBins];
+			for (int y = 0; y < height; y++) {
+				int gradient = gradients[offset + y];
+				int bin = table.bin[gradient];
+				column[bin] += table.current[gradient];
+				column[bin == numBins - 1 ? 0 : bin + 1] += table.next[gradient];
+				int o = (y + 1) * numBins;
+				for (int b = 0; b < numBins; b++) {
+					integral[out + o + b] = integral[left + o + b] + column[b];
+				}
+			}
+		}
+		return new IntegralHistogram(integral, width, height, numBins);
+	}
+
+	/**
+	 * @return the width of the plane
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return the height of the plane
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	private static OrientationTable table(int numBins) {
+		Require.positiveValue(numBins);
+		return TABLES.computeIfAbsent(numBins, OrientationTable::new);
+	}
+
+	/**
+	 * Summed contributions of the gradients of all pixels above and left of each
+	 * pixel. Opposed to {@link HogFeatures#cellHistograms(int, int, int)} the
+	 * contributions are not truncated.
+	 *
+	 * @author Kilian
+	 * @since 1.1.0
+	 */
+	public static class IntegralHistogram {
+
+		/** Sums indexed <code>(x * (height + 1) + y) * numBins + bin</code> */
+		private final double[] integral;
+		private final int width;
+		private final int height;
+		private final int numBins;
+
+		private IntegralHistogram(double[] integral, int width, int height, int numBins) {
+			this.integral = integral;
+			this.width = width;
+			this.height = height;
+			this.numBins = numBins;
+		}
+
+		/**
+		 * Sum the contributions to a bin of all pixels of a rectangle
+		 *
+		 * @param x0  the first column, inclusive
+		 * @param y0  the first row, inclusive
+		 * @param x1  the last column, exclusive
+		 * @param y1  the last row, exclusive
+		 * @param bin the bin
+		 * @return the summed contributions
+		 */
+		public double sum(int x0, int y0, int x1, int y1, int bin) {
+			int stride = (height + 1) * numBins;
+			return integral[x1 * stride + y1 * numBins + bin] - integral[x0 * stride + y1 * numBins + bin]
+					- integral[x1 * stride + y0 * numBins + bin] + integral[x0 * stride + y0 * numBins + bin];
+		}
+
+		/**
+		 * Compute the histogram of each cell. Pixels beyond the last complete cell
+		 * are ignored.
+		 *
+		 * @param cellWidth  the width of a cell
+		 * @param cellHeight the height of a cell
+		 * @return the histograms in the same layout as
+		 *         {@link HogFeatures#cellHistograms(int, int, int)}
+		 */
+		public double[] cellHistograms(int cellWidth, int cellHeight) {
+			Require.positiveValue(cellWidth);
+			Require.positiveValue(cellHeight);
+			int xCells = width / cellWidth;
+			int yCells = height / cellHeight;
+			double[] hog = new double[xCells * yCells * numBins];
+			int i = 0;
+			for (int xCell = 0; xCell < xCells; xCell++) {
+				int x0 = xCell * cellWidth;
+				for (int yCell = 0; yCell < yCells; yCell++) {
+					int y0 = yCell * cellHeight;
+					for (int bin = 0; bin < numBins; bin++) {
+						hog[i++] = sum(x0, y0, x0 + cellWidth, y0 + cellHeight, bin);
+					}
+				}
+			}
+			return hog;
+		}
+
+		/**
+		 * @return the number of bins
+		 */
+		public int getNumBins() {
+			return numBins;
+		}
+	}
+
+	/**
+	 * The bins and weighted magnitudes of all quantized gradients for a number of
+	 * bins.
+	 */
+	private static class OrientationTable {
+
+		/** The lower bin of the gradient. The upper bin is the next bin */
+		private final int[] bin;
+		/** Contribution to the lower bin */
+		private final double[] current;
+		/** Contribution to the upper bin */
+		private final double[] next;
+
+		OrientationTable(int numBins) {
+			int length = (MAX_GRADIENT + 1) * GRADIENT_RANGE;
+			bin = new int[length];
+			current = new double[length];
+			next = new double[length];
+
+			// 0 - 180 (180 wrap around to 0 again)
+			double binFac = (180 - 180d / (numBins)) / (numBins - 1);
+
+			for (int h = 0; h <= MAX_GRADIENT; h++) {
+				for (int v = -MAX_GRADIENT; v <= MAX_GRADIENT; v++) {
+					int index = h * GRADIENT_RANGE + v + MAX_GRADIENT;
+					double magnitude = Math.sqrt(h * h + v * v);
+					double direction;
+					if (h == 0) {
+						// Arctan lim infinity = 90°
+						direction = 180;
+					} else {
+						direction = Math.toDegrees(Math.atan(v / (double) h)) + 90;
+					}
+
+					double binF = direction / binFac;
+					int b = (int) binF;
+					double nextBucketShare = MathUtil.getFractionalPart(binF);
+					double currentShare = 1 - nextBucketShare;
+
+					if (b != numBins) {
+						bin[index] = b;
+						current[index] = currentShare * magnitude;
+						next[index] = nextBucketShare * magnitude;
+					} else {
+						// Wrap around. 180 ° == 0 °
+						bin[index] = 0;
+						current[index] = currentShare * magnitude;
+					}
+				}
+			}
+		}
+	}
+}
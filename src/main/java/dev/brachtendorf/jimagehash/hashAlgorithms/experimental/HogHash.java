@@ -2,6 +2,7 @@ package dev.brachtendorf.jimagehash.hashAlgorithms.experimental;
 
 import java.awt.BasicStroke;
 import java.awt.Color;
+import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.File;
@@ -12,10 +13,8 @@ import java.util.Objects;
 import javax.imageio.ImageIO;
 
 import dev.brachtendorf.ArrayUtil;
-import dev.brachtendorf.MathUtil;
 import dev.brachtendorf.Require;
 import dev.brachtendorf.graphics.ColorUtil;
-import dev.brachtendorf.graphics.FastPixel;
 import dev.brachtendorf.jimagehash.Experimental;
 import dev.brachtendorf.jimagehash.hashAlgorithms.HashBuilder;
 import dev.brachtendorf.jimagehash.hashAlgorithms.HashingAlgorithm;
@@ -160,14 +159,10 @@ public class HogHash extends HashingAlgorithm {
 
 	@Override
 	protected BigInteger hash(BufferedImage image, HashBuilder hash) {
-		FastPixel fp = createPixelAccessor(image, width, height);
-
-		int[][] lum = fp.getLuma();
-
 		// 1 Compute hisogramm
 		// Vertical Gradient
-		// Point 2D represents the cell position, Key: Map represents the bins
-		int[][][] hog = computeHogFeatures(lum);
+		// Indexed [xCell][yCell][bin]
+		int[] hog = computeCellHistograms(image);
 
 		// Block normalization 2 x 2 hist kernel "shifting window"
 		//double[][][] normalizedHog = blockNormalization(hog);
@@ -176,85 +171,63 @@ public class HogHash extends HashingAlgorithm {
 		// Color.RED, normalizedHog);
 		// toImage(new File("Hog" + image.hashCode() + ".png"), image, Color.RED, hog);
 
-		for (int xCell = 0; xCell < xCells; xCell++) {
-			// Construct intermediary vector
-			for (int yCell = 0; yCell < yCells; yCell++) {
-				int lastMax = Integer.MIN_VALUE;
+		for (int cell = 0; cell < xCells * yCells; cell++) {
+			int offset = cell * numBins;
+			int lastMax = Integer.MIN_VALUE;
 
-				int maxIndex = -1;
-				// Same bin
-				for (int bin = 0; bin < numBins; bin++) {
-					if (hog[xCell][yCell][bin] > lastMax) {
-						lastMax = hog[xCell][yCell][bin];
-						maxIndex = bin;
-					}
+			int maxIndex = -1;
+			// Same bin
+			for (int bin = 0; bin < numBins; bin++) {
+				if (hog[offset + bin] > lastMax) {
+					lastMax = hog[offset + bin];
+					maxIndex = bin;
 				}
-				for (int bin = 0; bin < numBins; bin++) {
-					if (bin == maxIndex) {
-						hash.prependZero();
-					} else {
-						hash.prependOne();
-					}
+			}
+			for (int bin = 0; bin < numBins; bin++) {
+				if (bin == maxIndex) {
+					hash.prependZero();
+				} else {
+					hash.prependOne();
 				}
 			}
 		}
 		return hash.toBigInteger();
 	}
 
-	protected int[][][] computeHogFeatures(int[][] lum) {
-
-		double binFac = (180 - 180d / (numBins)) / (numBins - 1);
-		// 0 - 180 (180 wrap around to 0 again)
-
-		double magnitude[][] = new double[width][height];
-		double direction[][] = new double[width][height];
-
-		// 0 Compute magnitude and direction from horizontal and vertical gradients.
-		// with 101 kernels
-		for (int x = 1; x < width - 1; x++) {
-			for (int y = 1; y < height - 1; y++) {
-				int hGradient = (lum[x + 1][y] - lum[x - 1][y]);
-				int vGradient = (lum[x][y - 1] - lum[x][y + 1]);
-
-				magnitude[x][y] = Math.sqrt(hGradient * hGradient + vGradient * vGradient);
+	/**
+	 * Compute the histogram of oriented gradients of each cell of the rescaled
+	 * image.
+	 * 
+	 * @param image the image to hash
+	 * @return the histograms. The bin of cell (xCell,yCell) is located at index
+	 *         <code>(xCell * yCells + yCell) * numBins + bin</code>
+	 * @since 1.1.0
+	 */
+	protected int[] computeCellHistograms(BufferedImage image) {
+		int[] lum = createLumaPlane1D(image, width, height);
+		return new HogFeatures(lum, width, height).cellHistograms(cellWidth, cellWidth, numBins);
+	}
 
-				if (hGradient == 0) {
-					// Arctan lim infinity = 90°
-					direction[x][y] = 180;// °
-				} else {
-					direction[x][y] = Math.toDegrees(Math.atan(vGradient / (double) hGradient)) + 90;
-				}
+	/**
+	 * Compute the histogram of oriented gradients of each cell.
+	 * 
+	 * @param lum the luma values indexed [x][y]
+	 * @return the histograms indexed [xCell][yCell][bin]
+	 * @see HogFeatures#cellHistograms(int, int, int)
+	 */
+	protected int[][][] computeHogFeatures(int[][] lum) {
+		int[] plane = new int[width * height];
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				plane[y * width + x] = lum[x][y];
 			}
 		}
+		int[] cells = new HogFeatures(plane, width, height).cellHistograms(cellWidth, cellWidth, numBins);
 
 		int[][][] hog = new int[xCells][yCells][numBins];
-
-		for (int x = 0; x < width; x++) {
-
-			int xCellIndex = x / cellWidth;
-
-			for (int y = 0; y < height; y++) {
-
-				int yCellIndex = y / cellWidth;
-
-				double binF = direction[x][y] / binFac;
-				int bin = (int) binF;
-				double nextBucketShare = MathUtil.getFractionalPart(binF);
-				double currentShare = 1 - nextBucketShare;
-
-				if (bin != numBins) {
-					hog[xCellIndex][yCellIndex][bin] += (currentShare * magnitude[x][y]);
-					if (bin == (numBins - 1)) {
-						// Wrap around
-						hog[xCellIndex][yCellIndex][0] += (nextBucketShare * magnitude[x][y]);
-					} else {
-						// Put proportionally in next bucket
-						hog[xCellIndex][yCellIndex][bin + 1] += (nextBucketShare * magnitude[x][y]);
-					}
-				} else {
-					// Wrap around. 180 ° == 0 °
-					hog[xCellIndex][yCellIndex][0] += (currentShare * magnitude[x][y]);
-				}
+		for (int xCell = 0; xCell < xCells; xCell++) {
+			for (int yCell = 0; yCell < yCells; yCell++) {
+				System.arraycopy(cells, (xCell * yCells + yCell) * numBins, hog[xCell][yCell], 0, numBins);
 			}
 		}
 		return hog;
@@ -497,6 +470,16 @@ public class HogHash extends HashingAlgorithm {
 		return getClass().getSimpleName()+ " [numBins=" + numBins + "]";
 	}
 
+	@Override
+	protected Dimension getScaledImageDimension() {
+		return new Dimension(width, height);
+	}
+
+	@Override
+	protected boolean isLumaOnly() {
+		return true;
+	}
+
 	@Override
 	protected int precomputeAlgoId() {
 		return Objects.hash("com.github.kilianB.hashAlgorithms.experimental."+getClass().getSimpleName(), width,height,cellWidth,numBins);
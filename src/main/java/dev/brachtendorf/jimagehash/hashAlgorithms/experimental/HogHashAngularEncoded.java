@@ -3,7 +3,6 @@ package dev.brachtendorf.jimagehash.hashAlgorithms.experimental;
 import java.awt.image.BufferedImage;
 import java.math.BigInteger;
 
-import dev.brachtendorf.graphics.FastPixel;
 import dev.brachtendorf.jimagehash.hashAlgorithms.HashBuilder;
 
 
@@ -58,37 +57,27 @@ public class HogHashAngularEncoded extends HogHash {
 
 	@Override
 	protected BigInteger hash(BufferedImage image, HashBuilder hash) {
-		FastPixel fp = createPixelAccessor(image, width, height);
-
-		int[][] lum = fp.getLuma();
-
 		// 1 Compute hisogramm
 
-		int[][][] hog = computeHogFeatures(lum);
+		int[] hog = computeCellHistograms(image);
 
 		double binAverage[] = new double[numBins];
 		// Compute average of each bin
 
 		int cells = xCells * yCells;
 
-		for (int xCell = 0; xCell < xCells; xCell++) {
-			// Construct intermediary vector
-			for (int yCell = 0; yCell < yCells; yCell++) {
-				for (int bin = 0; bin < numBins; bin++) {
-					binAverage[bin] += hog[xCell][yCell][bin] / cells;
-				}
+		for (int cell = 0; cell < cells; cell++) {
+			for (int bin = 0; bin < numBins; bin++) {
+				binAverage[bin] += hog[cell * numBins + bin] / cells;
 			}
 		}
 
-		for (int xCell = 0; xCell < xCells; xCell++) {
-			// Construct intermediary vector
-			for (int yCell = 0; yCell < yCells; yCell++) {
-				for (int bin = 0; bin < numBins; bin++) {
-					if (hog[xCell][yCell][bin] > binAverage[bin]) {
-						hash.prependZero();
-					} else {
-						hash.prependOne();
-					}
+		for (int cell = 0; cell < cells; cell++) {
+			for (int bin = 0; bin < numBins; bin++) {
+				if (hog[cell * numBins + bin] > binAverage[bin]) {
+					hash.prependZero();
+				} else {
+					hash.prependOne();
 				}
 			}
 		}
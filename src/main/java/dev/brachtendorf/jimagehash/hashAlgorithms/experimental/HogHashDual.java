@@ -3,7 +3,6 @@ package dev.brachtendorf.jimagehash.hashAlgorithms.experimental;
 import java.awt.image.BufferedImage;
 import java.math.BigInteger;
 
-import dev.brachtendorf.graphics.FastPixel;
 import dev.brachtendorf.jimagehash.hashAlgorithms.HashBuilder;
 
 /**
@@ -65,42 +64,36 @@ public class HogHashDual extends HogHash {
 	
 	@Override
 	protected BigInteger hash(BufferedImage image, HashBuilder hash) {
-		FastPixel fp = createPixelAccessor(image, width, height);
-
-		int[][] lum = fp.getLuma();
-
 		// 1 Compute hisogramm
 
-		int[][][] hog = computeHogFeatures(lum);
+		int[] hog = computeCellHistograms(image);
 
-		for (int xCell = 0; xCell < xCells; xCell++) {
-			// Construct intermediary vector
-			for (int yCell = 0; yCell < yCells; yCell++) {
+		for (int cell = 0; cell < xCells * yCells; cell++) {
+			int offset = cell * numBins;
 
-				int lastMax = Integer.MIN_VALUE;
+			int lastMax = Integer.MIN_VALUE;
 
-				int maxIndex = -1;
-				int secondMax = -1;
-				// Same bin
-				for (int bin = 0; bin < numBins; bin++) {
-					if (hog[xCell][yCell][bin] > lastMax) {
-						lastMax = hog[xCell][yCell][bin];
-						secondMax = maxIndex;
-						maxIndex = bin;
-					}
+			int maxIndex = -1;
+			int secondMax = -1;
+			// Same bin
+			for (int bin = 0; bin < numBins; bin++) {
+				if (hog[offset + bin] > lastMax) {
+					lastMax = hog[offset + bin];
+					secondMax = maxIndex;
+					maxIndex = bin;
 				}
+			}
 
-				boolean caryOver = false;
-				for (int bin = 0; bin < numBins; bin++) {
-					if (bin == maxIndex) {
-						hash.prependZero();
-						caryOver = true;
-					} else if (caryOver || secondMax == bin) {
-						hash.prependZero();
-						caryOver = false;
-					} else {
-						hash.prependOne();
-					}
+			boolean caryOver = false;
+			for (int bin = 0; bin < numBins; bin++) {
+				if (bin == maxIndex) {
+					hash.prependZero();
+					caryOver = true;
+				} else if (caryOver || secondMax == bin) {
+					hash.prependZero();
+					caryOver = false;
+				} else {
+					hash.prependOne();
 				}
 			}
 		}
@@ -0,0 +1,375 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms.filter;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import dev.brachtendorf.jimagehash.hashAlgorithms.filter.Kernel.EdgeHandlingStrategy;
+
+/**
+ * Convolution of flat row major arrays with a kernel mask.
+ *
+ * <p>
+ * The input is copied into an array padded by half the mask size on each side.
+ * The padding is resolved once per row and column by the
+ * {@link EdgeHandlingStrategy} of the kernel, therefore the inner loop does not
+ * contain any bound checks. Large inputs are split into bands of rows which are
+ * convolved in parallel on the common fork join pool.
+ *
+ * <p>
+ * Masks which are the outer product of a column and a row vector are applied
+ * as a horizontal pass followed by a vertical pass, reducing the cost per value
+ * from <code>maskWidth * maskHeight</code> to <code>maskWidth + maskHeight</code>
+ * operations. The results equal the full convolution up to floating point
+ * rounding. All other masks are summed in the same order as
+ * {@link Kernel#calcValue(double[][], int, int)} yielding identical results.
+ *
+ * @author Kilian
+ * @since 1.1.0
+ */
+class Convolution {
+
+	/**
+	 * Number of multiply add operations above which the rows are convolved in
+	 * parallel
+	 */
+	static final int PARALLELISM_THRESHOLD = 1 << 20;
+
+	/**
+	 * Maximum deviation of a mask from the outer product of its separated vectors
+	 * relative to the largest mask value
+	 */
+	static final double SEPARABILITY_TOLERANCE = 1e-12;
+
+	/** Minimum number of multiply add operations computed by a single task */
+	private static final int TASK_GRAIN = 1 << 16;
+
+	/** Rows of the input */
+	private final int rows;
+
+	/** Columns of the input */
+	private final int cols;
+
+	/** Row major mask */
+	private final double[] mask;
+	private final int maskRows;
+	private final int maskCols;
+
+	/** Row major input padded by maskRows / 2 rows and maskCols / 2 columns */
+	private final double[] padded;
+	private final int paddedCols;
+
+	/**
+	 * If true values whose neighborhood exceeds the input are copied instead of
+	 * being convolved
+	 */
+	private final boolean copyBorder;
+
+	/**
+	 * @param rows         the number of rows of the input
+	 * @param cols         the number of columns of the input
+	 * @param mask         the kernel mask indexed [row][column]
+	 * @param edgeHandling the edge handling strategy used to fill the padding
+	 */
+	private Convolution(int rows, int cols, double[][] mask, EdgeHandlingStrategy edgeHandling) {
+		this.rows = rows;
+		this.cols = cols;
+		this.maskRows = mask.length;
+		this.maskCols = mask[0].length;
+		this.mask = new double[maskRows * maskCols];
+		for (int r = 0; r < maskRows; r++) {
+			System.arraycopy(mask[r], 0, this.mask, r * maskCols, maskCols);
+		}
+		this.paddedCols = cols + maskCols - 1;
+		this.padded = new double[(rows + maskRows - 1) * paddedCols];
+		this.copyBorder = edgeHandling.equals(EdgeHandlingStrategy.NO_OP);
+	}
+
+	/**
+	 * Map each padded index to the index of the input it reads from.
+	 *
+	 * @param edgeHandling the edge handling strategy
+	 * @param length       the length of the axis
+	 * @param radius       the padding on each side
+	 * @return the source index of each padded index
+	 */
+	static int[] sourceIndices(EdgeHandlingStrategy edgeHandling, int length, int radius) {
+		int[] indices = new int[length + 2 * radius];
+		for (int i = 0; i < indices.length; i++) {
+			int index = i - radius;
+			if (index >= 0 && index < length) {
+				indices[i] = index;
+			} else if (edgeHandling.equals(EdgeHandlingStrategy.NO_OP)) {
+				// Only read by values which are copied anyway
+				indices[i] = index < 0 ? 0 : length - 1;
+			} else {
+				indices[i] = edgeHandling.correctPixel(index, length);
+			}
+		}
+		return indices;
+	}
+
+	static double[] convolve(double[][] input, double[][] mask, EdgeHandlingStrategy edgeHandling) {
+		Convolution c = new Convolution(input.length, input[0].length, mask, edgeHandling);
+		int[] rowIndex = sourceIndices(edgeHandling, c.rows, c.maskRows / 2);
+		int[] colIndex = sourceIndices(edgeHandling, c.cols, c.maskCols / 2);
+		for (int r = 0; r < rowIndex.length; r++) {
+			double[] row = input[rowIndex[r]];
+			int offset = r * c.paddedCols;
+			for (int col = 0; col < colIndex.length; col++) {
+				c.padded[offset + col] = row[colIndex[col]];
+			}
+		}
+		return c.convolve();
+	}
+
+	static double[] convolve(int[][] input, double[][] mask, EdgeHandlingStrategy edgeHandling) {
+		Convolution c = new Convolution(input.length, input[0].length, mask, edgeHandling);
+		int[] rowIndex = sourceIndices(edgeHandling, c.rows, c.maskRows / 2);
+		int[] colIndex = sourceIndices(edgeHandling, c.cols, c.maskCols / 2);
+		for (int r = 0; r < rowIndex.length; r++) {
+			int[] row = input[rowIndex[r]];
+			int offset = r * c.paddedCols;
+			for (int col = 0; col < colIndex.length; col++) {
+				c.padded[offset + col] = row[colIndex[col]];
+			}
+		}
+		return c.convolve();
+	}
+
+	static double[] convolve(byte[][] input, double[][] mask, EdgeHandlingStrategy edgeHandling) {
+		Convolution c = new Convolution(input.length, input[0].length, mask, edgeHandling);
+		int[] rowIndex = sourceIndices(edgeHandling, c.rows, c.maskRows / 2);
+		int[] colIndex = sourceIndices(edgeHandling, c.cols, c.maskCols / 2);
+		for (int r = 0; r < rowIndex.length; r++) {
+			byte[] row = input[rowIndex[r]];
+			int offset = r * c.paddedCols;
+			for (int col = 0; col < colIndex.length; col++) {
+				c.padded[offset + col] = row[colIndex[col]];
+			}
+		}
+		return c.convolve();
+	}
+
+	/**
+	 * @return the row major result
+	 */
+	private double[] convolve() {
+		double[] result = new double[rows * cols];
+		double[][] separated = separate(mask, maskRows, maskCols);
+		if (separated == null) {
+			forEachRowBand(rows, (long) cols * mask.length, (from, to) -> convolveRows(result, from, to));
+		} else {
+			// Horizontal pass over all padded rows followed by a vertical pass
+			double[] column = separated[0];
+			double[] row = separated[1];
+			int paddedRows = rows + maskRows - 1;
+			double[] horizontal = new double[paddedRows * cols];
+			forEachRowBand(paddedRows, (long) cols * maskCols,
+					(from, to) -> convolveHorizontal(row, horizontal, from, to));
+			forEachRowBand(rows, (long) cols * maskRows,
+					(from, to) -> convolveVertical(column, horizontal, result, from, to));
+			if (copyBorder) {
+				copyBorder(result);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Decompose a rank 1 mask into the outer product of a column and a row vector.
+	 *
+	 * @param mask     the row major mask
+	 * @param maskRows the number of rows of the mask
+	 * @param maskCols the number of columns of the mask
+	 * @return the column vector at index 0 and the row vector at index 1 or null
+	 *         if the mask is not separable or a single row or column
+	 */
+	static double[][] separate(double[] mask, int maskRows, int maskCols) {
+		if (maskRows == 1 || maskCols == 1) {
+			return null;
+		}
+		// Pivot on the largest element to keep the division well conditioned
+		int pivot = 0;
+		for (int i = 1; i < mask.length; i++) {
+			if (Math.abs(mask[i]) > Math.abs(mask[pivot])) {
+				pivot = i;
+			}
+		}
+		double max = Math.abs(mask[pivot]);
+		if (max == 0) {
+			return null;
+		}
+		int pivotRow = pivot / maskCols;
+		int pivotCol = pivot % maskCols;
+
+		double[] column = new double[maskRows];
+		double[] row = new double[maskCols];
+		for (int r = 0; r < maskRows; r++) {
+			column[r] = mask[r * maskCols + pivotCol];
+		}
+		for (int c = 0; c < maskCols; c++) {
+			row[c] = mask[pivotRow * maskCols + c] / mask[pivot];
+		}
+
+		double tolerance = max * SEPARABILITY_TOLERANCE;
+		for (int r = 0; r < maskRows; r++) {
+			for (int c = 0; c < maskCols; c++) {
+				if (Math.abs(mask[r * maskCols + c] - column[r] * row[c]) > tolerance) {
+					return null;
+				}
+			}
+		}
+		return new double[][] { column, row };
+	}
+
+	/**
+	 * Run the body for bands of rows, in parallel if the work exceeds
+	 * {@link #PARALLELISM_THRESHOLD}.
+	 *
+	 * @param count     the number of rows
+	 * @param rowCost   the number of multiply add operations per row
+	 * @param body      the work of a band of rows
+	 */
+	static void forEachRowBand(int count, long rowCost, RowBand body) {
+		if (count * rowCost >= PARALLELISM_THRESHOLD && count > 1) {
+			int rowsPerTask = (int) Math.max(1, TASK_GRAIN / rowCost);
+			ForkJoinPool.commonPool().invoke(new RowTask(body, 0, count, rowsPerTask));
+		} else {
+			body.compute(0, count);
+		}
+	}
+
+	/**
+	 * Convolve a band of rows with the full mask.
+	 *
+	 * @param result the row major result
+	 * @param from   the first row, inclusive
+	 * @param to     the last row, exclusive
+	 */
+	private void convolveRows(double[] result, int from, int to) {
+		int radiusRows = maskRows / 2;
+		int radiusCols = maskCols / 2;
+		for (int r = from; r < to; r++) {
+			int out = r * cols;
+			boolean borderRow = r < radiusRows || r >= rows - radiusRows;
+			for (int c = 0; c < cols; c++) {
+				if (copyBorder && (borderRow || c < radiusCols || c >= cols - radiusCols)) {
+					result[out + c] = padded[(r + radiusRows) * paddedCols + c + radiusCols];
+					continue;
+				}
+				double value = 0;
+				int m = 0;
+				for (int mr = 0; mr < maskRows; mr++) {
+					int in = (r + mr) * paddedCols + c;
+					for (int mc = 0; mc < maskCols; mc++) {
+						value += mask[m++] * padded[in + mc];
+					}
+				}
+				result[out + c] = value;
+			}
+		}
+	}
+
+	/**
+	 * Convolve a band of padded rows with the row vector
+	 *
+	 * @param row        the row vector of the separated mask
+	 * @param horizontal the row major result with the padded rows and unpadded
+	 *                   columns
+	 * @param from       the first padded row, inclusive
+	 * @param to         the last padded row, exclusive
+	 */
+	private void convolveHorizontal(double[] row, double[] horizontal, int from, int to) {
+		for (int r = from; r < to; r++) {
+			int in = r * paddedCols;
+			int out = r * cols;
+			for (int mc = 0; mc < row.length; mc++) {
+				double weight = row[mc];
+				int offset = in + mc;
+				for (int c = 0; c < cols; c++) {
+					horizontal[out + c] += weight * padded[offset + c];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Convolve a band of rows of the horizontal result with the column vector
+	 *
+	 * @param column     the column vector of the separated mask
+	 * @param horizontal the result of the horizontal pass
+	 * @param result     the row major result
+	 * @param from       the first row, inclusive
+	 * @param to         the last row, exclusive
+	 */
+	private void convolveVertical(double[] column, double[] horizontal, double[] result, int from, int to) {
+		for (int r = from; r < to; r++) {
+			int out = r * cols;
+			for (int mr = 0; mr < column.length; mr++) {
+				double weight = column[mr];
+				int in = (r + mr) * cols;
+				for (int c = 0; c < cols; c++) {
+					result[out + c] += weight * horizontal[in + c];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Replace all values whose neighborhood exceeds the input with the original
+	 * value
+	 *
+	 * @param result the row major result
+	 */
+	private void copyBorder(double[] result) {
+		int radiusRows = maskRows / 2;
+		int radiusCols = maskCols / 2;
+		for (int r = 0; r < rows; r++) {
+			boolean borderRow = r < radiusRows || r >= rows - radiusRows;
+			for (int c = 0; c < cols; c++) {
+				if (borderRow || c < radiusCols || c >= cols - radiusCols) {
+					result[r * cols + c] = padded[(r + radiusRows) * paddedCols + c + radiusCols];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Work on a band of rows
+	 */
+	@FunctionalInterface
+	interface RowBand {
+		/**
+		 * @param from the first row, inclusive
+		 * @param to   the last row, exclusive
+		 */
+		void compute(int from, int to);
+	}
+
+	private static class RowTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final RowBand body;
+		private final int from;
+		private final int to;
+		private final int rowsPerTask;
+
+		RowTask(RowBand body, int from, int to, int rowsPerTask) {
+			this.body = body;
+			this.from = from;
+			this.to = to;
+			this.rowsPerTask = rowsPerTask;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= rowsPerTask) {
+				body.compute(from, to);
+			} else {
+				int mid = (from + to) >>> 1;
+				invokeAll(new RowTask(body, from, mid, rowsPerTask), new RowTask(body, mid, to, rowsPerTask));
+			}
+		}
+	}
+}
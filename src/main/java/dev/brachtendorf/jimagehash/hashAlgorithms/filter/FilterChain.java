@@ -0,0 +1,278 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms.filter;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.brachtendorf.graphics.FastPixel;
+import dev.brachtendorf.jimagehash.hashAlgorithms.filter.Kernel.GrayScaleFilter;
+
+/**
+ * Applies a list of filters to an image. Consecutive {@link Kernel}s,
+ * {@link MultiKernel}s and {@link GrayScaleFilter}s are fused: the color
+ * channels are read once, every kernel is applied to the int planes and the
+ * resulting image is written once after the last kernel, instead of creating
+ * and reading back an image after every filter. Planes no longer referenced are
+ * reused as target of the next kernel.
+ *
+ * <p>
+ * The result is identical to invoking {@link Filter#filter(BufferedImage)} of
+ * every filter in order. Images only keep values in the range of [0 - 255],
+ * therefore as soon as a kernel produces values outside of this range the
+ * intermediate image is created the same way the kernel would and the remaining
+ * filters continue on this image. Fusing is restricted to the image types with
+ * packed or interleaved 8 bit channels.
+ *
+ * <p>
+ * Consumers only interested in the luminance of the image may use
+ * {@link #filterLuma(BufferedImage, List)} which converts the image to luma
+ * values before the first kernel and convolves a single plane instead of three.
+ *
+ * @author Kilian
+ * @since 1.1.0
+ */
+public class FilterChain {
+
+	/**
+	 * True for kernels whose filter method is the one of {@link Kernel} or
+	 * {@link GrayScaleFilter} and therefore only depends on the applyInt method
+	 */
+	private static final ClassValue<Boolean> FUSABLE = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			if (!Kernel.class.isAssignableFrom(type)) {
+				return false;
+			}
+			try {
+				Class<?> declaring = type.getMethod("filter", BufferedImage.class).getDeclaringClass();
+				return declaring == Kernel.class || declaring == GrayScaleFilter.class;
+			} catch (NoSuchMethodException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	};
+
+	private final int width;
+	private final int height;
+
+	/** Color planes indexed [x][y]. Planes of gray scale images are identical */
+	private int[][] red;
+	private int[][] green;
+	private int[][] blue;
+
+	/** The alpha plane or null if the image has no or a zero alpha channel */
+	private int[][] alpha;
+
+	/** If true the last applied kernel was a gray scale filter */
+	private boolean grayScale;
+
+	/** Planes which can be used as target of the next kernel */
+	private final List<int[][]> free = new ArrayList<>();
+
+	private FilterChain(BufferedImage image, boolean luma) {
+		this.width = image.getWidth();
+		this.height = image.getHeight();
+		FastPixel fp = FastPixel.create(image);
+		if (luma) {
+			red = fp.getLuma();
+			green = red;
+			blue = red;
+		} else {
+			red = fp.getRed();
+			green = fp.getGreen();
+			blue = fp.getBlue();
+		}
+		alpha = fp.getAlpha();
+	}
+
+	/**
+	 * Apply the filters in order to the image.
+	 *
+	 * @param image   the image to filter
+	 * @param filters the filters to apply
+	 * @return the filtered image or the image itself if no filters are present
+	 */
+	public static BufferedImage filter(BufferedImage image, List<? extends Filter> filters) {
+		return filter(image, filters, false);
+	}
+
+	/**
+	 * Apply the filters in order to the luma values of the image.
+	 *
+	 * <p>
+	 * Before the first fused kernel the color channels are replaced by the luma
+	 * value of the pixel. The kernels are applied to this single plane and the
+	 * alpha channel is kept. The returned image contains gray values with
+	 * identical red, green and blue channels. Hashing algorithms filtering the
+	 * luma values read these channels directly, recomputing the luma of a gray
+	 * pixel would truncate some values to the next smaller value. For linear kernels the luma values
+	 * of the returned image are close to the luma values of the image returned by
+	 * {@link #filter(BufferedImage, List)}, but not identical due to rounding and
+	 * clamping of the individual channels. Filters which can not be fused and
+	 * unsupported image types are applied to the colored image.
+	 *
+	 * @param image   the image to filter
+	 * @param filters the filters to apply
+	 * @return the filtered image or the image itself if no filters are present
+	 */
+	public static BufferedImage filterLuma(BufferedImage image, List<? extends Filter> filters) {
+		return filter(image, filters, true);
+	}
+
+	private static BufferedImage filter(BufferedImage image, List<? extends Filter> filters, boolean luma) {
+		BufferedImage bi = image;
+		int i = 0;
+		while (i < filters.size()) {
+			// A single kernel only profits from fusing if it is applied to the luma plane
+			if (!isFusable(filters, i, bi) || (!luma && !isFusable(filters, i + 1, bi))) {
+				bi = filters.get(i++).filter(bi);
+				continue;
+			}
+			FilterChain chain = new FilterChain(bi, luma);
+			while (isFusable(filters, i, bi)) {
+				Kernel kernel = (Kernel) filters.get(i++);
+				if (kernel instanceof GrayScaleFilter) {
+					chain.applyGrayScale(kernel);
+				} else {
+					chain.apply(kernel);
+				}
+				if (!chain.inRange()) {
+					break;
+				}
+			}
+			bi = chain.toImage(bi.getType());
+		}
+		return bi;
+	}
+
+	private static boolean isFusable(List<? extends Filter> filters, int index, BufferedImage image) {
+		if (index >= filters.size() || !FUSABLE.get(filters.get(index).getClass())) {
+			return false;
+		}
+		switch (image.getType()) {
+		case BufferedImage.TYPE_INT_RGB:
+		case BufferedImage.TYPE_INT_ARGB:
+		case BufferedImage.TYPE_INT_BGR:
+		case BufferedImage.TYPE_3BYTE_BGR:
+		case BufferedImage.TYPE_4BYTE_ABGR:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Apply the kernel to every color channel. The alpha channel is copied.
+	 *
+	 * @param kernel the kernel to apply
+	 */
+	private void apply(Kernel kernel) {
+		int[][] r = apply(kernel, red);
+		int[][] g = green == red ? r : apply(kernel, green);
+		int[][] b = blue == red ? r : apply(kernel, blue);
+		release(red, green, blue);
+		red = r;
+		green = g;
+		blue = b;
+		grayScale = false;
+	}
+
+	/**
+	 * Apply the kernel to the average gray scale value. Gray scale filters do not
+	 * copy the alpha channel.
+	 *
+	 * @param kernel the kernel to apply
+	 */
+	private void applyGrayScale(Kernel kernel) {
+		if (green == red && blue == red) {
+			// The average of identical planes
+			apply(kernel);
+			alpha = null;
+			grayScale = true;
+			return;
+		}
+		int[][] gray = obtain();
+		for (int x = 0; x < width; x++) {
+			int[] r = red[x];
+			int[] g = green[x];
+			int[] b = blue[x];
+			int[] target = gray[x];
+			for (int y = 0; y < height; y++) {
+				target[y] = (r[y] + g[y] + b[y]) / 3;
+			}
+		}
+		int[][] result = apply(kernel, gray);
+		release(gray, red, green, blue);
+		red = result;
+		green = result;
+		blue = result;
+		alpha = null;
+		grayScale = true;
+	}
+
+	private int[][] apply(Kernel kernel, int[][] input) {
+		int[][] target = obtain();
+		int[][] result = kernel.applyInt(input, target);
+		if (result != target) {
+			free.add(target);
+		}
+		return result;
+	}
+
+	private int[][] obtain() {
+		return free.isEmpty() ? new int[width][height] : free.remove(free.size() - 1);
+	}
+
+	private void release(int[][]... planes) {
+		for (int i = 0; i < planes.length; i++) {
+			boolean duplicate = false;
+			for (int j = 0; j < i; j++) {
+				duplicate |= planes[i] == planes[j];
+			}
+			if (!duplicate) {
+				free.add(planes[i]);
+			}
+		}
+	}
+
+	/**
+	 * @return true if all color values can be stored in the image without loss
+	 */
+	private boolean inRange() {
+		return inRange(red) && (green == red || inRange(green)) && (blue == red || inRange(blue));
+	}
+
+	private static boolean inRange(int[][] plane) {
+		for (int[] column : plane) {
+			for (int value : column) {
+				if (value < 0 || value > 255) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Write the planes into a new image the same way the last applied filter
+	 * would.
+	 *
+	 * @param type the type of the image
+	 * @return the filtered image
+	 */
+	private BufferedImage toImage(int type) {
+		BufferedImage bi = new BufferedImage(width, height, type);
+		FastPixel fpSet = FastPixel.create(bi);
+		if (grayScale) {
+			fpSet.setAverageGrayscale(red);
+		} else {
+			fpSet.setRed(red);
+			fpSet.setGreen(green);
+			fpSet.setBlue(blue);
+			if (fpSet.hasAlpha() && alpha != null) {
+				fpSet.setAlpha(alpha);
+			}
+		}
+		return bi;
+	}
+}
@@ -0,0 +1,215 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms.filter;
+
+import java.util.Objects;
+
+/**
+ * Horizontal and vertical derivatives, gradient magnitude and optionally the
+ * gradient orientation of a flat luma plane computed in a single pass.
+ *
+ * <p>
+ * Instead of convolving the plane once for each derivative and combining the
+ * results afterwards, every value reads its 3 x 3 neighborhood once and
+ * computes both derivatives and the magnitude from it. The values outside of
+ * the plane are expanded from the closest edge, the same as
+ * {@link Kernel.EdgeHandlingStrategy#EXPAND}. All arithmetic is performed on
+ * integers, the results are identical to the convolution with the separated
+ * operator kernels. Large planes are processed row parallel on the common fork
+ * join pool.
+ *
+ * @author Kilian
+ * @since 1.1.0
+ */
+public class Gradient {
+
+	/**
+	 * Derivative operators. The derivative in one direction is the central
+	 * difference <code>[-1 0 1]</code> smoothed with
+	 * <code>[side center side]</code> in the other direction.
+	 *
+	 * @author Kilian
+	 * @since 1.1.0
+	 */
+	public enum Operator {
+		/** Smoothing of [1 2 1] */
+		SOBEL(1, 2),
+		/** Smoothing of [3 10 3] */
+		SCHARR(3, 10);
+
+		/** Weight of the neighboring rows or columns */
+		final int side;
+		/** Weight of the center row or column */
+		final int center;
+
+		Operator(int side, int center) {
+			this.side = side;
+			this.center = center;
+		}
+	}
+
+	private final int width;
+	private final int height;
+
+	/** Row major horizontal derivative */
+	private final int[] dx;
+	/** Row major vertical derivative */
+	private final int[] dy;
+	/** Row major magnitude, truncated to int */
+	private final int[] magnitude;
+	/** Row major orientation or null if not computed */
+	private final double[] orientation;
+
+	private Gradient(int width, int height, boolean orientation) {
+		this.width = width;
+		this.height = height;
+		int length = width * height;
+		this.dx = new int[length];
+		this.dy = new int[length];
+		this.magnitude = new int[length];
+		this.orientation = orientation ? new double[length] : null;
+	}
+
+	/**
+	 * Compute the gradient of a luma plane.
+	 *
+	 * @param plane       the row major values. The value of pixel (x,y) is
+	 *                    located at index <code>y * width + x</code>
+	 * @param width       the width of the plane
+	 * @param height      the height of the plane
+	 * @param operator    the derivative operator
+	 * @param orientation if true the orientation of the gradient is computed as
+	 *                    well
+	 * @return the gradient
+	 * @throws IllegalArgumentException if the plane does not contain width *
+	 *                                  height values or a dimension is not
+	 *                                  positive
+	 */
+	public static Gradient compute(int[] plane, int width, int height, Operator operator, boolean orientation) {
+		Objects.requireNonNull(operator);
+		if (width <= 0 || height <= 0 || plane.length != width * height) {
+			throw new IllegalArgumentException("Plane of length " + plane.length + " does not match dimension "
+					+ width + "x" + height);
+		}
+		Gradient g = new Gradient(width, height, orientation);
+		// 10 reads and multiply adds per value
+		Convolution.forEachRowBand(height, (long) width * 10, (from, to) -> g.computeRows(plane, operator, from, to));
+		return g;
+	}
+
+	/**
+	 * Compute the thresholded gradient magnitude of a plane indexed [x][y] as
+	 * used by the edge detection filters.
+	 *
+	 * @param plane    the values indexed [x][y]
+	 * @param operator the derivative operator
+	 * @param cutOff   magnitudes smaller than the cut off are set to 0
+	 * @return the magnitude indexed [x][y]
+	 */
+	static int[][] magnitude(int[][] plane, Operator operator, int cutOff) {
+		int width = plane.length;
+		int height = plane[0].length;
+		// Read the plane transposed, the magnitude does not depend on the direction
+		int[] flat = new int[width * height];
+		for (int x = 0; x < width; x++) {
+			System.arraycopy(plane[x], 0, flat, x * height, height);
+		}
+		int[] magnitude = compute(flat, height, width, operator, false).magnitude;
+		int[][] result = new int[width][height];
+		for (int x = 0; x < width; x++) {
+			int[] column = result[x];
+			int offset = x * height;
+			for (int y = 0; y < height; y++) {
+				int value = magnitude[offset + y];
+				column[y] = value < cutOff ? 0 : value;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Compute a band of rows
+	 *
+	 * @param plane    the row major values
+	 * @param operator the derivative operator
+	 * @param from     the first row, inclusive
+	 * @param to       the last row, exclusive
+	 */
+	private void computeRows(int[] plane, Operator operator, int from, int to) {
+		int side = operator.side;
+		int center = operator.center;
+		for (int y = from; y < to; y++) {
+			int above = Math.max(y - 1, 0) * width;
+			int row = y * width;
+			int below = Math.min(y + 1, height - 1) * width;
+			for (int x = 0; x < width; x++) {
+				int left = x == 0 ? 0 : x - 1;
+				int right = x == width - 1 ? x : x + 1;
+
+				int gx = side * (plane[above + right] - plane[above + left])
+						+ center * (plane[row + right] - plane[row + left])
+						+ side * (plane[below + right] - plane[below + left]);
+				int gy = side * (plane[below + left] - plane[above + left])
+						+ center * (plane[below + x] - plane[above + x])
+						+ side * (plane[below + right] - plane[above + right]);
+
+				int index = row + x;
+				dx[index] = gx;
+				dy[index] = gy;
+				magnitude[index] = (int) Math.sqrt(gx * gx + gy * gy);
+				if (orientation != null) {
+					orientation[index] = Math.atan2(gy, gx);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the width of the plane
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return the height of the plane
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * The horizontal derivative, the difference of the right and the left
+	 * neighbors. Positive if the values increase to the right.
+	 *
+	 * @return the row major horizontal derivative. The array is not copied.
+	 */
+	public int[] getDx() {
+		return dx;
+	}
+
+	/**
+	 * The vertical derivative, the difference of the lower and the upper
+	 * neighbors. Positive if the values increase downwards.
+	 *
+	 * @return the row major vertical derivative. The array is not copied.
+	 */
+	public int[] getDy() {
+		return dy;
+	}
+
+	/**
+	 * @return the row major gradient magnitude <code>sqrt(dx² + dy²)</code>
+	 *         truncated to an int. The array is not copied.
+	 */
+	public int[] getMagnitude() {
+		return magnitude;
+	}
+
+	/**
+	 * @return the row major orientation <code>atan2(dy, dx)</code> in radians in
+	 *         the range of [-&pi; - &pi;] or null if the orientation was not
+	 *         requested. The array is not copied.
+	 */
+	public double[] getOrientation() {
+		return orientation;
+	}
+}
@@ -1,6 +1,7 @@
 package dev.brachtendorf.jimagehash.hashAlgorithms.filter;
 
 import java.awt.image.BufferedImage;
+import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.function.BiFunction;
 
@@ -30,8 +31,13 @@ import dev.brachtendorf.graphics.FastPixel;
  * "http://machinelearninguru.com/_images/topics/computer_vision/basics/convolution/3.JPG"
  * alt="Convolution example">
  * 
- * TODO support separability for custom kernels TODO kernel indices are swapped
- * and twisted.
+ * <p>
+ * Kernels computing the weighted sum of the neighborhood are evaluated on flat
+ * arrays padded according to the {@link EdgeHandlingStrategy}. Large inputs
+ * are convolved row parallel. Separable masks are detected automatically and
+ * applied as two one dimensional passes.
+ * 
+ * TODO kernel indices are swapped and twisted.
  * 
  * @author Kilian
  * @since 2.0.0
@@ -51,14 +57,42 @@ public class Kernel implements Filter {
 	// private double[] seperableMaskX;
 	// private double[] seperableMaskY;
 
+	/**
+	 * Classes which do not override any calcValue method and therefore compute the
+	 * weighted sum of the neighborhood
+	 */
+	private static final ClassValue<Boolean> WEIGHTED_SUM = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			for (Class<?> c = type; c != Kernel.class; c = c.getSuperclass()) {
+				for (Method method : c.getDeclaredMethods()) {
+					if (method.getName().equals("calcValue")) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+	};
+
+	/**
+	 * True for kernels overriding {@link #applyInt(int[][])}. Their values can not
+	 * be written into a supplied array.
+	 */
+	private static final ClassValue<Boolean> CUSTOM_INT = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			try {
+				return type.getMethod("applyInt", int[][].class).getDeclaringClass() != Kernel.class;
+			} catch (NoSuchMethodException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	};
+
 	/** How are edged of the images handled */
 	protected EdgeHandlingStrategy edgeHandling;
 
-	// TODO we could compute a pixel mapping map before convolution reducing method
-	// calls and maybe increase performance instead of on the fly calculation of
-	// those values?
-	// int[][] pixelAccessMap
-	
 	/**
 	 * Return an identity kernel. This kernel is a 1x1 kernel and copies the
 	 * original value to the new array
@@ -209,8 +243,7 @@ public class Kernel implements Filter {
 			}
 		}
 
-		// TODO Seperability
-
+		// Separable. Applied as two 1D passes by the convolution engine
 		// http://www-edlab.cs.umass.edu/~smaji/cmpsci370/slides/hh/lec02_hh_advanced_edges.pdf
 
 		return new Kernel(mask, true);
@@ -469,6 +502,10 @@ public class Kernel implements Filter {
 	 * @return a new array created by the kernel
 	 */
 	public double[][] apply(int[][] input) {
+		double[] values = applyFlat(input);
+		if (values != null) {
+			return toDouble(values, input.length, input[0].length);
+		}
 		double[][] result = new double[input.length][input[0].length];
 
 		for (int y = 0; y < input.length; y++) {
@@ -486,8 +523,31 @@ public class Kernel implements Filter {
 	 * @return a new array created by the kernel
 	 */
 	public int[][] applyInt(int[][] input) {
+		return applyIntTo(input, new int[input.length][input[0].length]);
+	}
 
-		int[][] result = new int[input.length][input[0].length];
+	/**
+	 * Apply the kernel to the 2d array writing the values casted to int into the
+	 * target array.
+	 * 
+	 * @param input  the input array to apply the kernel on
+	 * @param target an array with the dimension of the input receiving the values.
+	 *               Must not be the input array
+	 * @return the array holding the values. The target array or a new array if a
+	 *         subclass overrides {@link #applyInt(int[][])}
+	 */
+	int[][] applyInt(int[][] input, int[][] target) {
+		if (CUSTOM_INT.get(getClass())) {
+			return applyInt(input);
+		}
+		return applyIntTo(input, target);
+	}
+
+	private int[][] applyIntTo(int[][] input, int[][] result) {
+		double[] values = applyFlat(input);
+		if (values != null) {
+			return toInt(values, result);
+		}
 
 		for (int y = 0; y < input.length; y++) {
 			for (int x = 0; x < input[0].length; x++) {
@@ -504,7 +564,10 @@ public class Kernel implements Filter {
 	 * @return a new array created by the kernel
 	 */
 	public int[][] applyInt(double[][] input) {
-
+		double[] values = applyFlat(input);
+		if (values != null) {
+			return toInt(values, new int[input.length][input[0].length]);
+		}
 		int[][] result = new int[input.length][input[0].length];
 
 		for (int y = 0; y < input.length; y++) {
@@ -522,7 +585,10 @@ public class Kernel implements Filter {
 	 * @return a new array created by the kernel
 	 */
 	public double[][] apply(double[][] input) {
-
+		double[] values = applyFlat(input);
+		if (values != null) {
+			return toDouble(values, input.length, input[0].length);
+		}
 		double[][] result = new double[input.length][input[0].length];
 
 		for (int y = 0; y < input.length; y++) {
@@ -541,6 +607,10 @@ public class Kernel implements Filter {
 	 * @return a new array created by the kernel
 	 */
 	public double[][] apply(byte[][] input) {
+		double[] values = applyFlat(input);
+		if (values != null) {
+			return toDouble(values, input.length, input[0].length);
+		}
 		double[][] result = new double[input.length][input[0].length];
 
 		for (int y = 0; y < input.length; y++) {
@@ -558,6 +628,10 @@ public class Kernel implements Filter {
 	 * @return a new array created by the kernel
 	 */
 	public byte[][] applyByte(byte[][] input) {
+		double[] values = applyFlat(input);
+		if (values != null) {
+			return toByte(values, input.length, input[0].length);
+		}
 		byte[][] result = new byte[input.length][input[0].length];
 
 		for (int y = 0; y < input.length; y++) {
@@ -569,6 +643,10 @@ public class Kernel implements Filter {
 	}
 
 	public byte[][] applyByte(double[][] input) {
+		double[] values = applyFlat(input);
+		if (values != null) {
+			return toByte(values, input.length, input[0].length);
+		}
 		byte[][] result = new byte[input.length][input[0].length];
 
 		for (int y = 0; y < input.length; y++) {
@@ -579,6 +657,84 @@ public class Kernel implements Filter {
 		return result;
 	}
 
+	/**
+	 * Check if the kernel computes the weighted sum of the neighborhood as defined
+	 * by {@link #calcValue(double[][], int, int)}. In this case the values are
+	 * computed by the flat array convolution engine which produces identical
+	 * results. Kernels overriding any of the calcValue methods are evaluated pixel
+	 * by pixel.
+	 * 
+	 * @return true if the convolution engine can be used
+	 * @since 1.1.0
+	 */
+	protected boolean isConvolution() {
+		return WEIGHTED_SUM.get(getClass());
+	}
+
+	/**
+	 * Compute the values of the entire input at once.
+	 * 
+	 * @param input the input array to apply the kernel on
+	 * @return the row major result or null if the values are computed pixel by
+	 *         pixel via calcValue
+	 */
+	double[] applyFlat(int[][] input) {
+		return isConvolution() ? Convolution.convolve(input, mask, edgeHandling) : null;
+	}
+
+	/**
+	 * Compute the values of the entire input at once.
+	 * 
+	 * @param input the input array to apply the kernel on
+	 * @return the row major result or null if the values are computed pixel by
+	 *         pixel via calcValue
+	 */
+	double[] applyFlat(double[][] input) {
+		return isConvolution() ? Convolution.convolve(input, mask, edgeHandling) : null;
+	}
+
+	/**
+	 * Compute the values of the entire input at once.
+	 * 
+	 * @param input the input array to apply the kernel on
+	 * @return the row major result or null if the values are computed pixel by
+	 *         pixel via calcValue
+	 */
+	double[] applyFlat(byte[][] input) {
+		return isConvolution() ? Convolution.convolve(input, mask, edgeHandling) : null;
+	}
+
+	private static double[][] toDouble(double[] values, int rows, int cols) {
+		double[][] result = new double[rows][];
+		for (int r = 0; r < rows; r++) {
+			result[r] = Arrays.copyOfRange(values, r * cols, (r + 1) * cols);
+		}
+		return result;
+	}
+
+	private static int[][] toInt(double[] values, int[][] result) {
+		for (int r = 0; r < result.length; r++) {
+			int[] row = result[r];
+			int offset = r * row.length;
+			for (int c = 0; c < row.length; c++) {
+				row[c] = (int) Math.round(values[offset + c]);
+			}
+		}
+		return result;
+	}
+
+	private static byte[][] toByte(double[] values, int rows, int cols) {
+		byte[][] result = new byte[rows][cols];
+		for (int r = 0; r < rows; r++) {
+			byte[] row = result[r];
+			int offset = r * cols;
+			for (int c = 0; c < cols; c++) {
+				row[c] = (byte) Math.round(values[offset + c]);
+			}
+		}
+		return result;
+	}
+
 	protected double calcValue(byte[][] input, int x, int y) {
 		double value = 0;
 		int maskW = mask[0].length / 2;
@@ -87,6 +87,40 @@ public class MaximumKernel extends NonAveragingKernel {
 		return resolveMax(computePotentialValues(input, x, y));
 	}
 	
+	/*
+	 * Kernels with a uniform mask select the plain extremum of the rectangular
+	 * neighborhood which is computed with the van Herk / Gil-Werman algorithm
+	 */
+
+	@Override
+	double[] applyFlat(int[][] input) {
+		if (!isSlidingExtremum()) {
+			return null;
+		}
+		return SlidingExtremum.extremum(input, mask.length, mask[0].length, edgeHandling, true);
+	}
+
+	@Override
+	double[] applyFlat(double[][] input) {
+		if (!isSlidingExtremum()) {
+			return null;
+		}
+		return SlidingExtremum.extremum(input, mask.length, mask[0].length, edgeHandling, true);
+	}
+
+	@Override
+	double[] applyFlat(byte[][] input) {
+		if (!isSlidingExtremum()) {
+			return null;
+		}
+		return SlidingExtremum.extremum(input, mask.length, mask[0].length, edgeHandling, true);
+	}
+
+	private boolean isSlidingExtremum() {
+		// Subclasses might alter the selection
+		return getClass() == MaximumKernel.class && SlidingExtremum.isUniform(mask);
+	}
+
 	protected double resolveMax(double[][] values) {
 		if (values[1].length == 1 && values[1][0] == Double.MIN_VALUE) {
 			return values[0][0];
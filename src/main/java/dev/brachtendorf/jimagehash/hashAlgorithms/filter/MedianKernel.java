@@ -104,14 +104,93 @@ public class MedianKernel extends NonAveragingKernel {
 
 		
 		// Find the median value
-		int halfIndex = values.length / 2;
-		if (values.length % 2 == 0) {
-			return (values[0][halfIndex] + values[0][halfIndex + 1]) / 2;
+		int halfIndex = values[0].length / 2;
+		if (values[0].length % 2 == 0) {
+			return (values[0][halfIndex - 1] + values[0][halfIndex]) / 2;
 		} else {
 			return values[0][halfIndex];
 		}
 	}
-	
+
+	@Override
+	public int hashCode() {
+		// @since 1.1.0 force incompatible hashes. resolveMedian used to return the
+		// mean of the second and third smallest value instead of the median
+		final int medianVersion = 1;
+		return 31 * super.hashCode() + medianVersion;
+	}
+
+	/*
+	 * The weight mask is not taken into account. Values in the range of [0 - 255]
+	 * are filtered with a sliding histogram
+	 */
+
+	private boolean isSlidingMedian() {
+		// Subclasses might alter the selection
+		return getClass() == MedianKernel.class;
+	}
+
+	@Override
+	public double[][] apply(int[][] input) {
+		int[] median = isSlidingMedian() ? SlidingMedian.median(input, mask.length, mask[0].length, edgeHandling)
+				: null;
+		if (median == null) {
+			return super.apply(input);
+		}
+		int cols = input[0].length;
+		double[][] result = new double[input.length][cols];
+		for (int r = 0; r < input.length; r++) {
+			for (int c = 0; c < cols; c++) {
+				result[r][c] = median[r * cols + c];
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public int[][] applyInt(int[][] input) {
+		int[] median = isSlidingMedian() ? SlidingMedian.median(input, mask.length, mask[0].length, edgeHandling)
+				: null;
+		if (median == null) {
+			return super.applyInt(input);
+		}
+		int cols = input[0].length;
+		int[][] result = new int[input.length][];
+		for (int r = 0; r < input.length; r++) {
+			result[r] = Arrays.copyOfRange(median, r * cols, (r + 1) * cols);
+		}
+		return result;
+	}
+
+	@Override
+	public double[][] apply(byte[][] input) {
+		if (!isSlidingMedian()) {
+			return super.apply(input);
+		}
+		byte[] median = SlidingMedian.median(input, mask.length, mask[0].length, edgeHandling);
+		int cols = input[0].length;
+		double[][] result = new double[input.length][cols];
+		for (int r = 0; r < input.length; r++) {
+			for (int c = 0; c < cols; c++) {
+				result[r][c] = median[r * cols + c];
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public byte[][] applyByte(byte[][] input) {
+		if (!isSlidingMedian()) {
+			return super.applyByte(input);
+		}
+		byte[] median = SlidingMedian.median(input, mask.length, mask[0].length, edgeHandling);
+		int cols = input[0].length;
+		byte[][] result = new byte[input.length][];
+		for (int r = 0; r < input.length; r++) {
+			result[r] = Arrays.copyOfRange(median, r * cols, (r + 1) * cols);
+		}
+		return result;
+	}
 	
 	@Override
 	public BufferedImage filter(BufferedImage input) {
@@ -0,0 +1,264 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms.filter;
+
+import dev.brachtendorf.jimagehash.hashAlgorithms.filter.Kernel.EdgeHandlingStrategy;
+
+/**
+ * Minimum and maximum filter over rectangular neighborhoods using the van Herk
+ * / Gil-Werman algorithm.
+ *
+ * <p>
+ * The extremum of a rectangle is the extremum of the row wise extrema of its
+ * columns, therefore the filter is applied as a horizontal followed by a
+ * vertical pass. Each pass splits the values into blocks of the window length
+ * and computes the running extremum from the start and from the end of each
+ * block. The extremum of any window is the combination of the suffix extremum
+ * at its first and the prefix extremum at its last value, resulting in 3
+ * comparisons per value regardless of the window size.
+ *
+ * <p>
+ * The neighborhood exceeding the input is resolved with the same padding as
+ * the {@link Convolution}, yielding the same values as scanning the window
+ * returned by {@link NonAveragingKernel#computePotentialValues(int[][], int, int)}
+ * with a uniform mask.
+ *
+ * @author Kilian
+ * @since 1.1.0
+ */
+class SlidingExtremum {
+
+	private final int rows;
+	private final int cols;
+	private final int maskRows;
+	private final int maskCols;
+
+	/** If true the maximum is computed, otherwise the minimum */
+	private final boolean maximum;
+
+	/** Row major input padded by maskRows / 2 rows and maskCols / 2 columns */
+	private final double[] padded;
+	private final int paddedRows;
+	private final int paddedCols;
+
+	/**
+	 * If true values whose neighborhood exceeds the input keep the original value
+	 */
+	private final boolean copyBorder;
+
+	private SlidingExtremum(int rows, int cols, int maskRows, int maskCols, EdgeHandlingStrategy edgeHandling,
+			boolean maximum) {
+		this.rows = rows;
+		this.cols = cols;
+		this.maskRows = maskRows;
+		this.maskCols = maskCols;
+		this.maximum = maximum;
+		this.paddedRows = rows + maskRows - 1;
+		this.paddedCols = cols + maskCols - 1;
+		this.padded = new double[paddedRows * paddedCols];
+		this.copyBorder = edgeHandling.equals(EdgeHandlingStrategy.NO_OP);
+	}
+
+	/**
+	 * Check if a mask weights all values equally and therefore selects the plain
+	 * extremum of the neighborhood
+	 *
+	 * @param mask the weight mask
+	 * @return true if all weights are 1
+	 */
+	static boolean isUniform(double[][] mask) {
+		for (double[] row : mask) {
+			for (double weight : row) {
+				if (weight != 1d) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compute the extremum of each neighborhood
+	 *
+	 * @param input        values indexed [row][column]
+	 * @param maskRows     the height of the neighborhood
+	 * @param maskCols     the width of the neighborhood
+	 * @param edgeHandling the edge handling strategy
+	 * @param maximum      true for the maximum, false for the minimum
+	 * @return the row major extrema
+	 */
+	static double[] extremum(int[][] input, int maskRows, int maskCols, EdgeHandlingStrategy edgeHandling,
+			boolean maximum) {
+		SlidingExtremum e = new SlidingExtremum(input.length, input[0].length, maskRows, maskCols, edgeHandling,
+				maximum);
+		int[] rowIndex = Convolution.sourceIndices(edgeHandling, e.rows, maskRows / 2);
+		int[] colIndex = Convolution.sourceIndices(edgeHandling, e.cols, maskCols / 2);
+		for (int r = 0; r < rowIndex.length; r++) {
+			int[] row = input[rowIndex[r]];
+			int offset = r * e.paddedCols;
+			for (int c = 0; c < colIndex.length; c++) {
+				e.padded[offset + c] = row[colIndex[c]];
+			}
+		}
+		return e.extremum();
+	}
+
+	/**
+	 * Compute the extremum of each neighborhood
+	 *
+	 * @param input        values indexed [row][column]
+	 * @param maskRows     the height of the neighborhood
+	 * @param maskCols     the width of the neighborhood
+	 * @param edgeHandling the edge handling strategy
+	 * @param maximum      true for the maximum, false for the minimum
+	 * @return the row major extrema
+	 */
+	static double[] extremum(byte[][] input, int maskRows, int maskCols, EdgeHandlingStrategy edgeHandling,
+			boolean maximum) {
+		SlidingExtremum e = new SlidingExtremum(input.length, input[0].length, maskRows, maskCols, edgeHandling,
+				maximum);
+		int[] rowIndex = Convolution.sourceIndices(edgeHandling, e.rows, maskRows / 2);
+		int[] colIndex = Convolution.sourceIndices(edgeHandling, e.cols, maskCols / 2);
+		for (int r = 0; r < rowIndex.length; r++) {
+			byte[] row = input[rowIndex[r]];
+			int offset = r * e.paddedCols;
+			for (int c = 0; c < colIndex.length; c++) {
+				e.padded[offset + c] = row[colIndex[c]];
+			}
+		}
+		return e.extremum();
+	}
+
+	/**
+	 * Compute the extremum of each neighborhood
+	 *
+	 * @param input        values indexed [row][column]
+	 * @param maskRows     the height of the neighborhood
+	 * @param maskCols     the width of the neighborhood
+	 * @param edgeHandling the edge handling strategy
+	 * @param maximum      true for the maximum, false for the minimum
+	 * @return the row major extrema or null if the input contains NaN or
+	 *         negative zero values whose selection depends on the scan order
+	 */
+	static double[] extremum(double[][] input, int maskRows, int maskCols, EdgeHandlingStrategy edgeHandling,
+			boolean maximum) {
+		SlidingExtremum e = new SlidingExtremum(input.length, input[0].length, maskRows, maskCols, edgeHandling,
+				maximum);
+		int[] rowIndex = Convolution.sourceIndices(edgeHandling, e.rows, maskRows / 2);
+		int[] colIndex = Convolution.sourceIndices(edgeHandling, e.cols, maskCols / 2);
+		for (int r = 0; r < rowIndex.length; r++) {
+			double[] row = input[rowIndex[r]];
+			int offset = r * e.paddedCols;
+			for (int c = 0; c < colIndex.length; c++) {
+				double value = row[colIndex[c]];
+				if (Double.isNaN(value) || (value == 0 && Double.doubleToRawLongBits(value) != 0)) {
+					return null;
+				}
+				e.padded[offset + c] = value;
+			}
+		}
+		return e.extremum();
+	}
+
+	private double[] extremum() {
+		// Horizontal pass over all padded rows
+		double[] horizontal = new double[paddedRows * cols];
+		Convolution.forEachRowBand(paddedRows, (long) paddedCols * 3, (from, to) -> {
+			double[] prefix = new double[paddedCols];
+			double[] suffix = new double[paddedCols];
+			for (int r = from; r < to; r++) {
+				slide(padded, r * paddedCols, paddedCols, maskCols, prefix, suffix, horizontal, r * cols);
+			}
+		});
+
+		// Vertical pass. The prefix and suffix extrema of entire rows are computed
+		// block wise
+		double[] prefix = new double[paddedRows * cols];
+		double[] suffix = new double[paddedRows * cols];
+		int blocks = (paddedRows + maskRows - 1) / maskRows;
+		Convolution.forEachRowBand(blocks, (long) maskRows * cols * 2, (from, to) -> {
+			for (int b = from; b < to; b++) {
+				int start = b * maskRows;
+				int end = Math.min(start + maskRows, paddedRows);
+				System.arraycopy(horizontal, start * cols, prefix, start * cols, cols);
+				for (int r = start + 1; r < end; r++) {
+					combine(prefix, (r - 1) * cols, horizontal, r * cols, prefix, r * cols, cols);
+				}
+				System.arraycopy(horizontal, (end - 1) * cols, suffix, (end - 1) * cols, cols);
+				for (int r = end - 2; r >= start; r--) {
+					combine(suffix, (r + 1) * cols, horizontal, r * cols, suffix, r * cols, cols);
+				}
+			}
+		});
+
+		double[] result = new double[rows * cols];
+		Convolution.forEachRowBand(rows, cols, (from, to) -> {
+			for (int r = from; r < to; r++) {
+				combine(suffix, r * cols, prefix, (r + maskRows - 1) * cols, result, r * cols, cols);
+			}
+		});
+
+		if (copyBorder) {
+			copyBorder(result);
+		}
+		return result;
+	}
+
+	/**
+	 * Compute the extremum of each window of a single sequence
+	 *
+	 * @param values       the source array
+	 * @param offset       the index of the first value of the sequence
+	 * @param length       the length of the sequence
+	 * @param window       the length of the window
+	 * @param prefix       scratch array of at least length
+	 * @param suffix       scratch array of at least length
+	 * @param result       the array receiving length - window + 1 values
+	 * @param resultOffset the index of the first result
+	 */
+	private void slide(double[] values, int offset, int length, int window, double[] prefix,
+			double[] suffix, double[] result, int resultOffset) {
+		for (int start = 0; start < length; start += window) {
+			int end = Math.min(start + window, length);
+			prefix[start] = values[offset + start];
+			for (int i = start + 1; i < end; i++) {
+				prefix[i] = select(prefix[i - 1], values[offset + i]);
+			}
+			suffix[end - 1] = values[offset + end - 1];
+			for (int i = end - 2; i >= start; i--) {
+				suffix[i] = select(suffix[i + 1], values[offset + i]);
+			}
+		}
+		for (int i = 0; i <= length - window; i++) {
+			result[resultOffset + i] = select(suffix[i], prefix[i + window - 1]);
+		}
+	}
+
+	private void combine(double[] a, int aOffset, double[] b, int bOffset, double[] result, int resultOffset,
+			int length) {
+		for (int i = 0; i < length; i++) {
+			result[resultOffset + i] = select(a[aOffset + i], b[bOffset + i]);
+		}
+	}
+
+	private double select(double a, double b) {
+		return maximum ? Math.max(a, b) : Math.min(a, b);
+	}
+
+	/**
+	 * Replace all values whose neighborhood exceeds the input with the original
+	 * value
+	 *
+	 * @param result the row major result
+	 */
+	private void copyBorder(double[] result) {
+		int radiusRows = maskRows / 2;
+		int radiusCols = maskCols / 2;
+		for (int r = 0; r < rows; r++) {
+			boolean borderRow = r < radiusRows || r >= rows - radiusRows;
+			for (int c = 0; c < cols; c++) {
+				if (borderRow || c < radiusCols || c >= cols - radiusCols) {
+					result[r * cols + c] = padded[(r + radiusRows) * paddedCols + c + radiusCols];
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,195 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms.filter;
+
+import java.util.Arrays;
+
+import dev.brachtendorf.jimagehash.hashAlgorithms.filter.Kernel.EdgeHandlingStrategy;
+
+/**
+ * Median filter for 8 bit values using a sliding window histogram (Huang).
+ *
+ * <p>
+ * Each row is scanned from left to right. When the window moves by one column
+ * the values of the leaving column are removed from a 256 bin histogram and the
+ * values of the entering column are added, the median is tracked by counting
+ * the values below the current median and only moves by the steps required to
+ * restore its rank. The cost per value is proportional to the window height
+ * instead of sorting the entire window.
+ *
+ * <p>
+ * The neighborhood exceeding the input is resolved with the same padding as
+ * the {@link Convolution} and yields the same values as sorting the window
+ * returned by {@link NonAveragingKernel#computePotentialValues(int[][], int, int)}.
+ *
+ * @author Kilian
+ * @since 1.1.0
+ */
+class SlidingMedian {
+
+	/** Number of distinct values */
+	private static final int BINS = 256;
+
+	private final int rows;
+	private final int cols;
+	private final int maskRows;
+	private final int maskCols;
+
+	/** Row major input padded by maskRows / 2 rows and maskCols / 2 columns */
+	private final int[] padded;
+	private final int paddedCols;
+
+	/**
+	 * If true values whose neighborhood exceeds the input keep the original value
+	 */
+	private final boolean copyBorder;
+
+	private SlidingMedian(int rows, int cols, int maskRows, int maskCols, EdgeHandlingStrategy edgeHandling) {
+		this.rows = rows;
+		this.cols = cols;
+		this.maskRows = maskRows;
+		this.maskCols = maskCols;
+		this.paddedCols = cols + maskCols - 1;
+		this.padded = new int[(rows + maskRows - 1) * paddedCols];
+		this.copyBorder = edgeHandling.equals(EdgeHandlingStrategy.NO_OP);
+	}
+
+	/**
+	 * Compute the median of each neighborhood
+	 *
+	 * @param input        values in the range of [0 - 255] indexed [row][column]
+	 * @param maskRows     the height of the neighborhood
+	 * @param maskCols     the width of the neighborhood
+	 * @param edgeHandling the edge handling strategy
+	 * @return the row major medians or null if the input contains values outside
+	 *         of the supported range
+	 */
+	static int[] median(int[][] input, int maskRows, int maskCols, EdgeHandlingStrategy edgeHandling) {
+		SlidingMedian m = new SlidingMedian(input.length, input[0].length, maskRows, maskCols, edgeHandling);
+		int[] rowIndex = Convolution.sourceIndices(edgeHandling, m.rows, maskRows / 2);
+		int[] colIndex = Convolution.sourceIndices(edgeHandling, m.cols, maskCols / 2);
+		for (int r = 0; r < rowIndex.length; r++) {
+			int[] row = input[rowIndex[r]];
+			int offset = r * m.paddedCols;
+			for (int c = 0; c < colIndex.length; c++) {
+				int value = row[colIndex[c]];
+				if (value < 0 || value >= BINS) {
+					return null;
+				}
+				m.padded[offset + c] = value;
+			}
+		}
+		return m.median();
+	}
+
+	/**
+	 * Compute the median of each neighborhood
+	 *
+	 * @param input        values indexed [row][column]
+	 * @param maskRows     the height of the neighborhood
+	 * @param maskCols     the width of the neighborhood
+	 * @param edgeHandling the edge handling strategy
+	 * @return the row major medians
+	 */
+	static byte[] median(byte[][] input, int maskRows, int maskCols, EdgeHandlingStrategy edgeHandling) {
+		SlidingMedian m = new SlidingMedian(input.length, input[0].length, maskRows, maskCols, edgeHandling);
+		int[] rowIndex = Convolution.sourceIndices(edgeHandling, m.rows, maskRows / 2);
+		int[] colIndex = Convolution.sourceIndices(edgeHandling, m.cols, maskCols / 2);
+		for (int r = 0; r < rowIndex.length; r++) {
+			byte[] row = input[rowIndex[r]];
+			int offset = r * m.paddedCols;
+			for (int c = 0; c < colIndex.length; c++) {
+				// Shift the signed values into the histogram range keeping their order
+				m.padded[offset + c] = row[colIndex[c]] + 128;
+			}
+		}
+		int[] median = m.median();
+		byte[] result = new byte[median.length];
+		for (int i = 0; i < median.length; i++) {
+			result[i] = (byte) (median[i] - 128);
+		}
+		return result;
+	}
+
+	private int[] median() {
+		int[] result = new int[rows * cols];
+		Convolution.forEachRowBand(rows, (long) cols * maskRows * 2, (from, to) -> {
+			int[] histogram = new int[BINS];
+			for (int r = from; r < to; r++) {
+				medianRow(r, histogram, result);
+			}
+		});
+		if (copyBorder) {
+			copyBorder(result);
+		}
+		return result;
+	}
+
+	/**
+	 * Slide the window along a single row
+	 *
+	 * @param r         the row
+	 * @param histogram scratch histogram
+	 * @param result    the row major result
+	 */
+	private void medianRow(int r, int[] histogram, int[] result) {
+		Arrays.fill(histogram, 0);
+		for (int mr = 0; mr < maskRows; mr++) {
+			int offset = (r + mr) * paddedCols;
+			for (int mc = 0; mc < maskCols; mc++) {
+				histogram[padded[offset + mc]]++;
+			}
+		}
+
+		// 0 based index of the median in the sorted window
+		int rank = maskRows * maskCols / 2;
+		int median = 0;
+		// Number of values smaller than the median
+		int below = 0;
+		while (below + histogram[median] <= rank) {
+			below += histogram[median++];
+		}
+		result[r * cols] = median;
+
+		for (int c = 1; c < cols; c++) {
+			int leaving = r * paddedCols + c - 1;
+			int entering = leaving + maskCols;
+			for (int mr = 0; mr < maskRows; mr++) {
+				int out = padded[leaving + mr * paddedCols];
+				histogram[out]--;
+				if (out < median) {
+					below--;
+				}
+				int in = padded[entering + mr * paddedCols];
+				histogram[in]++;
+				if (in < median) {
+					below++;
+				}
+			}
+			while (below > rank) {
+				below -= histogram[--median];
+			}
+			while (below + histogram[median] <= rank) {
+				below += histogram[median++];
+			}
+			result[r * cols + c] = median;
+		}
+	}
+
+	/**
+	 * Replace all values whose neighborhood exceeds the input with the original
+	 * value
+	 *
+	 * @param result the row major result
+	 */
+	private void copyBorder(int[] result) {
+		int radiusRows = maskRows / 2;
+		int radiusCols = maskCols / 2;
+		for (int r = 0; r < rows; r++) {
+			boolean borderRow = r < radiusRows || r >= rows - radiusRows;
+			for (int c = 0; c < cols; c++) {
+				if (borderRow || c < radiusCols || c >= cols - radiusCols) {
+					result[r * cols + c] = padded[(r + radiusRows) * paddedCols + c + radiusCols];
+				}
+			}
+		}
+	}
+}
@@ -1,5 +1,8 @@
 package dev.brachtendorf.jimagehash.matcher;
 
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -7,6 +10,7 @@ import java.util.Map;
 
 import dev.brachtendorf.jimagehash.hash.Hash;
 import dev.brachtendorf.jimagehash.hashAlgorithms.HashingAlgorithm;
+import dev.brachtendorf.jimagehash.hashAlgorithms.MultiHasher;
 
 /**
  * Image matchers are a collection of classes which bundle the hashing operation
@@ -105,6 +109,31 @@ public abstract class TypedImageMatcher {
 		return Collections.unmodifiableMap(new LinkedHashMap<HashingAlgorithm, AlgoSettings>(steps));
 	}
 
+	/**
+	 * Compute the hashes of all hashing algorithms of this matcher. The rescaled
+	 * image is shared between algorithms requiring the same dimension.
+	 * 
+	 * @param image the image to hash
+	 * @return the hashes in the order the algorithms were added
+	 * @since 1.1.0
+	 */
+	protected Hash[] computeHashes(BufferedImage image) {
+		return new MultiHasher(steps.keySet()).hash(image);
+	}
+
+	/**
+	 * Compute the hashes of all hashing algorithms of this matcher. The image file
+	 * is decoded the same way {@link HashingAlgorithm#hash(File)} decodes it.
+	 * 
+	 * @param imageFile the file of the image to hash
+	 * @return the hashes in the order the algorithms were added
+	 * @throws IOException if an error occurs reading the file
+	 * @since 1.1.0
+	 */
+	protected Hash[] computeHashes(File imageFile) throws IOException {
+		return new MultiHasher(steps.keySet()).hash(imageFile);
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -155,10 +184,13 @@ public abstract class TypedImageMatcher {
 		}
 
 		public boolean apply(Hash hash, Hash hash1) {
+			// We only need to know if the threshold is exceeded. Allow to stop early
 			if (normalized) {
-				return hash.normalizedHammingDistanceFast(hash1) <= threshold;
+				int bitResolution = hash.getBitResolution();
+				int distance = hash.hammingDistanceBounded(hash1, (int) Math.ceil(threshold * bitResolution));
+				return distance != Hash.DISTANCE_EXCEEDED && distance / (double) bitResolution <= threshold;
 			} else {
-				return hash.hammingDistanceFast(hash1) <= threshold;
+				return hash.hammingDistanceBounded(hash1, (int) Math.floor(threshold)) <= threshold;
 			}
 		}
 
@@ -111,10 +111,11 @@ public class ConsecutiveMatcher extends TypedImageMatcher {
 			return;
 		}
 
-		for (Entry<HashingAlgorithm, AlgoSettings> entry : steps.entrySet()) {
-			HashingAlgorithm algo = entry.getKey();
+		Hash[] hashes = computeHashes(image);
+		int i = 0;
+		for (HashingAlgorithm algo : steps.keySet()) {
 			BinaryTree<BufferedImage> binTree = binTreeMap.get(algo);
-			binTree.addHash(algo.hash(image), image);
+			binTree.addHash(hashes[i++], image);
 		}
 		addedImages.add(image);
 	}
@@ -149,13 +150,15 @@ public class ConsecutiveMatcher extends TypedImageMatcher {
 
 		PriorityQueue<Result<BufferedImage>> returnValues = null;
 
+		Hash[] needleHashes = computeHashes(image);
+		int i = 0;
 		for (Entry<HashingAlgorithm, AlgoSettings> entry : steps.entrySet()) {
 			HashingAlgorithm algo = entry.getKey();
 
 			BinaryTree<BufferedImage> binTree = binTreeMap.get(algo);
 			AlgoSettings settings = entry.getValue();
 
-			Hash needleHash = algo.hash(image);
+			Hash needleHash = needleHashes[i++];
 
 			int threshold = 0;
 			if (settings.isNormalized()) {
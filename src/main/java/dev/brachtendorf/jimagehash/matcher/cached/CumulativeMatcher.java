@@ -159,6 +159,10 @@ public class CumulativeMatcher extends ConsecutiveMatcher {
 		// https://stackoverflow.com/a/31401836/3244464 TODO jmh benchmark
 		float optimalLoadFactor = (float) Math.log(2);
 
+		// Preprocess the image once for all algorithms
+		Hash[] needleHashes = computeHashes(image);
+		int algoIndex = 0;
+
 		// For each hashing algorithm
 		for (Entry<HashingAlgorithm, AlgoSettings> entry : steps.entrySet()) {
 			HashingAlgorithm algo = entry.getKey();
@@ -172,7 +176,7 @@ public class CumulativeMatcher extends ConsecutiveMatcher {
 					.ceil((first ? binTree.getHashCount() : distanceMap.size()) / optimalLoadFactor) + 1);
 			temporaryMap = new HashMap<>(optimalCapacity, optimalLoadFactor);
 
-			Hash needleHash = algo.hash(image);
+			Hash needleHash = needleHashes[algoIndex++];
 
 			int bitRes = algo.getKeyResolution();
 
@@ -209,7 +209,7 @@ public class CategoricalMatcher extends AbstractCategoricalMatcher {
 			cachedHashClone.put(hasher, clonedHashes);
 			for (int category : categories) {
 				FuzzyHash bHash = hashes.get(category);
-				clonedHashes.put(category, new Hash(bHash.getHashValue(), bHash.getBitResolution(), Integer.MAX_VALUE));
+				clonedHashes.put(category, new Hash(bHash.toLongArray(), bHash.getBitResolution(), Integer.MAX_VALUE));
 			}
 		}
 
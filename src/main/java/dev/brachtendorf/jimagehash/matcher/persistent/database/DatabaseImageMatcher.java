@@ -1,12 +1,12 @@
 package dev.brachtendorf.jimagehash.matcher.persistent.database;
 
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
 import java.io.Serializable;
 import java.math.BigInteger;
 import java.sql.Connection;
@@ -30,6 +30,7 @@ import javax.imageio.ImageIO;
 import dev.brachtendorf.jimagehash.datastructures.tree.Result;
 import dev.brachtendorf.jimagehash.hash.Hash;
 import dev.brachtendorf.jimagehash.hashAlgorithms.HashingAlgorithm;
+import dev.brachtendorf.jimagehash.hashAlgorithms.MultiHasher;
 import dev.brachtendorf.jimagehash.matcher.TypedImageMatcher;
 import dev.brachtendorf.jimagehash.matcher.persistent.ConsecutiveMatcher;
 
@@ -108,6 +109,24 @@ public class DatabaseImageMatcher extends TypedImageMatcher implements Serializa
 
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * True if a class overrides {@link #addImage(HashingAlgorithm, String, BufferedImage)}
+	 */
+	private static final ClassValue<Boolean> OVERRIDES_ADD_IMAGE = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			for (Class<?> c = type; c != DatabaseImageMatcher.class; c = c.getSuperclass()) {
+				try {
+					c.getDeclaredMethod("addImage", HashingAlgorithm.class, String.class, BufferedImage.class);
+					return true;
+				} catch (NoSuchMethodException e) {
+					// Check the super class
+				}
+			}
+			return false;
+		}
+	};
+
 	/** Database connection. Maybe use connection pooling? */
 	protected transient Connection conn;
 
@@ -264,16 +283,18 @@ public class DatabaseImageMatcher extends TypedImageMatcher implements Serializa
 	 */
 	public void addImage(String uniqueId, File imageFile) throws IOException, SQLException {
 
-		// Only load if necessary.
-		BufferedImage img = null;
+		List<HashingAlgorithm> missing = getMissingAlgorithms(uniqueId);
 
-		for (HashingAlgorithm algo : steps.keySet()) {
-			if (!doesEntryExist(uniqueId, algo)) {
-				// Lazily load
-				if (img == null) {
-					img = ImageIO.read(imageFile);
+		// Only load if necessary.
+		if (!missing.isEmpty()) {
+			if (OVERRIDES_ADD_IMAGE.get(getClass())) {
+				BufferedImage image = ImageIO.read(imageFile);
+				if (image == null) {
+					throw new IOException("No image reader found for " + imageFile);
 				}
-				addImage(algo, uniqueId, img);
+				addImage(missing, uniqueId, image);
+			} else {
+				addHashes(missing, uniqueId, new MultiHasher(missing).hash(imageFile));
 			}
 		}
 	}
@@ -355,11 +376,9 @@ public class DatabaseImageMatcher extends TypedImageMatcher implements Serializa
 	 * @throws SQLException if an SQL error occurs
 	 */
 	public void addImage(String uniqueId, BufferedImage image) throws SQLException {
-		for (Entry<HashingAlgorithm, AlgoSettings> entry : steps.entrySet()) {
-			HashingAlgorithm algo = entry.getKey();
-			if (!doesEntryExist(uniqueId, algo)) {
-				addImage(algo, uniqueId, image);
-			}
+		List<HashingAlgorithm> missing = getMissingAlgorithms(uniqueId);
+		if (!missing.isEmpty()) {
+			addImage(missing, uniqueId, image);
 		}
 	}
 
@@ -391,12 +410,7 @@ public class DatabaseImageMatcher extends TypedImageMatcher implements Serializa
 		}
 
 		for (int i = 0; i < uniqueIds.length; i++) {
-			for (Entry<HashingAlgorithm, AlgoSettings> entry : steps.entrySet()) {
-				HashingAlgorithm algo = entry.getKey();
-				if (!doesEntryExist(uniqueIds[i], algo)) {
-					addImage(algo, uniqueIds[i], images[i]);
-				}
-			}
+			addImage(uniqueIds[i], images[i]);
 		}
 
 	}
@@ -410,14 +424,13 @@ public class DatabaseImageMatcher extends TypedImageMatcher implements Serializa
 	 */
 	public void serializeToDatabase(int id) throws SQLException {
 		PreparedStatement ps = conn.prepareStatement("MERGE INTO ImageHasher (Id,SerializeData) VALUES(?,?)");
-		PipedOutputStream pipeOut = new PipedOutputStream();
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
 		try {
-			PipedInputStream pipe = new PipedInputStream(pipeOut);
-			ObjectOutputStream oos = new ObjectOutputStream(pipeOut);
+			ObjectOutputStream oos = new ObjectOutputStream(bos);
 			oos.writeObject(this);
 			oos.close();
 			ps.setInt(1, id);
-			ps.setBinaryStream(2, pipe);
+			ps.setBinaryStream(2, new ByteArrayInputStream(bos.toByteArray()));
 			ps.execute();
 		} catch (IOException e) {
 			// should not occur
@@ -600,9 +613,11 @@ public class DatabaseImageMatcher extends TypedImageMatcher implements Serializa
 		@SuppressWarnings("unchecked")
 		Entry<HashingAlgorithm, AlgoSettings>[] entries = steps.entrySet().toArray(new Entry[steps.size()]);
 
+		Hash[] targetHashes = computeHashes(image);
+
 		for (int i = 0; i < steps.size(); i++) {
 			HashingAlgorithm algo = entries[i].getKey();
-			Hash targetHash = algo.hash(image);
+			Hash targetHash = targetHashes[i];
 
 			int threshold = (int) Math.round(normalizedDistance[i] * targetHash.getBitResolution());
 
@@ -632,7 +647,7 @@ public class DatabaseImageMatcher extends TypedImageMatcher implements Serializa
 	 * @throws IOException  if an error occurs when reading the file
 	 */
 	public PriorityQueue<Result<String>> getMatchingImages(File imageFile) throws SQLException, IOException {
-		return getMatchingImages(ImageIO.read(imageFile));
+		return getMatchingImages(computeHashes(imageFile));
 	}
 
 	/**
@@ -647,6 +662,18 @@ public class DatabaseImageMatcher extends TypedImageMatcher implements Serializa
 	 * @throws SQLException if an SQL error occurs
 	 */
 	public PriorityQueue<Result<String>> getMatchingImages(BufferedImage image) throws SQLException {
+		return getMatchingImages(computeHashes(image));
+	}
+
+	/**
+	 * Search for all images passing the algorithm filters
+	 * 
+	 * @param targetHashes the hashes of the image in the order of the algorithms
+	 * @return all unique ids sorted by the hamming distance of the last applied
+	 *         algorithm
+	 * @throws SQLException if an SQL error occurs
+	 */
+	private PriorityQueue<Result<String>> getMatchingImages(Hash[] targetHashes) throws SQLException {
 
 		if (steps.isEmpty())
 			throw new IllegalStateException(
@@ -654,9 +681,10 @@ public class DatabaseImageMatcher extends TypedImageMatcher implements Serializa
 
 		PriorityQueue<Result<String>> returnValues = null;
 
+		int i = 0;
 		for (Entry<HashingAlgorithm, AlgoSettings> entry : steps.entrySet()) {
 			HashingAlgorithm algo = entry.getKey();
-			Hash targetHash = algo.hash(image);
+			Hash targetHash = targetHashes[i++];
 			AlgoSettings settings = entry.getValue();
 
 			int threshold = 0;
@@ -701,9 +729,9 @@ public class DatabaseImageMatcher extends TypedImageMatcher implements Serializa
 				// Url
 				byte[] bytes = rs.getBytes(2);
 				Hash h = reconstructHashFromDatabase(hasher, bytes);
-				int distance = targetHash.hammingDistanceFast(h);
-				double normalizedDistance = distance / (double) targetHash.getBitResolution();
+				int distance = targetHash.hammingDistanceBounded(h, maxDistance);
 				if (distance <= maxDistance) {
+					double normalizedDistance = distance / (double) targetHash.getBitResolution();
 					String url = rs.getString(1);
 					urls.add(new Result<String>(url, distance, normalizedDistance));
 				}
@@ -712,7 +740,68 @@ public class DatabaseImageMatcher extends TypedImageMatcher implements Serializa
 		return urls;
 	}
 
+	/**
+	 * Hash the image and store the hash.
+	 * 
+	 * <p>
+	 * Subclasses overriding this method are invoked for every algorithm when an
+	 * image is added. In this case image files are decoded at full resolution and
+	 * the algorithms do not share intermediate results.
+	 * 
+	 * @param hashAlgo the algorithm to hash the image with
+	 * @param url      the unique id of the image
+	 * @param image    the image to hash
+	 * @throws SQLException if an SQL error occurs
+	 */
 	protected void addImage(HashingAlgorithm hashAlgo, String url, BufferedImage image) throws SQLException {
+		addHash(hashAlgo, url, hashAlgo.hash(image));
+	}
+
+	/**
+	 * Hash the image with all supplied algorithms and store the hashes. The
+	 * rescaled image is shared between algorithms unless
+	 * {@link #addImage(HashingAlgorithm, String, BufferedImage)} is overridden.
+	 * 
+	 * @param hashAlgos the algorithms to hash the image with
+	 * @param url       the unique id of the image
+	 * @param image     the image to hash
+	 * @throws SQLException if an SQL error occurs
+	 * @since 1.1.0
+	 */
+	protected void addImage(List<HashingAlgorithm> hashAlgos, String url, BufferedImage image) throws SQLException {
+		if (OVERRIDES_ADD_IMAGE.get(getClass())) {
+			for (HashingAlgorithm hashAlgo : hashAlgos) {
+				addImage(hashAlgo, url, image);
+			}
+		} else {
+			addHashes(hashAlgos, url, new MultiHasher(hashAlgos).hash(image));
+		}
+	}
+
+	/**
+	 * Store the hashes of an image
+	 * 
+	 * @param hashAlgos the algorithms which created the hashes
+	 * @param url       the unique id of the image
+	 * @param hashes    the hashes in the order of the algorithms
+	 * @throws SQLException if an SQL error occurs
+	 */
+	private void addHashes(List<HashingAlgorithm> hashAlgos, String url, Hash[] hashes) throws SQLException {
+		for (int i = 0; i < hashes.length; i++) {
+			addHash(hashAlgos.get(i), url, hashes[i]);
+		}
+	}
+
+	/**
+	 * Store the hash in the table of the hashing algorithm
+	 * 
+	 * @param hashAlgo the algorithm which created the hash
+	 * @param url      the unique id of the image
+	 * @param hash     the hash to store
+	 * @throws SQLException if an SQL error occurs
+	 * @since 1.1.0
+	 */
+	protected void addHash(HashingAlgorithm hashAlgo, String url, Hash hash) throws SQLException {
 		String tableName = resolveTableName(hashAlgo);
 
 		if (!doesTableExist(tableName)) {
@@ -720,13 +809,30 @@ public class DatabaseImageMatcher extends TypedImageMatcher implements Serializa
 		}
 		try (PreparedStatement insertHash = conn
 				.prepareStatement("MERGE INTO " + tableName + " (url,hash) VALUES(?,?)")) {
-			Hash hash = hashAlgo.hash(image);
 			insertHash.setString(1, url);
 			insertHash.setBytes(2, hash.toByteArray());
 			insertHash.execute();
 		}
 	}
 
+	/**
+	 * Collect the hashing algorithms of this matcher which did not yet store a hash
+	 * for the given id
+	 * 
+	 * @param uniqueId the id of the image
+	 * @return the algorithms without an entry in the order they were added
+	 * @throws SQLException if an SQL error occurs
+	 */
+	private List<HashingAlgorithm> getMissingAlgorithms(String uniqueId) throws SQLException {
+		List<HashingAlgorithm> missing = new ArrayList<>();
+		for (HashingAlgorithm algo : steps.keySet()) {
+			if (!doesEntryExist(uniqueId, algo)) {
+				missing.add(algo);
+			}
+		}
+		return missing;
+	}
+
 	/**
 	 * Create a table to hold image hashes for a particular image hashing algorithm
 	 * 
@@ -0,0 +1,139 @@
+package dev.brachtendorf.jimagehash.datastructures;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import dev.brachtendorf.jimagehash.datastructures.tree.Result;
+import dev.brachtendorf.jimagehash.datastructures.tree.binaryTree.BinaryTree;
+import dev.brachtendorf.jimagehash.hash.Hash;
+
+import com.github.kilianB.pcg.fast.PcgRSFast;
+
+/**
+ * @author Kilian
+ *
+ */
+class HashStoreTest {
+
+	@TempDir
+	File tempDir;
+
+	private static Hash[] randomHashes(int count, int bits) {
+		PcgRSFast rng = new PcgRSFast(0, 0);
+		Hash[] hashes = new Hash[count];
+		for (int i = 0; i < count; i++) {
+			hashes[i] = new Hash(new BigInteger(bits, rng), bits, 0);
+		}
+		return hashes;
+	}
+
+	private File writeStore(Hash[] hashes) throws IOException {
+		File file = new File(tempDir, "hashes.store");
+		try (HashStore.Writer writer = new HashStore.Writer(file, hashes[0].getBitResolution(), 0)) {
+			for (int i = 0; i < hashes.length; i++) {
+				writer.add(hashes[i], i * 10L);
+			}
+		}
+		return file;
+	}
+
+	private static <T> Set<T> values(Iterable<Result<T>> results) {
+		Set<T> values = new HashSet<>();
+		for (Result<T> r : results) {
+			values.add(r.value);
+		}
+		return values;
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 16, 64, 130 })
+	public void sameResultAsBinaryTree(int bits) throws IOException {
+		Hash[] hashes = randomHashes(200, bits);
+
+		BinaryTree<Long> tree = new BinaryTree<>(true);
+		for (int i = 0; i < hashes.length; i++) {
+			tree.addHash(hashes[i], i * 10L);
+		}
+
+		// Force multiple segments
+		HashStore store = HashStore.open(writeStore(hashes), 64);
+		int maxDistance = bits / 3;
+
+		PriorityQueue<Result<Long>> expected = tree.getElementsWithinHammingDistance(hashes[3], maxDistance);
+		PriorityQueue<Result<Long>> actual = store.getElementsWithinHammingDistance(hashes[3], maxDistance);
+
+		assertEquals(values(expected), values(actual));
+		assertEquals(expected.peek().distance, actual.peek().distance);
+	}
+
+	@Test
+	public void nearestNeighbour() throws IOException {
+		Hash[] hashes = randomHashes(100, 64);
+		HashStore store = HashStore.open(writeStore(hashes));
+
+		List<Result<Long>> result = store.getNearestNeighbour(hashes[42]);
+		assertEquals(1, result.size());
+		assertEquals(420L, result.get(0).value);
+		assertEquals(0, result.get(0).distance);
+	}
+
+	@Test
+	public void reconstructHashes() throws IOException {
+		Hash[] hashes = randomHashes(50, 100);
+		HashStore store = HashStore.open(writeStore(hashes), 40);
+
+		assertEquals(hashes.length, store.size());
+		List<Hash> restored = new ArrayList<>();
+		for (int i = 0; i < store.size(); i++) {
+			restored.add(store.getHash(i));
+			assertEquals(i * 10L, store.getId(i));
+		}
+		assertEquals(List.of(hashes), restored);
+	}
+
+	@Test
+	public void incompatibleQuery() throws IOException {
+		Hash[] hashes = randomHashes(5, 64);
+		HashStore store = HashStore.open(writeStore(hashes));
+		assertThrows(IllegalStateException.class, () -> {
+			store.getNearestNeighbour(new Hash(BigInteger.ONE, 64, 1));
+		});
+	}
+
+	@Test
+	public void hashLargerThanBuffer() throws IOException {
+		// 600000 bits exceed the default 64 KiB write buffer
+		Hash[] hashes = randomHashes(3, 600000);
+		HashStore store = HashStore.open(writeStore(hashes));
+		assertEquals(List.of(hashes), List.of(store.getHash(0), store.getHash(1), store.getHash(2)));
+	}
+
+	@Test
+	public void closed() throws IOException {
+		Hash[] hashes = randomHashes(5, 64);
+		HashStore store = HashStore.open(writeStore(hashes));
+		store.close();
+		assertThrows(IllegalStateException.class, () -> {
+			store.getNearestNeighbour(hashes[0]);
+		});
+		assertThrows(IllegalStateException.class, () -> {
+			store.getId(0);
+		});
+		// Closing twice has no effect
+		store.close();
+	}
+}
@@ -0,0 +1,96 @@
+package dev.brachtendorf.jimagehash.hash;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.github.kilianB.pcg.fast.PcgRSFast;
+
+/**
+ * @author Kilian
+ *
+ */
+class HashArrayTest {
+
+	private static Hash[] randomHashes(int count, int bits) {
+		PcgRSFast rng = new PcgRSFast(0, 0);
+		Hash[] hashes = new Hash[count];
+		for (int i = 0; i < count; i++) {
+			hashes[i] = new Hash(new BigInteger(bits, rng), bits, 0);
+		}
+		return hashes;
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 8, 64, 65, 256 })
+	public void distancesMatchHash(int bits) {
+		Hash[] hashes = randomHashes(100, bits);
+		HashArray array = HashArray.of(hashes);
+
+		int[] distances = new int[array.size()];
+		array.distances(hashes[0], distances);
+
+		for (int i = 0; i < hashes.length; i++) {
+			assertEquals(hashes[0].hammingDistanceFast(hashes[i]), distances[i]);
+			assertEquals(distances[i], array.distance(hashes[0], i));
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 8, 64, 65, 256 })
+	public void indicesWithinMatchHash(int bits) {
+		Hash[] hashes = randomHashes(100, bits);
+		HashArray array = HashArray.of(hashes);
+		int maxDistance = bits / 2;
+
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < hashes.length; i++) {
+			if (hashes[1].hammingDistanceFast(hashes[i]) <= maxDistance) {
+				expected.add(i);
+			}
+		}
+		assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(),
+				array.indicesWithin(hashes[1], maxDistance));
+	}
+
+	@Test
+	public void getReconstructsHash() {
+		Hash[] hashes = randomHashes(40, 100);
+		HashArray array = new HashArray(100, 0, 1);
+		for (Hash h : hashes) {
+			array.add(h);
+		}
+		for (int i = 0; i < hashes.length; i++) {
+			assertEquals(hashes[i], array.get(i));
+		}
+	}
+
+	@Nested
+	class Incompatible {
+
+		@Test
+		public void differentAlgorithm() {
+			HashArray array = new HashArray(8, 0);
+			assertThrows(IllegalArgumentException.class, () -> {
+				array.add(new Hash(BigInteger.ONE, 8, 1));
+			});
+		}
+
+		@Test
+		public void differentLength() {
+			HashArray array = new HashArray(8, 0);
+			assertThrows(IllegalArgumentException.class, () -> {
+				array.distances(new Hash(BigInteger.ONE, 9, 0), new int[0]);
+			});
+		}
+	}
+}
@@ -6,9 +6,18 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -101,6 +110,44 @@ class HashTest {
 		}
 	}
 
+	@Nested
+	class BoundedHammingDistance {
+
+		@Test
+		@DisplayName("Within Bound")
+		public void withinBound() {
+			String bits = "10001100";
+			String bits1 = "11111100";
+			Hash hash0 = new Hash(new BigInteger(bits, 2), bits.length(), 0);
+			Hash hash1 = new Hash(new BigInteger(bits1, 2), bits1.length(), 0);
+			assertEquals(3, hash0.hammingDistanceBounded(hash1, 3));
+			assertEquals(3, hash0.hammingDistanceBounded(hash1, 8));
+		}
+
+		@Test
+		@DisplayName("Exceeds Bound")
+		public void exceedsBound() {
+			String bits = "10001100";
+			String bits1 = "11111100";
+			Hash hash0 = new Hash(new BigInteger(bits, 2), bits.length(), 0);
+			Hash hash1 = new Hash(new BigInteger(bits1, 2), bits1.length(), 0);
+			assertEquals(Hash.DISTANCE_EXCEEDED, hash0.hammingDistanceBounded(hash1, 2));
+			assertEquals(Hash.DISTANCE_EXCEEDED, hash0.hammingDistanceBounded(hash1, -1));
+		}
+
+		@Test
+		@DisplayName("Multiple Words")
+		public void multipleWords() {
+			BigInteger value = BigInteger.ONE.shiftLeft(199).subtract(BigInteger.ONE);
+			Hash hash0 = new Hash(value, 200, 0);
+			Hash hash1 = new Hash(BigInteger.ZERO, 200, 0);
+			int distance = hash0.hammingDistanceFast(hash1);
+			assertEquals(distance, hash0.hammingDistanceBounded(hash1, distance));
+			assertEquals(Hash.DISTANCE_EXCEEDED, hash0.hammingDistanceBounded(hash1, distance - 1));
+			assertEquals(Hash.DISTANCE_EXCEEDED, hash0.hammingDistanceBounded(hash1, 10));
+		}
+	}
+
 	@Nested
 	class NormalizedHammingDistance {
 		@Test
@@ -217,6 +264,62 @@ class HashTest {
 		}		
 	}
 
+	@Nested
+	class Packed {
+
+		@Test
+		public void bigIntegerRoundTrip() {
+			BigInteger value = new BigInteger("1101000000000000000000000000000000000000000000000000000000000000111010101", 2);
+			Hash hash0 = new Hash(value, 73, 0);
+			assertEquals(value, hash0.getHashValue());
+		}
+
+		@Test
+		public void longArrayConstructor() {
+			BigInteger value = BigInteger.ONE.shiftLeft(70).add(BigInteger.valueOf(5));
+			Hash hash0 = new Hash(value, 72, 0);
+			Hash hash1 = new Hash(new long[] { 5, 1 << 6 }, 72, 0);
+			assertAll(() -> {
+				assertEquals(hash0, hash1);
+			}, () -> {
+				assertEquals(hash0.hashCode(), hash1.hashCode());
+			}, () -> {
+				assertEquals(value, hash1.getHashValue());
+			});
+		}
+
+		@Test
+		public void toLongArray() {
+			Hash hash0 = new Hash(BigInteger.ONE.shiftLeft(64).add(BigInteger.TEN), 65, 0);
+			long[] packed = hash0.toLongArray();
+			assertAll(() -> {
+				assertEquals(2, packed.length);
+			}, () -> {
+				assertEquals(10, packed[0]);
+			}, () -> {
+				assertEquals(1, packed[1]);
+			});
+		}
+
+		@Test
+		public void distanceMultipleWords() {
+			BigInteger value = BigInteger.ONE.shiftLeft(130).subtract(BigInteger.ONE);
+			Hash hash0 = new Hash(value, 130, 0);
+			Hash hash1 = new Hash(value.clearBit(0).clearBit(64).clearBit(129), 130, 0);
+			assertEquals(3, hash0.hammingDistanceFast(hash1));
+		}
+
+		@Test
+		public void testBitHighWord() {
+			Hash hash0 = new Hash(BigInteger.ONE.shiftLeft(100), 128, 0);
+			assertAll(() -> {
+				assertTrue(hash0.getBit(100));
+			}, () -> {
+				assertFalse(hash0.getBit(36));
+			});
+		}
+	}
+
 	@Nested
 	class Serialization{
 		
@@ -231,6 +334,103 @@ class HashTest {
 			//Equality
 			assertEquals(h,h2);
 		}
+
+		@Test
+		public void reconstructJavaSerializedHash() throws IOException, ClassNotFoundException {
+			Hash h = new Hash(BigInteger.valueOf(5121), 16, 2);
+			File serTestFile = new File("testHashLegacy.ser");
+			serTestFile.deleteOnExit();
+			try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(serTestFile))) {
+				oos.writeObject(h);
+			}
+			assertEquals(h, Hash.fromFile(serTestFile));
+		}
+
+		@Test
+		public void streamMultipleHashes() throws IOException {
+			List<Hash> hashes = new ArrayList<>();
+			hashes.add(new Hash(BigInteger.valueOf(5121), 16, 2));
+			hashes.add(new Hash(BigInteger.ONE.shiftLeft(200), 256, 3));
+			hashes.add(new FuzzyHash(new Hash(BigInteger.valueOf(5), 16, 2), new Hash(BigInteger.valueOf(6), 16, 2)));
+
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			try (HashWriter writer = new HashWriter(bos)) {
+				writer.writeAll(hashes);
+			}
+
+			List<Hash> read;
+			try (HashReader reader = new HashReader(new ByteArrayInputStream(bos.toByteArray()))) {
+				read = reader.readAll();
+			}
+
+			assertAll(() -> {
+				assertEquals(3, read.size());
+			}, () -> {
+				assertEquals(hashes.get(0), read.get(0));
+			}, () -> {
+				assertEquals(hashes.get(1), read.get(1));
+			}, () -> {
+				assertTrue(read.get(2) instanceof FuzzyHash);
+			}, () -> {
+				assertEquals(2, ((FuzzyHash) read.get(2)).getAddedCount());
+			}, () -> {
+				assertEquals(0, hashes.get(2).hammingDistance(read.get(2)));
+			});
+		}
+
+		/**
+		 * A stream header followed by a hash record with the given lengths
+		 */
+		private byte[] record(int type, int bitResolution, int wordCount) throws IOException {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			try (HashWriter writer = new HashWriter(bos)) {
+				// Header only
+			}
+			DataOutputStream out = new DataOutputStream(bos);
+			out.writeByte(type);
+			out.writeInt(1);
+			out.writeInt(bitResolution);
+			out.writeInt(wordCount);
+			return bos.toByteArray();
+		}
+
+		@Test
+		public void corruptedLengths() {
+			for (int[] lengths : new int[][] { { 64, Integer.MAX_VALUE }, { 64, 2 }, { 64, 0 }, { -1, 0 },
+					{ Integer.MAX_VALUE, (int) ((Integer.MAX_VALUE + 63L) / 64) } }) {
+				for (int type : new int[] { HashWriter.TYPE_HASH, HashWriter.TYPE_FUZZY }) {
+					assertThrows(StreamCorruptedException.class, () -> {
+						try (HashReader reader = new HashReader(
+								new ByteArrayInputStream(record(type, lengths[0], lengths[1])))) {
+							reader.read();
+						}
+					}, Arrays.toString(lengths));
+				}
+			}
+		}
+
+		@Test
+		public void writeNormalizedWordCount() throws IOException {
+			// Zero words beyond the bit resolution are dropped
+			Hash padded = new Hash(new long[] { 5, 0, 0 }, 16, 2);
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			try (HashWriter writer = new HashWriter(bos)) {
+				writer.write(padded);
+				assertThrows(IllegalArgumentException.class, () -> {
+					writer.write(new Hash(new long[] { 5, 1 }, 16, 2));
+				});
+			}
+			try (HashReader reader = new HashReader(new ByteArrayInputStream(bos.toByteArray()))) {
+				assertEquals(padded, reader.read());
+			}
+		}
+
+		@Test
+		public void invalidHeader() {
+			assertThrows(StreamCorruptedException.class, () -> {
+				new HashReader(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5 }));
+			});
+		}
 	}
 	
 }
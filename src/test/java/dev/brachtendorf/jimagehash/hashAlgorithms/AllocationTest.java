@@ -0,0 +1,103 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms;
+
+import static dev.brachtendorf.jimagehash.TestResources.ballon;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import dev.brachtendorf.jimagehash.hashAlgorithms.PerceptiveHash.Transformation;
+
+/**
+ * Hashing algorithms using thread confined workspaces shall not allocate
+ * anything but the hash itself once warmed up.
+ *
+ * @author Kilian
+ *
+ */
+class AllocationTest {
+
+	private static final int WARMUP = 500;
+	private static final int ITERATIONS = 200;
+
+	/**
+	 * Fixed allocation of a hash besides its bits: the hash and builder objects as
+	 * well as the array and object headers
+	 */
+	private static final long HASH_OVERHEAD = 256;
+
+	static Stream<Arguments> algorithms() {
+		return Stream.of(
+				// JTransforms allocates a scratch buffer of 4 columns per 2d transformation
+				Arguments.of(new PerceptiveHash(64), dctScratch(32)),
+				Arguments.of(new PerceptiveHash(256), dctScratch(64)),
+				Arguments.of(new PerceptiveHash(64, Transformation.LowFrequency), 0L),
+				Arguments.of(new PerceptiveHash(256, Transformation.LowFrequency), 0L),
+				Arguments.of(new WaveletHash(64, 3), 0L), Arguments.of(new WaveletHash(256, 3), 0L));
+	}
+
+	private static long dctScratch(int height) {
+		return 16 + 4 * 8L * height;
+	}
+
+	@ParameterizedTest
+	@MethodSource("algorithms")
+	public void steadyStateAllocation(HashingAlgorithm hasher, long externalScratch) {
+		ThreadAllocation allocation = ThreadAllocation.create();
+		assumeTrue(allocation != null, "Thread allocation measurement not supported");
+
+		// Already scaled to the target size, the remaining allocation is dominated by
+		// the algorithm itself
+		Dimension dim = hasher.getScaledImageDimension();
+		BufferedImage image = new BufferedImage(dim.width, dim.height, BufferedImage.TYPE_3BYTE_BGR);
+		Graphics2D g = image.createGraphics();
+		g.drawImage(ballon, 0, 0, dim.width, dim.height, null);
+		g.dispose();
+
+		for (int i = 0; i < WARMUP; i++) {
+			hasher.hash(image);
+		}
+
+		long before = allocation.allocatedBytes();
+		for (int i = 0; i < ITERATIONS; i++) {
+			hasher.hash(image);
+		}
+		long perHash = (allocation.allocatedBytes() - before) / ITERATIONS;
+
+		// The words of the hash, the builder and the big integer
+		long bitBytes = 3 * (16 + 8L * ((hasher.getKeyResolution() + 63) / 64));
+		long bound = HASH_OVERHEAD + bitBytes + externalScratch;
+		assertTrue(perHash <= bound, hasher + " allocated " + perHash + " bytes per hash, expected at most " + bound);
+	}
+
+	private static class ThreadAllocation {
+		private final com.sun.management.ThreadMXBean bean;
+
+		private ThreadAllocation(com.sun.management.ThreadMXBean bean) {
+			this.bean = bean;
+		}
+
+		static ThreadAllocation create() {
+			java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			if (bean instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+				if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+					return new ThreadAllocation(sunBean);
+				}
+			}
+			return null;
+		}
+
+		long allocatedBytes() {
+			return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+	}
+}
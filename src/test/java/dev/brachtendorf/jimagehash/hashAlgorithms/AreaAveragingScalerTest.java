@@ -0,0 +1,131 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms;
+
+import static dev.brachtendorf.jimagehash.TestResources.ballon;
+import static dev.brachtendorf.jimagehash.TestResources.transparent0;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * @author Kilian
+ *
+ */
+class AreaAveragingScalerTest {
+
+	private static BufferedImage convert(BufferedImage image, int type) {
+		BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), type);
+		Graphics2D g = converted.createGraphics();
+		g.drawImage(image, 0, 0, null);
+		g.dispose();
+		return converted;
+	}
+
+	private static int[] pixels(BufferedImage image) {
+		return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+	}
+
+	@Test
+	public void averageOfBlocks() {
+		BufferedImage image = new BufferedImage(4, 2, BufferedImage.TYPE_INT_RGB);
+		image.setRGB(0, 0, 4, 2, new int[] { 0x000000, 0x0A0A0A, 0x646464, 0x646464, 0x141414, 0x1E1E1E,
+				0xC8C8C8, 0x646464 }, 0, 4);
+
+		BufferedImage scaled = AreaAveragingScaler.scale(image, 2, 1);
+		assertEquals(0xFF0F0F0F, scaled.getRGB(0, 0));
+		assertEquals(0xFF7D7D7D, scaled.getRGB(1, 0));
+	}
+
+	@Test
+	public void fractionalCoverage() {
+		// The center target pixel covers half of each source pixel
+		BufferedImage image = new BufferedImage(2, 1, BufferedImage.TYPE_INT_RGB);
+		image.setRGB(0, 0, 0x000000);
+		image.setRGB(1, 0, 0x646464);
+
+		BufferedImage scaled = AreaAveragingScaler.scale(image, 3, 1);
+		assertArrayEquals(new int[] { 0xFF000000, 0xFF323232, 0xFF646464 }, pixels(scaled));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 7, 32, 33, 131 })
+	public void solidColorPreserved(int size) {
+		BufferedImage image = new BufferedImage(333, 177, BufferedImage.TYPE_3BYTE_BGR);
+		Graphics2D g = image.createGraphics();
+		g.setColor(new Color(12, 200, 77));
+		g.fillRect(0, 0, 333, 177);
+		g.dispose();
+
+		for (int pixel : pixels(AreaAveragingScaler.scale(image, size, size + 3))) {
+			assertEquals(new Color(12, 200, 77).getRGB(), pixel);
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_INT_BGR })
+	public void sameResultForAllTypes(int type) {
+		BufferedImage reference = convert(ballon, BufferedImage.TYPE_INT_RGB);
+		int[] expected = pixels(AreaAveragingScaler.scale(reference, 31, 17));
+		assertArrayEquals(expected, pixels(AreaAveragingScaler.scale(convert(reference, type), 31, 17)));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_4BYTE_ABGR })
+	public void sameResultForAlphaTypes(int type) {
+		BufferedImage reference = convert(transparent0, BufferedImage.TYPE_INT_ARGB);
+		BufferedImage scaled = AreaAveragingScaler.scale(reference, 16, 16);
+		assertEquals(BufferedImage.TYPE_INT_ARGB, scaled.getType());
+		assertArrayEquals(pixels(scaled), pixels(AreaAveragingScaler.scale(convert(reference, type), 16, 16)));
+	}
+
+	@Test
+	public void grayscale() {
+		// Gray samples are converted the same way getRGB does
+		BufferedImage gray = new BufferedImage(2, 1, BufferedImage.TYPE_BYTE_GRAY);
+		gray.getRaster().setPixels(0, 0, 2, 1, new int[] { 10, 30 });
+		int expected = ((gray.getRGB(0, 0) & 0xFF) + (gray.getRGB(1, 0) & 0xFF)) / 2;
+
+		BufferedImage scaled = AreaAveragingScaler.scale(gray, 1, 1);
+		assertEquals(BufferedImage.TYPE_INT_RGB, scaled.getType());
+		assertEquals(0xFF000000 | expected * 0x010101, scaled.getRGB(0, 0));
+	}
+
+	@Test
+	public void grayscaleSameAsRgb() {
+		BufferedImage gray = convert(ballon, BufferedImage.TYPE_BYTE_GRAY);
+		BufferedImage rgb = new BufferedImage(gray.getWidth(), gray.getHeight(), BufferedImage.TYPE_INT_RGB);
+		rgb.setRGB(0, 0, gray.getWidth(), gray.getHeight(), pixels(gray), 0, gray.getWidth());
+		assertArrayEquals(pixels(AreaAveragingScaler.scale(rgb, 31, 17)),
+				pixels(AreaAveragingScaler.scale(gray, 31, 17)));
+	}
+
+	@Test
+	public void subimage() {
+		BufferedImage image = convert(ballon, BufferedImage.TYPE_3BYTE_BGR);
+		BufferedImage sub = image.getSubimage(13, 29, 200, 150);
+		BufferedImage copy = convert(sub, BufferedImage.TYPE_3BYTE_BGR);
+		assertArrayEquals(pixels(AreaAveragingScaler.scale(copy, 20, 20)),
+				pixels(AreaAveragingScaler.scale(sub, 20, 20)));
+
+		BufferedImage intImage = convert(ballon, BufferedImage.TYPE_INT_RGB);
+		BufferedImage intSub = intImage.getSubimage(13, 29, 200, 150);
+		assertArrayEquals(pixels(AreaAveragingScaler.scale(copy, 20, 20)),
+				pixels(AreaAveragingScaler.scale(intSub, 20, 20)));
+	}
+
+	@Test
+	public void upscaling() {
+		BufferedImage image = new BufferedImage(2, 1, BufferedImage.TYPE_INT_RGB);
+		image.setRGB(0, 0, 0x102030);
+		image.setRGB(1, 0, 0x405060);
+
+		assertArrayEquals(new int[] { 0xFF102030, 0xFF102030, 0xFF405060, 0xFF405060 },
+				pixels(AreaAveragingScaler.scale(image, 4, 1)));
+	}
+}
@@ -51,6 +51,12 @@ class AverageColorHashTest {
 		protected HashingAlgorithm getInstance(int bitResolution) {
 			return new AverageColorHash(bitResolution);
 		}
+
+		// Measured distance of 0.111
+		@Override
+		protected double subsampledDecodingTolerance() {
+			return 0.14;
+		}
 		
 		@Override
 		protected double differenceBallonHqHash() {
@@ -69,6 +69,12 @@ class AverageHashTest {
 			return new AverageHash(bitResolution);
 		}
 
+		// Measured distance of 0.111
+		@Override
+		protected double subsampledDecodingTolerance() {
+			return 0.14;
+		}
+
 		@Override
 		protected double differenceBallonHqHash() {
 			return 77;
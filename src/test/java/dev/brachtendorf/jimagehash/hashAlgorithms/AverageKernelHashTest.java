@@ -89,6 +89,12 @@ class AverageKernelHashTest {
 			return new AverageKernelHash(bitResolution);
 		}
 
+		// Measured distance of 0.194
+		@Override
+		protected double subsampledDecodingTolerance() {
+			return 0.23;
+		}
+
 		@Override
 		protected double differenceBallonHqHash() {
 			return 77;
@@ -107,6 +113,12 @@ class AverageKernelHashTest {
 			return new AverageKernelHash(bitResolution, Kernel.gaussianFilter(3, 3, 2));
 		}
 
+		// Measured distance of 0.167
+		@Override
+		protected double subsampledDecodingTolerance() {
+			return 0.2;
+		}
+
 		@Override
 		protected double differenceBallonHqHash() {
 			return 78;
@@ -125,6 +137,12 @@ class AverageKernelHashTest {
 			return new AverageKernelHash(bitResolution, Kernel.gaussianFilter(3, 3, 2), Kernel.gaussianFilter(5, 3, 2));
 		}
 
+		// Measured distance of 0.139
+		@Override
+		protected double subsampledDecodingTolerance() {
+			return 0.17;
+		}
+
 		@Override
 		protected double differenceBallonHqHash() {
 			return 74;
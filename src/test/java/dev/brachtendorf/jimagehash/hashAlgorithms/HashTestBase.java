@@ -3,6 +3,7 @@ package dev.brachtendorf.jimagehash.hashAlgorithms;
 import static dev.brachtendorf.jimagehash.TestResources.ballon;
 import static dev.brachtendorf.jimagehash.TestResources.copyright;
 import static dev.brachtendorf.jimagehash.TestResources.highQuality;
+import static dev.brachtendorf.jimagehash.TestResources.lenna;
 import static dev.brachtendorf.jimagehash.TestResources.lowQuality;
 import static dev.brachtendorf.jimagehash.TestResources.thumbnail;
 import static dev.brachtendorf.jimagehash.TestResources.transparent0;
@@ -12,24 +13,40 @@ import static dev.brachtendorf.jimagehash.TestResources.transparent1White;
 import static dev.brachtendorf.jimagehash.TestResources.white;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.awt.Color;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Stream;
 
+import javax.imageio.ImageIO;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
@@ -472,6 +489,407 @@ public abstract class HashTestBase {
 		}
 	}
 
+	@Nested
+	class BatchHashing {
+
+		private Path resource(String name) throws URISyntaxException {
+			return Paths.get(HashTestBase.class.getClassLoader().getResource(name).toURI());
+		}
+
+		@Test
+		public void sameAsSequential() throws Exception {
+			HashingAlgorithm hasher = getInstance(32);
+			List<Path> images = List.of(resource("ballon.jpg"), resource("copyright.jpg"),
+					resource("highQuality.jpg"), resource("lowQuality.jpg"), resource("thumbnail.jpg"),
+					resource("Lenna.png"));
+
+			List<BatchHashResult> results = hasher.hashAll(images, 3);
+
+			assertEquals(images.size(), results.size());
+			for (int i = 0; i < images.size(); i++) {
+				BatchHashResult result = results.get(i);
+				assertEquals(i, result.getIndex());
+				assertEquals(images.get(i), result.getSource());
+				assertEquals(hasher.hash(images.get(i).toFile()), result.getHash());
+			}
+		}
+
+		@Test
+		public void reportErrorsPerImage() throws Exception {
+			HashingAlgorithm hasher = getInstance(32);
+			Path missing = Paths.get("doesNotExist.png");
+			List<BatchHashResult> results = hasher.hashAll(Stream.of(missing, resource("ballon.jpg")), 2);
+
+			assertAll(() -> {
+				assertFalse(results.get(0).isSuccessful());
+			}, () -> {
+				assertTrue(results.get(0).getError() instanceof IOException);
+			}, () -> {
+				assertEquals(hasher.hash(ballon), results.get(1).getHash());
+			});
+		}
+
+		@Test
+		public void reportErrorsAsResult() throws Exception {
+			HashingAlgorithm hasher = getInstance(32);
+			int width = ballon.getWidth();
+			hasher.addFilter(image -> {
+				if (image.getWidth() == width) {
+					throw new OutOfMemoryError();
+				}
+				return image;
+			});
+			List<BatchHashResult> results = hasher.hashAll(List.of(resource("ballon.jpg"), resource("Lenna.png")), 2);
+
+			assertAll(() -> {
+				assertEquals(2, results.size());
+			}, () -> {
+				assertTrue(results.get(0).getError() instanceof OutOfMemoryError);
+			}, () -> {
+				assertTrue(results.get(1).isSuccessful());
+			});
+		}
+	}
+
+	@Nested
+	class Decoding {
+
+		private File resource(String name) throws URISyntaxException {
+			return new File(HashTestBase.class.getClassLoader().getResource(name).toURI());
+		}
+
+		/**
+		 * Pooled readers have to decode the same image as ImageIO.read
+		 */
+		@Test
+		public void sameAsFullDecode() throws Exception {
+			HashingAlgorithm hasher = getInstance(32);
+			for (String name : new String[] { "ballon.jpg", "Lenna.png", "highQuality.jpg", "transparent0.png",
+					"ballon.jpg" }) {
+				File file = resource(name);
+				assertEquals(hasher.hash(ImageIO.read(file)), hasher.hash(file));
+			}
+		}
+
+		@Test
+		public void subsampledCloseToFullDecode() throws Exception {
+			Hash fullHq = getInstance(32).hash(resource("highQuality.jpg"));
+
+			HashingAlgorithm hasher = getInstance(32);
+			hasher.setSubsampledDecoding(true);
+			Hash subsampledHq = hasher.hash(resource("highQuality.jpg"));
+
+			assertEquals(fullHq.getBitResolution(), subsampledHq.getBitResolution());
+			// Subsampled hashes are not comparable to fully decoded hashes
+			assertNotEquals(fullHq.getAlgorithmId(), subsampledHq.getAlgorithmId());
+			double distance = fullHq.hammingDistanceFast(subsampledHq.getHashValue())
+					/ (double) fullHq.getBitResolution();
+			assertTrue(distance <= subsampledDecodingTolerance(), hasher + " " + distance);
+		}
+
+		@Test
+		public void setAfterHashGeneration() {
+			HashingAlgorithm h = getInstance(32);
+			h.hash(ballon);
+			assertThrows(IllegalStateException.class, () -> {
+				h.setSubsampledDecoding(true);
+			});
+		}
+
+		@Test
+		public void alternativeSources() throws Exception {
+			HashingAlgorithm hasher = getInstance(32);
+			File file = resource("ballon.jpg");
+			Hash expected = hasher.hash(file);
+			byte[] bytes = Files.readAllBytes(file.toPath());
+
+			ByteBuffer offsetBuffer = ByteBuffer.allocate(bytes.length + 5);
+			offsetBuffer.position(5);
+			offsetBuffer.put(bytes);
+			offsetBuffer.position(5);
+
+			ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+			direct.put(bytes).flip();
+
+			assertAll(() -> {
+				assertEquals(expected, hasher.hash(file.toPath()));
+			}, () -> {
+				assertEquals(expected, hasher.hash(bytes));
+			}, () -> {
+				assertEquals(expected, hasher.hash(new ByteArrayInputStream(bytes)));
+			}, () -> {
+				assertEquals(expected, hasher.hash(offsetBuffer));
+				assertEquals(5, offsetBuffer.position());
+			}, () -> {
+				assertEquals(expected, hasher.hash(direct));
+			});
+		}
+
+		@Test
+		public void unsupportedBytes() {
+			HashingAlgorithm hasher = getInstance(32);
+			assertThrows(IOException.class, () -> {
+				hasher.hash(new byte[] { 1, 2, 3 });
+			});
+		}
+
+		@Test
+		public void unreadableFile() {
+			HashingAlgorithm hasher = getInstance(32);
+			assertThrows(IOException.class, () -> {
+				hasher.hash(new File("doesNotExist.png"));
+			});
+		}
+	}
+
+	@Nested
+	class AreaAveragingScaling {
+
+		@Test
+		public void distinctAlgorithmId() {
+			HashingAlgorithm nearestNeighbor = getInstance(32);
+			HashingAlgorithm areaAveraging = getInstance(32);
+			areaAveraging.setAreaAveragingScaling(true);
+			assertNotEquals(nearestNeighbor.algorithmId(), areaAveraging.algorithmId());
+		}
+
+		@Test
+		public void equalImage() {
+			HashingAlgorithm h = getInstance(32);
+			h.setAreaAveragingScaling(true);
+			assertEquals(0, h.hash(ballon).hammingDistance(h.hash(ballon)));
+		}
+
+		@Test
+		public void unequalImage() {
+			HashingAlgorithm h = getInstance(32);
+			h.setAreaAveragingScaling(true);
+			Hash lowQualityHash = h.hash(lowQuality);
+			Hash highQualityHash = h.hash(highQuality);
+			Hash ballonHash = h.hash(ballon);
+			assertTrue(lowQualityHash.hammingDistance(highQualityHash) < lowQualityHash.hammingDistance(ballonHash));
+		}
+
+		@Test
+		public void setAfterHashGeneration() {
+			HashingAlgorithm h = getInstance(32);
+			h.hash(ballon);
+			assertThrows(IllegalStateException.class, () -> {
+				h.setAreaAveragingScaling(true);
+			});
+		}
+	}
+
+	@Nested
+	class FilterResolution {
+
+		/**
+		 * The maximum normalized distance between the hash of an image filtered at
+		 * full resolution and filtered at a filter resolution of 256 x 256 pixels.
+		 * Filtering a downscaled image is an approximation whose drift depends on the
+		 * algorithm and the image and is reported by {@link #drift(TestReporter)}.
+		 * Hashes of unrelated images differ in about half of their bits, the bound
+		 * asserts the approximation stays clearly closer than that.
+		 */
+		private static final double FILTER_RESOLUTION_DRIFT = 1 / 3d;
+
+		private HashingAlgorithm filtered(int bitResolution, int filterResolution) {
+			HashingAlgorithm h = getInstance(bitResolution);
+			h.addFilter(Kernel.gaussianFilter(5, 5, 2));
+			h.addFilter(new Kernel.GrayScaleFilter(new double[][] { { 1 } }));
+			if (filterResolution > 0) {
+				h.setFilterResolution(filterResolution, filterResolution);
+			}
+			return h;
+		}
+
+		@Test
+		public void distinctAlgorithmId() {
+			assertNotEquals(filtered(32, 0).algorithmId(), filtered(32, 256).algorithmId());
+		}
+
+		@Test
+		public void noFilters() {
+			// Without filters the intermediate image is never created
+			HashingAlgorithm h = getInstance(32);
+			h.setFilterResolution(64, 64);
+			assertEquals(getInstance(32).hash(ballon), h.hash(ballon));
+		}
+
+		@Test
+		public void smallImage() {
+			// Images already smaller than the intermediate size are not rescaled
+			Hash expected = filtered(32, 0).hash(thumbnail);
+			Hash actual = filtered(32, 4096).hash(thumbnail);
+			assertEquals(expected.getHashValue(), actual.getHashValue());
+		}
+
+		@Test
+		public void keepsAspectRatio() {
+			HashingAlgorithm h = filtered(32, 256);
+			BufferedImage filtered = h.applyFilters(new BufferedImage(1000, 250, BufferedImage.TYPE_INT_RGB));
+			assertEquals(256, filtered.getWidth());
+			assertEquals(64, filtered.getHeight());
+
+			filtered = h.applyFilters(new BufferedImage(200, 600, BufferedImage.TYPE_INT_RGB));
+			assertEquals(85, filtered.getWidth());
+			assertEquals(256, filtered.getHeight());
+		}
+
+		@Test
+		public void invalidResolution() {
+			HashingAlgorithm h = getInstance(32);
+			assertThrows(IllegalArgumentException.class, () -> {
+				h.setFilterResolution(0, 64);
+			});
+			assertThrows(IllegalArgumentException.class, () -> {
+				h.setFilterResolution(-1, -1);
+			});
+		}
+
+		@Test
+		public void setAfterHashGeneration() {
+			HashingAlgorithm h = filtered(32, 0);
+			h.hash(ballon);
+			assertThrows(IllegalStateException.class, () -> {
+				h.setFilterResolution(256, 256);
+			});
+		}
+
+		/**
+		 * Report the distance between hashes of images filtered at full and at the
+		 * intermediate resolution
+		 */
+		@Test
+		public void drift(TestReporter reporter) {
+			BufferedImage[] images = { ballon, copyright, highQuality, lowQuality, lenna };
+			HashingAlgorithm full = filtered(64, 0);
+			HashingAlgorithm intermediate = filtered(64, 256);
+
+			double sum = 0;
+			double max = 0;
+			for (BufferedImage image : images) {
+				// The algorithm ids differ
+				Hash expected = full.hash(image);
+				double distance = expected.hammingDistanceFast(intermediate.hash(image).getHashValue())
+						/ (double) expected.getBitResolution();
+				sum += distance;
+				max = Math.max(max, distance);
+			}
+			reporter.publishEntry("filter resolution drift " + intermediate,
+					String.format("mean %.3f max %.3f", sum / images.length, max));
+			assertTrue(max <= FILTER_RESOLUTION_DRIFT, intermediate + " " + max);
+		}
+	}
+
+	@Nested
+	class LumaFiltering {
+
+		private HashingAlgorithm filtered(boolean lumaFiltering) {
+			HashingAlgorithm h = getInstance(64);
+			h.addFilter(Kernel.gaussianFilter(5, 5, 2));
+			h.addFilter(Kernel.boxFilterNormalized(3, 3));
+			h.setLumaFiltering(lumaFiltering);
+			return h;
+		}
+
+		@Test
+		public void algorithmId() {
+			HashingAlgorithm h = filtered(true);
+			if (h.isLumaOnly()) {
+				assertNotEquals(filtered(false).algorithmId(), h.algorithmId());
+			} else {
+				assertEquals(filtered(false).algorithmId(), h.algorithmId());
+			}
+		}
+
+		@Test
+		public void noFilters() {
+			HashingAlgorithm h = getInstance(32);
+			h.setLumaFiltering(true);
+			assertEquals(getInstance(32).hash(ballon), h.hash(ballon));
+		}
+
+		@Test
+		public void identityKernelKeepsLuma() {
+			HashingAlgorithm h = getInstance(32);
+			h.addFilter(Kernel.identityFilter());
+			h.setLumaFiltering(true);
+			HashingAlgorithm reference = getInstance(32);
+			for (BufferedImage image : new BufferedImage[] { ballon, highQuality, lenna }) {
+				assertEquals(reference.hash(image).getHashValue(), h.hash(image).getHashValue(), h.toString());
+			}
+		}
+
+		@Test
+		public void closeToChannelFiltering() {
+			HashingAlgorithm channels = filtered(false);
+			HashingAlgorithm luma = filtered(true);
+			for (BufferedImage image : new BufferedImage[] { ballon, highQuality, lenna }) {
+				Hash expected = channels.hash(image);
+				double distance = expected.hammingDistanceFast(luma.hash(image).getHashValue())
+						/ (double) expected.getBitResolution();
+				assertTrue(distance <= 0.1, luma + " " + distance);
+			}
+		}
+
+		@Test
+		public void setAfterHashGeneration() {
+			HashingAlgorithm h = filtered(false);
+			h.hash(ballon);
+			assertThrows(IllegalStateException.class, () -> {
+				h.setLumaFiltering(true);
+			});
+		}
+	}
+
+	@Nested
+	class Concurrency {
+
+		/**
+		 * A single fresh instance hammered from all cores has to produce the same
+		 * hashes as sequential usage. No hash is computed before the threads start to
+		 * exercise the lazy initialization as well.
+		 */
+		@Test
+		public void sharedInstance() throws Exception {
+			BufferedImage[] images = { ballon, copyright, highQuality, lowQuality, thumbnail };
+
+			HashingAlgorithm reference = getInstance(32);
+			Hash[] expected = new Hash[images.length];
+			for (int i = 0; i < images.length; i++) {
+				expected[i] = reference.hash(images[i]);
+			}
+
+			HashingAlgorithm shared = getInstance(32);
+			int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			CountDownLatch start = new CountDownLatch(1);
+			try {
+				List<Future<?>> futures = new ArrayList<>();
+				for (int t = 0; t < threads; t++) {
+					final int offset = t;
+					futures.add(executor.submit(() -> {
+						start.await();
+						for (int i = 0; i < 3 * images.length; i++) {
+							int index = (i + offset) % images.length;
+							assertEquals(expected[index], shared.hash(images[index]));
+						}
+						assertEquals(reference.getKeyResolution(), shared.getKeyResolution());
+						assertEquals(reference.algorithmId(), shared.algorithmId());
+						return null;
+					}));
+				}
+				start.countDown();
+				for (Future<?> f : futures) {
+					f.get();
+				}
+			} finally {
+				executor.shutdown();
+			}
+		}
+	}
+
 	@Nested
 	class LegacyCorectness {
 		@Test
@@ -515,6 +933,17 @@ public abstract class HashTestBase {
 		return 0;
 	}
 
+	/**
+	 * The maximum normalized distance between the hash of a subsampled and a fully
+	 * decoded image. The default permits a single differing bit. Algorithms
+	 * sensitive to aliasing override this value with the measured distance.
+	 * 
+	 * @return the tolerated normalized hamming distance
+	 */
+	protected double subsampledDecodingTolerance() {
+		return 0.03;
+	}
+
 	protected abstract HashingAlgorithm getInstance(int bitResolution);
 
 	/**
@@ -59,6 +59,12 @@ class MedianHashTest {
 			return new MedianHash(bitResolution);
 		}
 
+		// Measured distance of 0.056
+		@Override
+		protected double subsampledDecodingTolerance() {
+			return 0.09;
+		}
+
 		@Override
 		protected double differenceBallonHqHash() {
 			return 78;
@@ -0,0 +1,164 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms;
+
+import static dev.brachtendorf.jimagehash.TestResources.ballon;
+import static dev.brachtendorf.jimagehash.TestResources.lenna;
+import static dev.brachtendorf.jimagehash.TestResources.transparent0;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import dev.brachtendorf.jimagehash.hash.Hash;
+import dev.brachtendorf.jimagehash.hashAlgorithms.DifferenceHash.Precision;
+import dev.brachtendorf.jimagehash.hashAlgorithms.filter.Kernel;
+
+/**
+ * @author Kilian
+ *
+ */
+class MultiHasherTest {
+
+	private static HashingAlgorithm[] algorithms() {
+		HashingAlgorithm filtered0 = new AverageHash(64);
+		filtered0.addFilter(Kernel.gaussianFilter(3, 3, 2));
+		HashingAlgorithm filtered1 = new DifferenceHash(64, Precision.Double);
+		filtered1.addFilter(Kernel.gaussianFilter(3, 3, 2));
+		// Same filters applied at a different resolution
+		HashingAlgorithm filtered2 = new AverageHash(64);
+		filtered2.addFilter(Kernel.gaussianFilter(3, 3, 2));
+		filtered2.setFilterResolution(128, 128);
+		HashingAlgorithm filtered3 = new AverageHash(64);
+		filtered3.addFilter(Kernel.gaussianFilter(3, 3, 2));
+		filtered3.setLumaFiltering(true);
+
+		HashingAlgorithm opaque = new AverageHash(64);
+		opaque.setOpaqueHandling(Color.white, 200);
+
+		return new HashingAlgorithm[] { new AverageHash(64), new PerceptiveHash(64), new DifferenceHash(64, Precision.Triple),
+				new MedianHash(64), new WaveletHash(64, 3), new RotPHash(64), new RotAverageHash(64),
+				new AverageColorHash(64), filtered0, filtered1, filtered2, filtered3,
+				opaque };
+	}
+
+	@Test
+	public void sameAsIndividualAlgorithms() {
+		HashingAlgorithm[] algorithms = algorithms();
+		MultiHasher multiHasher = new MultiHasher(algorithms);
+
+		for (BufferedImage image : new BufferedImage[] { ballon, lenna, transparent0 }) {
+			Hash[] hashes = multiHasher.hash(image);
+			assertEquals(algorithms.length, hashes.length);
+			for (int i = 0; i < algorithms.length; i++) {
+				Hash expected = algorithms[i].hash(image);
+				assertEquals(expected, hashes[i], algorithms[i].toString());
+				assertEquals(expected.getClass(), hashes[i].getClass());
+			}
+		}
+	}
+
+	@Test
+	public void sameAsIndividualAlgorithmsFile() throws URISyntaxException, IOException {
+		HashingAlgorithm subsampled = new AverageHash(64);
+		subsampled.setSubsampledDecoding(true);
+		HashingAlgorithm subsampledFiltered = new PerceptiveHash(64);
+		subsampledFiltered.addFilter(Kernel.gaussianFilter(3, 3, 2));
+		subsampledFiltered.setSubsampledDecoding(true);
+
+		HashingAlgorithm[] algorithms = algorithms();
+		algorithms = Arrays.copyOf(algorithms, algorithms.length + 2);
+		algorithms[algorithms.length - 2] = subsampled;
+		algorithms[algorithms.length - 1] = subsampledFiltered;
+
+		File file = new File(MultiHasherTest.class.getClassLoader().getResource("highQuality.jpg").toURI());
+		Hash[] hashes = new MultiHasher(algorithms).hash(file);
+		for (int i = 0; i < algorithms.length; i++) {
+			assertEquals(algorithms[i].hash(file), hashes[i], algorithms[i].toString());
+		}
+	}
+
+	@Test
+	public void unsupportedFile(@TempDir Path folder) throws IOException {
+		File file = Files.write(folder.resolve("unsupported.png"), new byte[] { 1, 2, 3 }).toFile();
+		MultiHasher multiHasher = new MultiHasher(algorithms());
+		assertThrows(IOException.class, () -> {
+			multiHasher.hash(file);
+		});
+	}
+
+	/**
+	 * Algorithm returning a custom hash by overriding hash(BufferedImage)
+	 */
+	@SuppressWarnings("serial")
+	private static class OverridingHash extends AverageHash {
+
+		OverridingHash(int bitResolution) {
+			super(bitResolution);
+		}
+
+		@Override
+		public Hash hash(BufferedImage image) {
+			return new CustomHash(super.hash(image));
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private static class CustomHash extends Hash {
+		CustomHash(Hash hash) {
+			super(hash);
+		}
+	}
+
+	@Test
+	public void overriddenHashMethod() {
+		HashingAlgorithm overriding = new OverridingHash(64);
+		overriding.addFilter(Kernel.gaussianFilter(3, 3, 2));
+		HashingAlgorithm filtered = new AverageHash(64);
+		filtered.addFilter(Kernel.gaussianFilter(3, 3, 2));
+
+		Hash[] hashes = new MultiHasher(overriding, filtered).hash(ballon);
+		assertEquals(CustomHash.class, hashes[0].getClass());
+		assertEquals(overriding.hash(ballon), hashes[0]);
+		assertEquals(filtered.hash(ballon), hashes[1]);
+	}
+
+	@Test
+	public void hashAsMap() {
+		HashingAlgorithm[] algorithms = algorithms();
+		Map<HashingAlgorithm, Hash> hashes = new MultiHasher(List.of(algorithms)).hashAsMap(ballon);
+		for (HashingAlgorithm algo : algorithms) {
+			assertEquals(algo.hash(ballon), hashes.get(algo));
+		}
+	}
+
+	@Test
+	public void sharedStateReleased() {
+		new MultiHasher(algorithms()).hash(ballon);
+		assertNull(HashingAlgorithm.SHARED_SCALED_IMAGES.get());
+	}
+
+	@Test
+	public void empty() {
+		assertTrue(new MultiHasher().hash(ballon).length == 0);
+	}
+
+	@Test
+	public void nullAlgorithm() {
+		assertThrows(NullPointerException.class, () -> {
+			new MultiHasher(new AverageHash(32), null);
+		});
+	}
+}
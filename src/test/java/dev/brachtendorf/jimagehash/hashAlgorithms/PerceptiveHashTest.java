@@ -1,12 +1,26 @@
 package dev.brachtendorf.jimagehash.hashAlgorithms;
 
+import static dev.brachtendorf.jimagehash.TestResources.ballon;
+import static dev.brachtendorf.jimagehash.TestResources.copyright;
+import static dev.brachtendorf.jimagehash.TestResources.highQuality;
+import static dev.brachtendorf.jimagehash.TestResources.lenna;
+import static dev.brachtendorf.jimagehash.TestResources.lenna90;
+import static dev.brachtendorf.jimagehash.TestResources.lowQuality;
+import static dev.brachtendorf.jimagehash.TestResources.thumbnail;
+import static dev.brachtendorf.jimagehash.TestResources.transparent0;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
+import java.awt.image.BufferedImage;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import dev.brachtendorf.jimagehash.hashAlgorithms.PerceptiveHash.Transformation;
 
 class PerceptiveHashTest {
 
@@ -41,6 +55,40 @@ class PerceptiveHashTest {
 		}
 	}
 
+	@Nested
+	@DisplayName("Low Frequency Transformation")
+	class LowFrequencyTransformation {
+
+		@ParameterizedTest
+		@ValueSource(ints = { 14, 25, 32, 64, 100, 256 })
+		public void sameHashAsFullDct(int bitResolution) {
+			PerceptiveHash full = new PerceptiveHash(bitResolution, Transformation.Full);
+			PerceptiveHash lowFrequency = new PerceptiveHash(bitResolution, Transformation.LowFrequency);
+
+			for (BufferedImage image : new BufferedImage[] { ballon, copyright, highQuality, lowQuality, thumbnail,
+					lenna, lenna90, transparent0 }) {
+				assertEquals(full.hash(image).getHashValue(), lowFrequency.hash(image).getHashValue());
+			}
+		}
+
+		@Test
+		public void distinctAlgorithmId() {
+			assertNotEquals(new PerceptiveHash(64).algorithmId(),
+					new PerceptiveHash(64, Transformation.LowFrequency).algorithmId());
+		}
+
+		@Test
+		public void fullAlgorithmIdUnchanged() {
+			assertEquals(new PerceptiveHash(64).algorithmId(),
+					new PerceptiveHash(64, Transformation.Full).algorithmId());
+		}
+
+		@Test
+		public void defaultTransformation() {
+			assertEquals(Transformation.Full, new PerceptiveHash(64).getTransformation());
+		}
+	}
+
 	// Base Hashing algorithm tests
 	@Nested
 	class AlgorithmBaseTests extends HashTestBase {
@@ -0,0 +1,123 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms;
+
+import static dev.brachtendorf.jimagehash.TestResources.ballon;
+import static dev.brachtendorf.jimagehash.TestResources.transparent0;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import dev.brachtendorf.graphics.FastPixel;
+
+/**
+ * @author Kilian
+ *
+ */
+class PixelPlanesTest {
+
+	private static BufferedImage convert(BufferedImage image, int type) {
+		BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), type);
+		Graphics2D g = converted.createGraphics();
+		g.drawImage(image, 0, 0, null);
+		g.dispose();
+		return converted;
+	}
+
+	private static void assertSameLuma(BufferedImage image, int threshold, Color replacement) {
+		FastPixel fp = FastPixel.create(image);
+		if (threshold >= 0 && fp.hasAlpha()) {
+			fp.setReplaceOpaqueColors(threshold, replacement);
+		}
+		int width = image.getWidth();
+		int[] luma = new int[width * image.getHeight()];
+		PixelPlanes.extractLuma(image, threshold, replacement.getRGB() & 0xFFFFFF, luma);
+
+		int[] rgb = new int[luma.length];
+		PixelPlanes.extractRgb(image, threshold, replacement.getRGB() & 0xFFFFFF, rgb);
+
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < image.getHeight(); y++) {
+				assertEquals(fp.getLuma(x, y), luma[y * width + x]);
+				int expectedRgb = fp.getRed(x, y) << 16 | fp.getGreen(x, y) << 8 | fp.getBlue(x, y);
+				assertEquals(expectedRgb, rgb[y * width + x]);
+			}
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_ARGB_PRE,
+			BufferedImage.TYPE_INT_BGR, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR,
+			BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_USHORT_GRAY, BufferedImage.TYPE_BYTE_INDEXED })
+	public void sameAsPixelAccessor(int type) {
+		assertSameLuma(convert(ballon, type), -1, Color.orange);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_ARGB_PRE,
+			BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR, BufferedImage.TYPE_BYTE_INDEXED })
+	public void opaqueReplacement(int type) {
+		BufferedImage image = convert(transparent0, type);
+		assertSameLuma(image, 100, Color.green);
+		assertSameLuma(image, 255, Color.blue);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR })
+	public void subimage(int type) {
+		BufferedImage sub = convert(ballon, type).getSubimage(13, 29, 200, 150);
+		int[] expected = new int[200 * 150];
+		PixelPlanes.extractLuma(convert(sub, type), -1, 0, expected);
+		int[] luma = new int[200 * 150];
+		PixelPlanes.extractLuma(sub, -1, 0, luma);
+		assertArrayEquals(expected, luma);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_3BYTE_BGR,
+			BufferedImage.TYPE_4BYTE_ABGR })
+	public void exactGrayLuma(int type) {
+		BufferedImage gray = new BufferedImage(256, 1, BufferedImage.TYPE_INT_RGB);
+		for (int v = 0; v < 256; v++) {
+			gray.setRGB(v, 0, v * 0x010101);
+		}
+		gray = convert(gray, type);
+		int[] luma = new int[256];
+		PixelPlanes.extractGrayLuma(gray, -1, 0, luma);
+		for (int v = 0; v < 256; v++) {
+			assertEquals(v, luma[v]);
+		}
+
+		// Colored pixels are not affected
+		BufferedImage image = convert(ballon, type);
+		int[] expected = new int[image.getWidth() * image.getHeight()];
+		PixelPlanes.extractLuma(image, -1, 0, expected);
+		int[] colored = new int[expected.length];
+		PixelPlanes.extractGrayLuma(image, -1, 0, colored);
+		for (int i = 0; i < expected.length; i++) {
+			int rgb = image.getRGB(i % image.getWidth(), i / image.getWidth()) & 0xFFFFFF;
+			if (rgb != (rgb & 0xFF) * 0x010101) {
+				assertEquals(expected[i], colored[i]);
+			}
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_BGR, BufferedImage.TYPE_3BYTE_BGR,
+			BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_USHORT_GRAY })
+	public void readOnlyScaleOfTargetDimension(int type) {
+		BufferedImage image = convert(ballon, type);
+		int width = image.getWidth();
+		int height = image.getHeight();
+		HashingAlgorithm hasher = new AverageHash(64);
+
+		assertSame(image, hasher.scaleReadOnly(image, width, height));
+		assertArrayEquals(hasher.extractLuma(image, hasher.scale(image, width, height)),
+				hasher.extractLuma(image, image));
+	}
+}
@@ -0,0 +1,140 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms;
+
+import static dev.brachtendorf.jimagehash.TestResources.lenna;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import dev.brachtendorf.graphics.FastPixel;
+import dev.brachtendorf.graphics.ImageUtil;
+
+/**
+ * @author Kilian
+ *
+ */
+class RingPartitionTest {
+
+	private static final int SIZE = 20;
+
+	private static int partition(double x, double y) {
+		x -= (SIZE - 1) / 2d;
+		y -= (SIZE - 1) / 2d;
+		return (int) Math.sqrt(x * x + y * y);
+	}
+
+	@Test
+	public void slicesCoverMappedPixels() {
+		RingPartition partition = RingPartition.of(RingPartitionTest.class, SIZE, SIZE, 8,
+				RingPartitionTest::partition);
+
+		int[] expectedSize = new int[8];
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				int bucket = partition(x, y);
+				if (bucket < 8) {
+					expectedSize[bucket]++;
+				}
+			}
+		}
+
+		int offset = 0;
+		for (int i = 0; i < 8; i++) {
+			assertEquals(offset, partition.getOffset(i));
+			assertEquals(expectedSize[i], partition.getSize(i));
+			offset += expectedSize[i];
+		}
+		assertEquals(offset, partition.getPixelCount());
+	}
+
+	@Test
+	public void lumaInScanOrder() {
+		RingPartition partition = RingPartition.of(RingPartitionTest.class, SIZE, SIZE, 8,
+				RingPartitionTest::partition);
+		BufferedImage scaled = ImageUtil.getScaledInstance(lenna, SIZE, SIZE);
+		FastPixel fp = FastPixel.create(scaled);
+		int[] luma = new int[SIZE * SIZE];
+		PixelPlanes.extractLuma(scaled, -1, 0, luma);
+
+		int[] values = new int[partition.getPixelCount()];
+		partition.extractLuma(luma, values);
+
+		int[] cursor = new int[8];
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				int bucket = partition(x, y);
+				if (bucket < 8) {
+					assertEquals(fp.getLuma(x, y), values[partition.getOffset(bucket) + cursor[bucket]++]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void sortedLuma() {
+		RingPartition partition = RingPartition.of(RingPartitionTest.class, SIZE, SIZE, 8,
+				RingPartitionTest::partition);
+		int[] luma = new int[SIZE * SIZE];
+		PixelPlanes.extractLuma(ImageUtil.getScaledInstance(lenna, SIZE, SIZE), -1, 0, luma);
+
+		int[] values = new int[partition.getPixelCount()];
+		partition.extractLuma(luma, values);
+		double[] sorted = new double[partition.getPixelCount()];
+		partition.extractSortedLuma(luma, new int[8 * 256], sorted);
+
+		for (int i = 0; i < 8; i++) {
+			int from = partition.getOffset(i);
+			int to = from + partition.getSize(i);
+			double[] expected = Arrays.stream(values, from, to).sorted().asDoubleStream().toArray();
+			assertArrayEquals(expected, Arrays.copyOfRange(sorted, from, to));
+		}
+	}
+
+	@Test
+	public void layoutShared() {
+		RingPartition first = RingPartition.of(RingPartitionTest.class, SIZE, SIZE, 8, RingPartitionTest::partition);
+		RingPartition second = RingPartition.of(RingPartitionTest.class, SIZE, SIZE, 8, RingPartitionTest::partition);
+		assertSame(first, second);
+	}
+
+	@Test
+	public void layoutPerOwner() {
+		RingPartition first = RingPartition.of(RingPartitionTest.class, SIZE, SIZE, 8, RingPartitionTest::partition);
+		RingPartition second = RingPartition.of(RotPHash.class, SIZE, SIZE, 8, RingPartitionTest::partition);
+		assertNotSame(first, second);
+	}
+
+	@Test
+	public void layoutOfAlgorithmShared() {
+		RingPartition first = RingPartition.of(new RotPHash(64), RotPHash.class, SIZE, SIZE, 8,
+				RingPartitionTest::partition);
+		// Subclasses keeping the partition function share the layout as well
+		RingPartition second = RingPartition.of(new RotPHash(64) {
+			private static final long serialVersionUID = 1L;
+		}, RotPHash.class, SIZE, SIZE, 8, RingPartitionTest::partition);
+		assertSame(first, second);
+	}
+
+	@Test
+	public void layoutOfOverriddenPartitionNotShared() {
+		RotPHash overriding = new RotPHash(64) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected int computePartition(double originalX, double originalY) {
+				return 0;
+			}
+		};
+		RingPartition first = RingPartition.of(overriding, RotPHash.class, SIZE, SIZE, 8,
+				RingPartitionTest::partition);
+		RingPartition second = RingPartition.of(overriding, RotPHash.class, SIZE, SIZE, 8,
+				RingPartitionTest::partition);
+		assertNotSame(first, second);
+		assertNotSame(RingPartition.of(RotPHash.class, SIZE, SIZE, 8, RingPartitionTest::partition), first);
+	}
+}
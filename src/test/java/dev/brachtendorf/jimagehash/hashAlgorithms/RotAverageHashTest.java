@@ -1,9 +1,12 @@
 package dev.brachtendorf.jimagehash.hashAlgorithms;
 
+import static dev.brachtendorf.jimagehash.TestResources.ballon;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
+import java.math.BigInteger;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -32,6 +35,31 @@ class RotAverageHashTest {
 		});
 	}
 
+	/**
+	 * Subclasses whose partition function depends on the instance must not share
+	 * a layout
+	 */
+	@Test
+	public void instanceDependentPartition() {
+		class Shifted extends RotAverageHash {
+			private static final long serialVersionUID = 1L;
+			private final int shift;
+
+			Shifted(int shift) {
+				super(32);
+				this.shift = shift;
+			}
+
+			@Override
+			public int computePartition(double originalX, double originalY) {
+				return super.computePartition(originalX, originalY) + shift;
+			}
+		}
+		BigInteger unshifted = new Shifted(0).hash(ballon).getHashValue();
+		assertEquals(new RotAverageHash(32).hash(ballon).getHashValue(), unshifted);
+		assertNotEquals(unshifted, new Shifted(3).hash(ballon).getHashValue());
+	}
+
 	@Test
 	@DisplayName("Consistent AlgorithmIds noPreCacheFix")
 	public void noPreCacheFix() {
@@ -0,0 +1,46 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kilian
+ *
+ */
+class WorkspaceCacheTest {
+
+	private final WorkspaceCache<int[]> cache = new WorkspaceCache<>((width, height) -> new int[width * height]);
+
+	@Test
+	public void reuseWorkspace() {
+		int[] workspace = cache.get(4, 3);
+		assertSame(workspace, cache.get(4, 3));
+		assertNotSame(workspace, cache.get(3, 4));
+	}
+
+	@Test
+	public void evictLeastRecentlyUsed() {
+		int[] first = cache.get(1, 1);
+		int[] second = cache.get(2, 1);
+		for (int i = 3; i <= WorkspaceCache.MAX_WORKSPACES; i++) {
+			cache.get(i, 1);
+		}
+		// Mark the first workspace as recently used
+		assertSame(first, cache.get(1, 1));
+		cache.get(100, 1);
+		assertSame(first, cache.get(1, 1));
+		assertNotSame(second, cache.get(2, 1));
+	}
+
+	@Test
+	public void confinedToThread() throws InterruptedException {
+		int[] workspace = cache.get(5, 5);
+		int[][] other = new int[1][];
+		Thread t = new Thread(() -> other[0] = cache.get(5, 5));
+		t.start();
+		t.join();
+		assertNotSame(workspace, other[0]);
+	}
+}
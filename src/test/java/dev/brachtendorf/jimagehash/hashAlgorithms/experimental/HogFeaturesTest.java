@@ -0,0 +1,148 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms.experimental;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import dev.brachtendorf.MathUtil;
+import dev.brachtendorf.jimagehash.hashAlgorithms.experimental.HogFeatures.IntegralHistogram;
+
+/**
+ * @author Kilian
+ *
+ */
+class HogFeaturesTest {
+
+	/**
+	 * Histograms computed with the magnitude and direction of every pixel. If
+	 * truncate is true the contributions are truncated while being summed
+	 */
+	private static double[] perPixelHistograms(int[] luma, int width, int height, int cellWidth, int cellHeight,
+			int numBins, boolean truncate) {
+		double binFac = (180 - 180d / (numBins)) / (numBins - 1);
+		int xCells = width / cellWidth;
+		int yCells = height / cellHeight;
+		double[] hog = new double[xCells * yCells * numBins];
+		for (int x = 0; x < xCells * cellWidth; x++) {
+			for (int y = 0; y < yCells * cellHeight; y++) {
+				double magnitude = 0;
+				double direction = 0;
+				if (x > 0 && y > 0 && x < width - 1 && y < height - 1) {
+					int h = luma[y * width + x + 1] - luma[y * width + x - 1];
+					int v = luma[(y - 1) * width + x] - luma[(y + 1) * width + x];
+					magnitude = Math.sqrt(h * h + v * v);
+					direction = h == 0 ? 180 : Math.toDegrees(Math.atan(v / (double) h)) + 90;
+				}
+				int cell = (x / cellWidth * yCells + y / cellHeight) * numBins;
+				double binF = direction / binFac;
+				int bin = (int) binF;
+				double nextBucketShare = MathUtil.getFractionalPart(binF);
+				double currentShare = 1 - nextBucketShare;
+				if (bin != numBins) {
+					add(hog, cell + bin, currentShare * magnitude, truncate);
+					add(hog, cell + (bin == numBins - 1 ? 0 : bin + 1), nextBucketShare * magnitude, truncate);
+				} else {
+					add(hog, cell, currentShare * magnitude, truncate);
+				}
+			}
+		}
+		return hog;
+	}
+
+	private static void add(double[] hog, int index, double value, boolean truncate) {
+		hog[index] = truncate ? (int) (hog[index] + value) : hog[index] + value;
+	}
+
+	private static int[] randomPlane(Random rng, int width, int height) {
+		int[] luma = new int[width * height];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				// Smooth gradients with noise
+				luma[y * width + x] = (x * 7 + y * 3 + rng.nextInt(60)) & 255;
+			}
+		}
+		return luma;
+	}
+
+	private static double[] toDouble(int[] values) {
+		double[] result = new double[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = values[i];
+		}
+		return result;
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 2, 4, 7, 9, 12 })
+	public void sameAsPerPixel(int numBins) {
+		Random rng = new Random(numBins);
+		int[] luma = randomPlane(rng, 24, 18);
+		HogFeatures features = new HogFeatures(luma, 24, 18);
+		for (int[] cell : new int[][] { { 1, 1 }, { 2, 2 }, { 3, 3 }, { 6, 2 }, { 5, 4 } }) {
+			assertArrayEquals(perPixelHistograms(luma, 24, 18, cell[0], cell[1], numBins, true),
+					toDouble(features.cellHistograms(cell[0], cell[1], numBins)));
+		}
+	}
+
+	@Test
+	public void extremeGradients() {
+		// Alternating black and white pixels
+		int[] luma = new int[16 * 16];
+		for (int i = 0; i < luma.length; i++) {
+			luma[i] = ((i % 16 + i / 16) % 3 == 0) ? 255 : 0;
+		}
+		assertArrayEquals(perPixelHistograms(luma, 16, 16, 4, 4, 9, true),
+				toDouble(new HogFeatures(luma, 16, 16).cellHistograms(4, 4, 9)));
+	}
+
+	@Test
+	public void incompleteCells() {
+		HogFeatures features = new HogFeatures(randomPlane(new Random(0), 10, 7), 10, 7);
+		// 2 x 2 cells
+		assertEquals(2 * 2 * 4, features.cellHistograms(4, 3, 4).length);
+		assertEquals(0, features.cellHistograms(11, 3, 4).length);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 4, 9 })
+	public void integralHistogram(int numBins) {
+		int[] luma = randomPlane(new Random(numBins), 32, 20);
+		IntegralHistogram integral = new HogFeatures(luma, 32, 20).integralHistogram(numBins);
+		assertEquals(numBins, integral.getNumBins());
+		// Multiple cell sizes derived from the same integral histogram
+		for (int[] cell : new int[][] { { 1, 1 }, { 4, 4 }, { 8, 5 }, { 32, 20 }, { 3, 7 } }) {
+			assertArrayEquals(perPixelHistograms(luma, 32, 20, cell[0], cell[1], numBins, false),
+					integral.cellHistograms(cell[0], cell[1]), 1e-9);
+		}
+	}
+
+	@Test
+	public void integralSum() {
+		int[] luma = randomPlane(new Random(1), 12, 12);
+		IntegralHistogram integral = new HogFeatures(luma, 12, 12).integralHistogram(4);
+		double[] cells = perPixelHistograms(luma, 12, 12, 1, 1, 4, false);
+		double expected = 0;
+		for (int x = 2; x < 7; x++) {
+			for (int y = 3; y < 11; y++) {
+				expected += cells[(x * 12 + y) * 4 + 2];
+			}
+		}
+		assertEquals(expected, integral.sum(2, 3, 7, 11, 2), 1e-9);
+		assertEquals(0, integral.sum(5, 5, 5, 9, 1));
+	}
+
+	@Test
+	public void invalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new HogFeatures(new int[5], 2, 2));
+		HogFeatures features = new HogFeatures(new int[4], 2, 2);
+		assertThrows(IllegalArgumentException.class, () -> features.cellHistograms(0, 1, 4));
+		assertThrows(IllegalArgumentException.class, () -> features.cellHistograms(1, 1, 0));
+		assertThrows(IllegalArgumentException.class, () -> features.integralHistogram(-1));
+	}
+}
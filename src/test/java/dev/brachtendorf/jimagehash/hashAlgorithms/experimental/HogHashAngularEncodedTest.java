@@ -66,6 +66,12 @@ class HogHashAngularEncodedTest {
 		protected HashingAlgorithm getInstance(int bitResolution) {
 			return new HogHashAngularEncoded(bitResolution);
 		}
+
+		// Measured distance of 0.278
+		@Override
+		protected double subsampledDecodingTolerance() {
+			return 0.31;
+		}
 		
 		@Override
 		protected double differenceBallonHqHash() {
@@ -0,0 +1,111 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms.filter;
+
+import static dev.brachtendorf.jimagehash.TestResources.ballon;
+import static dev.brachtendorf.jimagehash.TestResources.transparent0;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import dev.brachtendorf.graphics.FastPixel;
+import dev.brachtendorf.jimagehash.hashAlgorithms.filter.Kernel.GrayScaleFilter;
+
+/**
+ * @author Kilian
+ *
+ */
+class FilterChainTest {
+
+	private static BufferedImage convert(BufferedImage image, int type) {
+		BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), type);
+		Graphics2D g = converted.createGraphics();
+		g.drawImage(image, 0, 0, null);
+		g.dispose();
+		return converted;
+	}
+
+	private static void assertSameAsSequential(BufferedImage image, List<Filter> filters) {
+		BufferedImage expected = image;
+		for (Filter filter : filters) {
+			expected = filter.filter(expected);
+		}
+		BufferedImage actual = FilterChain.filter(image, filters);
+		assertEquals(expected.getType(), actual.getType());
+		int width = image.getWidth();
+		int height = image.getHeight();
+		assertArrayEquals(expected.getRGB(0, 0, width, height, null, 0, width),
+				actual.getRGB(0, 0, width, height, null, 0, width));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_BGR,
+			BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR })
+	public void linearKernels(int type) {
+		assertSameAsSequential(convert(transparent0, type), List.of(Kernel.gaussianFilter(5, 5, 2),
+				Kernel.boxFilterNormalized(3, 3), new MultiKernel(Kernel.gaussianFilter(3, 3, 1))));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_3BYTE_BGR,
+			BufferedImage.TYPE_4BYTE_ABGR })
+	public void grayScale(int type) {
+		// Gray scale filters drop the alpha channel
+		assertSameAsSequential(convert(transparent0, type),
+				List.of(Kernel.boxFilterNormalized(3, 3), new GrayScaleFilter(new double[][] { { 1 } }),
+						Kernel.gaussianFilter(5, 5, 2), new MaximumKernel(3, 3)));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_3BYTE_BGR })
+	public void outOfRange(int type) {
+		// Values outside of [0 - 255] are truncated by the intermediate image
+		assertSameAsSequential(convert(ballon, type), List.of(Kernel.gaussianFilter(3, 3, 1),
+				Kernel.embossleftRightFilter(2), Kernel.boxFilter(3, 3, 2), Kernel.boxFilterNormalized(3, 3)));
+	}
+
+	@Test
+	public void interruptedByOtherFilter() {
+		assertSameAsSequential(ballon, List.of(Kernel.boxFilterNormalized(3, 3), Kernel.gaussianFilter(3, 3, 1),
+				new SobelFilter(0.3), new MedianKernel(3, 3), Kernel.boxFilterNormalized(5, 5)));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR })
+	public void lumaPlane(int type) {
+		BufferedImage image = convert(transparent0, type);
+		BufferedImage filtered = FilterChain.filterLuma(image, List.of(Kernel.identityFilter()));
+
+		FastPixel source = FastPixel.create(image);
+		FastPixel fp = FastPixel.create(filtered);
+		assertArrayEquals(source.getLuma(), fp.getRed());
+		assertArrayEquals(source.getLuma(), fp.getGreen());
+		assertArrayEquals(source.getLuma(), fp.getBlue());
+		assertArrayEquals(source.getAlpha(), fp.getAlpha());
+	}
+
+	@Test
+	public void lumaCloseToChannels() {
+		List<Filter> filters = List.of(Kernel.gaussianFilter(5, 5, 2), Kernel.boxFilterNormalized(3, 3));
+		int[][] expected = FastPixel.create(FilterChain.filter(ballon, filters)).getLuma();
+		int[][] luma = FastPixel.create(FilterChain.filterLuma(ballon, filters)).getLuma();
+		for (int x = 0; x < expected.length; x++) {
+			for (int y = 0; y < expected[0].length; y++) {
+				// Rounding of the individual channels
+				assertTrue(Math.abs(expected[x][y] - luma[x][y]) <= 2);
+			}
+		}
+	}
+
+	@Test
+	public void noFilters() {
+		assertSame(ballon, FilterChain.filter(ballon, List.of()));
+	}
+}
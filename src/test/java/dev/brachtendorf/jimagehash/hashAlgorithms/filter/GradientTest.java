@@ -0,0 +1,158 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms.filter;
+
+import static dev.brachtendorf.jimagehash.TestResources.ballon;
+import static dev.brachtendorf.jimagehash.TestResources.transparent0;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import dev.brachtendorf.graphics.FastPixel;
+import dev.brachtendorf.jimagehash.hashAlgorithms.filter.Gradient.Operator;
+
+/**
+ * @author Kilian
+ *
+ */
+class GradientTest {
+
+	/**
+	 * Magnitude computed by convolving the plane with the separated operator
+	 * kernels
+	 */
+	private static int[][] separatedMagnitude(int[][] plane, Operator operator, int cutOff) {
+		double[][] derivative = { { 1, 0, -1 } };
+		double[][] smoothing = { { operator.side, operator.center, operator.side } };
+		double[][] derivativeColumn = { { 1 }, { 0 }, { -1 } };
+		double[][] smoothingColumn = { { operator.side }, { operator.center }, { operator.side } };
+		int[][] x = new MultiKernel(derivative, smoothingColumn).applyInt(plane);
+		int[][] y = new MultiKernel(derivativeColumn, smoothing).applyInt(plane);
+		int[][] result = new int[plane.length][plane[0].length];
+		for (int i = 0; i < plane.length; i++) {
+			for (int j = 0; j < plane[0].length; j++) {
+				int magnitude = (int) Math.sqrt(x[i][j] * x[i][j] + y[i][j] * y[i][j]);
+				result[i][j] = magnitude < cutOff ? 0 : magnitude;
+			}
+		}
+		return result;
+	}
+
+	private static int[][] randomInput(Random rng, int rows, int cols) {
+		int[][] input = new int[rows][cols];
+		for (int[] row : input) {
+			for (int i = 0; i < row.length; i++) {
+				row[i] = rng.nextInt(256);
+			}
+		}
+		return input;
+	}
+
+	private static void assertSameImage(BufferedImage expected, BufferedImage actual) {
+		int width = expected.getWidth();
+		int height = expected.getHeight();
+		assertArrayEquals(expected.getRGB(0, 0, width, height, null, 0, width),
+				actual.getRGB(0, 0, width, height, null, 0, width));
+	}
+
+	@ParameterizedTest
+	@EnumSource(Operator.class)
+	public void sameAsSeparatedKernels(Operator operator) {
+		Random rng = new Random(operator.ordinal());
+		for (int[] size : new int[][] { { 1, 1 }, { 1, 7 }, { 6, 1 }, { 2, 2 }, { 17, 23 } }) {
+			int[][] input = randomInput(rng, size[0], size[1]);
+			assertArrayEquals(separatedMagnitude(input, operator, 0), Gradient.magnitude(input, operator, 0));
+			assertArrayEquals(separatedMagnitude(input, operator, 300), Gradient.magnitude(input, operator, 300));
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(Operator.class)
+	public void rowParallel(Operator operator) {
+		int[][] input = randomInput(new Random(10), 700, 400);
+		assertArrayEquals(separatedMagnitude(input, operator, 0), Gradient.magnitude(input, operator, 0));
+	}
+
+	@Test
+	public void derivatives() {
+		// Values increase to the right
+		int width = 5;
+		int height = 4;
+		int[] plane = new int[width * height];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				plane[y * width + x] = x * 10;
+			}
+		}
+		Gradient g = Gradient.compute(plane, width, height, Operator.SOBEL, true);
+		assertEquals(width, g.getWidth());
+		assertEquals(height, g.getHeight());
+		// Center pixel: 4 * 20
+		assertEquals(80, g.getDx()[width + 2]);
+		// Left edge is expanded: 4 * 10
+		assertEquals(40, g.getDx()[width]);
+		assertEquals(0, g.getDy()[width + 2]);
+		assertEquals(80, g.getMagnitude()[width + 2]);
+		assertEquals(0, g.getOrientation()[width + 2]);
+	}
+
+	@Test
+	public void verticalOrientation() {
+		// Values increase downwards
+		int[] plane = { 0, 0, 0, 1, 1, 1, 2, 2, 2 };
+		Gradient g = Gradient.compute(plane, 3, 3, Operator.SCHARR, true);
+		assertEquals(32, g.getDy()[4]);
+		assertEquals(Math.PI / 2, g.getOrientation()[4]);
+	}
+
+	@Test
+	public void noOrientation() {
+		assertNull(Gradient.compute(new int[4], 2, 2, Operator.SOBEL, false).getOrientation());
+	}
+
+	@Test
+	public void invalidDimension() {
+		assertThrows(IllegalArgumentException.class,
+				() -> Gradient.compute(new int[6], 2, 2, Operator.SOBEL, false));
+		assertThrows(IllegalArgumentException.class,
+				() -> Gradient.compute(new int[0], 0, 0, Operator.SOBEL, false));
+	}
+
+	/**
+	 * Image created by the filters before the derivatives were fused
+	 */
+	private static BufferedImage separatedFilter(BufferedImage image, int[][] plane, Operator operator,
+			double threshold) {
+		FastPixel fp = FastPixel.create(image);
+		BufferedImage expected = new BufferedImage(image.getWidth(), image.getHeight(), image.getType());
+		FastPixel fpSet = FastPixel.create(expected);
+		fpSet.setAverageGrayscale(separatedMagnitude(plane, operator, (int) (threshold * 255)));
+		if (fpSet.hasAlpha()) {
+			fpSet.setAlpha(fp.getAlpha());
+		}
+		return expected;
+	}
+
+	@Test
+	public void sobelFilter() {
+		for (BufferedImage image : new BufferedImage[] { ballon, transparent0 }) {
+			int[][] gray = FastPixel.create(image).getAverageGrayscale();
+			assertSameImage(separatedFilter(image, gray, Operator.SOBEL, 0.2), new SobelFilter(0.2).filter(image));
+		}
+	}
+
+	@Test
+	public void scharrFilter() {
+		// The scharr filter uses the red channel
+		for (BufferedImage image : new BufferedImage[] { ballon, transparent0 }) {
+			int[][] red = FastPixel.create(image).getRed();
+			assertSameImage(separatedFilter(image, red, Operator.SCHARR, 0.5), new ScharrFilter(0.5).filter(image));
+		}
+	}
+}
@@ -3,11 +3,19 @@ package dev.brachtendorf.jimagehash.hashAlgorithms.filter;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import dev.brachtendorf.ArrayUtil;
 import dev.brachtendorf.jimagehash.hashAlgorithms.filter.Kernel;
@@ -460,4 +468,135 @@ class KernelTest {
 
 	}
 
+
+	/**
+	 * Kernel evaluated pixel by pixel serving as reference for the convolution
+	 * engine
+	 */
+	@SuppressWarnings("serial")
+	private static class PixelwiseKernel extends Kernel {
+
+		PixelwiseKernel(double[][] mask, EdgeHandlingStrategy edgeHandling) {
+			super(mask, edgeHandling);
+		}
+
+		@Override
+		protected double calcValue(double[][] input, int x, int y) {
+			return super.calcValue(input, x, y);
+		}
+	}
+
+	@Nested
+	class ConvolutionEngine {
+
+		private void assertSameAsPixelwise(int rows, int cols, int maskRows, int maskCols,
+				EdgeHandlingStrategy edgeHandling) {
+			Random rng = new Random(rows * 31 + cols);
+			double[][] mask = new double[maskRows][maskCols];
+			for (double[] row : mask) {
+				for (int i = 0; i < row.length; i++) {
+					row[i] = rng.nextGaussian();
+				}
+			}
+			int[][] intInput = new int[rows][cols];
+			double[][] doubleInput = new double[rows][cols];
+			byte[][] byteInput = new byte[rows][cols];
+			for (int r = 0; r < rows; r++) {
+				for (int c = 0; c < cols; c++) {
+					intInput[r][c] = rng.nextInt(256);
+					doubleInput[r][c] = rng.nextDouble() * 255;
+					byteInput[r][c] = (byte) rng.nextInt();
+				}
+			}
+
+			Kernel kernel = new Kernel(mask, edgeHandling);
+			Kernel reference = new PixelwiseKernel(mask, edgeHandling);
+			assertTrue(kernel.isConvolution());
+			assertFalse(reference.isConvolution());
+
+			assertArrayEquals(reference.apply(intInput), kernel.apply(intInput));
+			assertArrayEquals(reference.apply(doubleInput), kernel.apply(doubleInput));
+			assertArrayEquals(reference.apply(byteInput), kernel.apply(byteInput));
+			assertArrayEquals(reference.applyInt(intInput), kernel.applyInt(intInput));
+			assertArrayEquals(reference.applyInt(doubleInput), kernel.applyInt(doubleInput));
+			assertArrayEquals(reference.applyByte(byteInput), kernel.applyByte(byteInput));
+			assertArrayEquals(reference.applyByte(doubleInput), kernel.applyByte(doubleInput));
+		}
+
+		@ParameterizedTest
+		@EnumSource(EdgeHandlingStrategy.class)
+		public void sameAsPixelwise(EdgeHandlingStrategy edgeHandling) {
+			// Wrap only supports a kernel radius of 1
+			assertSameAsPixelwise(10, 15, 3, 3, edgeHandling);
+			assertSameAsPixelwise(7, 4, 1, 3, edgeHandling);
+			assertSameAsPixelwise(4, 7, 3, 1, edgeHandling);
+		}
+
+		@ParameterizedTest
+		@EnumSource(value = EdgeHandlingStrategy.class, names = { "NO_OP", "EXPAND", "MIRROR" })
+		public void largeMask(EdgeHandlingStrategy edgeHandling) {
+			assertSameAsPixelwise(20, 25, 7, 5, edgeHandling);
+		}
+
+		@Test
+		public void maskLargerThanInput() {
+			assertSameAsPixelwise(3, 2, 9, 7, EdgeHandlingStrategy.EXPAND);
+			assertSameAsPixelwise(3, 2, 9, 7, EdgeHandlingStrategy.NO_OP);
+		}
+
+		@Test
+		public void rowParallel() {
+			// Exceeds the parallelism threshold
+			assertSameAsPixelwise(300, 400, 5, 5, EdgeHandlingStrategy.EXPAND);
+		}
+
+		@Test
+		public void gaussianSeparable() {
+			double[][] mask = Kernel.gaussianFilter(7, 5, 2).mask;
+			double[] flat = new double[7 * 5];
+			for (int r = 0; r < 7; r++) {
+				System.arraycopy(mask[r], 0, flat, r * 5, 5);
+			}
+			double[][] separated = Convolution.separate(flat, 7, 5);
+			assertNotNull(separated);
+			for (int r = 0; r < 7; r++) {
+				for (int c = 0; c < 5; c++) {
+					assertEquals(mask[r][c], separated[0][r] * separated[1][c], 1e-15);
+				}
+			}
+		}
+
+		@Test
+		public void nonSeparable() {
+			assertNull(Convolution.separate(new double[] { 1, 2, 3, 4 }, 2, 2));
+			assertNull(Convolution.separate(new double[] { 0, 0, 0, 0 }, 2, 2));
+			// Single rows and columns are already one dimensional
+			assertNull(Convolution.separate(new double[] { 1, 2, 3 }, 1, 3));
+		}
+
+		@ParameterizedTest
+		@EnumSource(value = EdgeHandlingStrategy.class, names = { "NO_OP", "EXPAND", "MIRROR" })
+		public void separableSameAsPixelwise(EdgeHandlingStrategy edgeHandling) {
+			Random rng = new Random(0);
+			double[][] input = new double[40][30];
+			for (double[] row : input) {
+				for (int i = 0; i < row.length; i++) {
+					row[i] = rng.nextDouble() * 255;
+				}
+			}
+			double[][] mask = Kernel.gaussianFilter(5, 7, 1.5).mask;
+			double[][] expected = new PixelwiseKernel(mask, edgeHandling).apply(input);
+			double[][] actual = new Kernel(mask, edgeHandling).apply(input);
+			for (int r = 0; r < input.length; r++) {
+				assertArrayEquals(expected[r], actual[r], 1e-9);
+			}
+		}
+
+		@Test
+		public void nonLinearKernelsPixelwise() {
+			assertFalse(new MedianKernel(3, 3).isConvolution());
+			assertFalse(new MinimumKernel(3, 3).isConvolution());
+			assertFalse(new MaximumKernel(3, 3).isConvolution());
+		}
+	}
 }
@@ -3,10 +3,15 @@ package dev.brachtendorf.jimagehash.hashAlgorithms.filter;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import dev.brachtendorf.ArrayUtil;
 import dev.brachtendorf.jimagehash.hashAlgorithms.filter.Kernel;
+import dev.brachtendorf.jimagehash.hashAlgorithms.filter.Kernel.EdgeHandlingStrategy;
 import dev.brachtendorf.jimagehash.hashAlgorithms.filter.MaximumKernel;
 
 /**
@@ -15,6 +20,48 @@ import dev.brachtendorf.jimagehash.hashAlgorithms.filter.MaximumKernel;
  */
 class MaximumKernelTest {
 
+	/**
+	 * Maximum of each neighborhood computed by scanning the window
+	 */
+	static int[][] scannedMaximum(int[][] input, int maskRows, int maskCols, EdgeHandlingStrategy strategy) {
+		int rows = input.length;
+		int cols = input[0].length;
+		int[][] result = new int[rows][cols];
+		for (int r = 0; r < rows; r++) {
+			for (int c = 0; c < cols; c++) {
+				int max = Integer.MIN_VALUE;
+				boolean outside = false;
+				for (int mr = -maskRows / 2; mr <= maskRows / 2; mr++) {
+					for (int mc = -maskCols / 2; mc <= maskCols / 2; mc++) {
+						int y = r + mr;
+						int x = c + mc;
+						if (y < 0 || y >= rows || x < 0 || x >= cols) {
+							if (strategy.equals(EdgeHandlingStrategy.NO_OP)) {
+								outside = true;
+								continue;
+							}
+							y = strategy.correctPixel(y, rows);
+							x = strategy.correctPixel(x, cols);
+						}
+						max = Math.max(max, input[y][x]);
+					}
+				}
+				result[r][c] = outside ? input[r][c] : max;
+			}
+		}
+		return result;
+	}
+
+	static int[][] randomInput(Random rng, int rows, int cols) {
+		int[][] input = new int[rows][cols];
+		for (int[] row : input) {
+			for (int i = 0; i < row.length; i++) {
+				row[i] = rng.nextInt(2000) - 1000;
+			}
+		}
+		return input;
+	}
+
 	@Test
 	public void identity() {
 		double[][] arr = new double[10][10];
@@ -73,4 +120,37 @@ class MaximumKernelTest {
 		assertArrayEquals(res, result);
 	}
 
+	@ParameterizedTest
+	@EnumSource(value = EdgeHandlingStrategy.class, names = { "NO_OP", "EXPAND", "MIRROR" })
+	public void sameAsScanning(EdgeHandlingStrategy strategy) {
+		int[][] input = randomInput(new Random(strategy.ordinal()), 37, 41);
+		for (int size : new int[] { 3, 5, 9 }) {
+			// Blocks of the window length do not align with the input
+			MaximumKernel kernel = new MaximumKernel(size, size + 2);
+			kernel.edgeHandling = strategy;
+			assertArrayEquals(scannedMaximum(input, size + 2, size, strategy), kernel.applyInt(input));
+		}
+	}
+
+	@Test
+	public void maskLargerThanInput() {
+		int[][] input = randomInput(new Random(1), 4, 3);
+		assertArrayEquals(scannedMaximum(input, 9, 7, EdgeHandlingStrategy.EXPAND),
+				new MaximumKernel(7, 9).applyInt(input));
+	}
+
+	@Test
+	public void signedBytes() {
+		byte[][] input = { { -5, 3, -128, 127, 0, -1 } };
+		byte[][] res = { { 3, 3, 127, 127, 127, 0 } };
+		assertArrayEquals(res, new MaximumKernel(3, 1).applyByte(input));
+	}
+
+	@Test
+	public void rowParallel() {
+		int[][] input = randomInput(new Random(2), 500, 400);
+		assertArrayEquals(scannedMaximum(input, 7, 7, EdgeHandlingStrategy.EXPAND),
+				new MaximumKernel(7, 7).applyInt(input));
+	}
+
 }
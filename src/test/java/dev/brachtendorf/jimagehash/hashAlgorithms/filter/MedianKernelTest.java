@@ -0,0 +1,185 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms.filter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import dev.brachtendorf.jimagehash.hashAlgorithms.filter.Kernel.EdgeHandlingStrategy;
+
+/**
+ * @author Kilian
+ *
+ */
+class MedianKernelTest {
+
+	/**
+	 * Median of each neighborhood computed by sorting
+	 */
+	private static int[][] sortedMedian(int[][] input, int maskRows, int maskCols, EdgeHandlingStrategy strategy) {
+		int rows = input.length;
+		int cols = input[0].length;
+		int[][] result = new int[rows][cols];
+		for (int r = 0; r < rows; r++) {
+			for (int c = 0; c < cols; c++) {
+				int[] window = new int[maskRows * maskCols];
+				int i = 0;
+				boolean outside = false;
+				for (int mr = -maskRows / 2; mr <= maskRows / 2; mr++) {
+					for (int mc = -maskCols / 2; mc <= maskCols / 2; mc++) {
+						int y = r + mr;
+						int x = c + mc;
+						if (y < 0 || y >= rows || x < 0 || x >= cols) {
+							if (strategy.equals(EdgeHandlingStrategy.NO_OP)) {
+								outside = true;
+								continue;
+							}
+							y = strategy.correctPixel(y, rows);
+							x = strategy.correctPixel(x, cols);
+						}
+						window[i++] = input[y][x];
+					}
+				}
+				Arrays.sort(window);
+				result[r][c] = outside ? input[r][c] : window[window.length / 2];
+			}
+		}
+		return result;
+	}
+
+	private static int[][] randomInput(Random rng, int rows, int cols, int bound) {
+		int[][] input = new int[rows][cols];
+		for (int[] row : input) {
+			for (int i = 0; i < row.length; i++) {
+				row[i] = rng.nextInt(bound);
+			}
+		}
+		return input;
+	}
+
+	@Test
+	public void median1D() {
+		int[][] input = { { 5, 4, 1, 3, 6 } };
+		MedianKernel kernel = new MedianKernel(new double[][] { { 1, 1, 1, 1, 1 } });
+		// Edges are expanded
+		assertArrayEquals(new int[][] { { 5, 4, 4, 4, 6 } }, kernel.applyInt(input));
+	}
+
+	@Test
+	public void identity() {
+		int[][] input = randomInput(new Random(0), 10, 12, 256);
+		assertArrayEquals(input, new MedianKernel(1, 1).applyInt(input));
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EdgeHandlingStrategy.class, names = { "NO_OP", "EXPAND", "MIRROR" })
+	public void sameAsSorting(EdgeHandlingStrategy strategy) {
+		Random rng = new Random(strategy.ordinal());
+		int[][] input = randomInput(rng, 40, 33, 256);
+		for (int size : new int[] { 3, 5, 7 }) {
+			// The mask is indexed [width][height]
+			MedianKernel kernel = new MedianKernel(size, size - 2);
+			kernel.edgeHandling = strategy;
+			assertArrayEquals(sortedMedian(input, size, size - 2, strategy), kernel.applyInt(input));
+		}
+	}
+
+	@Test
+	public void lowEntropy() {
+		// Many equal values move the median across large gaps
+		int[][] input = randomInput(new Random(1), 30, 30, 2);
+		for (int[] row : input) {
+			for (int i = 0; i < row.length; i++) {
+				row[i] *= 255;
+			}
+		}
+		assertArrayEquals(sortedMedian(input, 5, 5, EdgeHandlingStrategy.EXPAND),
+				new MedianKernel(5, 5).applyInt(input));
+	}
+
+	@Test
+	public void outOfByteRange() {
+		// Falls back to sorting
+		int[][] input = randomInput(new Random(2), 15, 20, 5000);
+		assertArrayEquals(sortedMedian(input, 3, 3, EdgeHandlingStrategy.EXPAND),
+				new MedianKernel(3, 3).applyInt(input));
+	}
+
+	@Test
+	public void signedBytes() {
+		int[][] input = randomInput(new Random(3), 20, 20, 256);
+		byte[][] bytes = new byte[20][20];
+		int[][] shifted = new int[20][20];
+		for (int r = 0; r < 20; r++) {
+			for (int c = 0; c < 20; c++) {
+				bytes[r][c] = (byte) (input[r][c] - 128);
+				shifted[r][c] = bytes[r][c] + 128;
+			}
+		}
+		int[][] expected = sortedMedian(shifted, 3, 5, EdgeHandlingStrategy.EXPAND);
+		byte[][] result = new MedianKernel(3, 5).applyByte(bytes);
+		for (int r = 0; r < 20; r++) {
+			for (int c = 0; c < 20; c++) {
+				assertArrayEquals(new int[] { expected[r][c] - 128 }, new int[] { result[r][c] });
+			}
+		}
+	}
+
+	@Test
+	public void rowParallel() {
+		int[][] input = randomInput(new Random(4), 400, 300, 256);
+		assertArrayEquals(sortedMedian(input, 7, 7, EdgeHandlingStrategy.EXPAND),
+				new MedianKernel(7, 7).applyInt(input));
+	}
+
+	@Test
+	public void doubleInput() {
+		int[][] input = randomInput(new Random(5), 12, 9, 256);
+		double[][] doubles = new double[12][9];
+		for (int r = 0; r < 12; r++) {
+			for (int c = 0; c < 9; c++) {
+				doubles[r][c] = input[r][c];
+			}
+		}
+		assertArrayEquals(new MedianKernel(3, 3).apply(input), new MedianKernel(3, 3).apply(doubles));
+	}
+
+	@Test
+	public void incompatibleWithLegacyMedian() {
+		MedianKernel median = new MedianKernel(3, 3);
+		Kernel legacy = new Kernel(median.mask, EdgeHandlingStrategy.EXPAND, false);
+		assertNotEquals(legacy.hashCode(), median.hashCode());
+	}
+
+	@Test
+	public void subclassSelection() {
+		// Subclasses altering the selection are evaluated per pixel
+		@SuppressWarnings("serial")
+		MedianKernel maximum = new MedianKernel(3, 3) {
+			@Override
+			protected double resolveMedian(double[][] values) {
+				return Arrays.stream(values[0]).max().getAsDouble();
+			}
+		};
+		int[][] input = randomInput(new Random(6), 8, 7, 128);
+		int[][] expected = new MaximumKernel(3, 3).applyInt(input);
+		assertArrayEquals(expected, maximum.applyInt(input));
+
+		byte[][] bytes = new byte[8][7];
+		double[][] doubles = new double[8][7];
+		for (int r = 0; r < 8; r++) {
+			for (int c = 0; c < 7; c++) {
+				bytes[r][c] = (byte) input[r][c];
+				doubles[r][c] = expected[r][c];
+			}
+		}
+		assertArrayEquals(doubles, maximum.apply(input));
+		assertArrayEquals(doubles, maximum.apply(bytes));
+		assertArrayEquals(new MaximumKernel(3, 3).applyByte(bytes), maximum.applyByte(bytes));
+	}
+}
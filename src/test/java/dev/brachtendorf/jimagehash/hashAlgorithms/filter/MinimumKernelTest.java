@@ -0,0 +1,77 @@
+package dev.brachtendorf.jimagehash.hashAlgorithms.filter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import dev.brachtendorf.jimagehash.hashAlgorithms.filter.Kernel.EdgeHandlingStrategy;
+
+/**
+ * @author Kilian
+ *
+ */
+class MinimumKernelTest {
+
+	/**
+	 * The minimum is the negated maximum of the negated values
+	 */
+	private static int[][] negate(int[][] input) {
+		int[][] result = new int[input.length][input[0].length];
+		for (int r = 0; r < input.length; r++) {
+			for (int c = 0; c < input[0].length; c++) {
+				result[r][c] = -input[r][c];
+			}
+		}
+		return result;
+	}
+
+	private static int[][] scannedMinimum(int[][] input, int maskRows, int maskCols, EdgeHandlingStrategy strategy) {
+		return negate(MaximumKernelTest.scannedMaximum(negate(input), maskRows, maskCols, strategy));
+	}
+
+	@Test
+	public void noMask1D() {
+		double[][] arr = { { 2, 3, 2, 1, 6 } };
+		double[][] res = { { 2, 2, 1, 1, 1 } };
+		// The mask is indexed [width][height]
+		assertArrayEquals(res, new MinimumKernel(1, 3).apply(arr));
+	}
+
+	@Test
+	public void mask1D() {
+		// The weighted values are compared, the unweighted value is selected
+		double[][] mask = { { 1, 3, 1 } };
+		double[][] arr = { { 2, 1, 4, 2, 3, 5 } };
+		double[][] res = { { 1, 2, 1, 3, 2, 3 } };
+		assertArrayEquals(res, new MinimumKernel(mask).apply(arr));
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EdgeHandlingStrategy.class, names = { "NO_OP", "EXPAND", "MIRROR" })
+	public void sameAsScanning(EdgeHandlingStrategy strategy) {
+		int[][] input = MaximumKernelTest.randomInput(new Random(strategy.ordinal()), 29, 34);
+		for (int size : new int[] { 3, 5, 9 }) {
+			MinimumKernel kernel = new MinimumKernel(size + 2, size);
+			kernel.edgeHandling = strategy;
+			assertArrayEquals(scannedMinimum(input, size + 2, size, strategy), kernel.applyInt(input));
+		}
+	}
+
+	@Test
+	public void doubleInput() {
+		double[][] input = { { 0.5, -0.25, 3, 2.5, -7 } };
+		double[][] res = { { -0.25, -0.25, -0.25, -7, -7 } };
+		assertArrayEquals(res, new MinimumKernel(1, 3).apply(input));
+	}
+
+	@Test
+	public void rowParallel() {
+		int[][] input = MaximumKernelTest.randomInput(new Random(3), 400, 500);
+		assertArrayEquals(scannedMinimum(input, 9, 5, EdgeHandlingStrategy.EXPAND),
+				new MinimumKernel(9, 5).applyInt(input));
+	}
+}
@@ -18,6 +18,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Set;
@@ -183,6 +185,37 @@ class H2DatabaseImageMatcherTest {
 		}
 	}
 
+	@SuppressWarnings("resource")
+	@Test
+	public void overriddenAddImageHook() throws Exception {
+		List<String> added = new ArrayList<>();
+		H2DatabaseImageMatcher dbMatcher = new H2DatabaseImageMatcher("testAddImageHook", "sa", "") {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void addImage(HashingAlgorithm hashAlgo, String url, BufferedImage image) throws SQLException {
+				added.add(url + " " + hashAlgo.getKeyResolution());
+				super.addImage(hashAlgo, url, image);
+			}
+		};
+		try {
+			HashingAlgorithm h0 = new AverageHash(32);
+			HashingAlgorithm h1 = new PerceptiveHash(64);
+			dbMatcher.addHashingAlgorithm(h0, 0.5f);
+			dbMatcher.addHashingAlgorithm(h1, 0.5f);
+
+			dbMatcher.addImage("ballon", ballon);
+			File file = new File(H2DatabaseImageMatcherTest.class.getClassLoader().getResource("copyright.jpg").toURI());
+			dbMatcher.addImage("copyright", file);
+
+			assertEquals(List.of("ballon " + h0.getKeyResolution(), "ballon " + h1.getKeyResolution(),
+					"copyright " + h0.getKeyResolution(), "copyright " + h1.getKeyResolution()), added);
+			assertTrue(dbMatcher.doesEntryExist("copyright", h1));
+		} finally {
+			dbMatcher.deleteDatabase();
+		}
+	}
+
 	@Test
 	public void reconstructHash() throws ClassNotFoundException, SQLException, IllegalAccessException,
 			IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {